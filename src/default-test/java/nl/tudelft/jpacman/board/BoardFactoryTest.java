@@ -91,4 +91,32 @@ class BoardFactoryTest {
         assertThat(s1.getSquareAt(Direction.SOUTH)).isEqualTo(s2);
         assertThat(s2.getSquareAt(Direction.SOUTH)).isEqualTo(s1);
     }
+
+    /**
+     * Verifies that linking on the fork/join pool connects a board large
+     * enough to be split into bands exactly like linking serially.
+     */
+    @Test
+    void parallelLinkingIsSerialLinking() {
+        int side = 256;
+        Square[][] serial = new Square[side][side];
+        Square[][] parallel = new Square[side][side];
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                serial[x][y] = new BasicSquare();
+                parallel[x][y] = new BasicSquare();
+            }
+        }
+        factory.createBoard(serial, false);
+        factory.createBoard(parallel, true);
+
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                for (Direction direction : Direction.values()) {
+                    assertThat(parallel[x][y].getSquareAt(direction).getIndex())
+                        .isEqualTo(serial[x][y].getSquareAt(direction).getIndex());
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package nl.tudelft.jpacman.board;
+
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite to confirm that squares of a {@link CompactBoard} behave like
+ * the squares of a board made of square objects.
+ *
+ * @author Jeroen Roosen
+ */
+class CompactBoardTest {
+
+    /**
+     * A 3x2 board with a wall at the top-left and ground elsewhere.
+     */
+    private final CompactBoard board = new BoardFactory(new PacManSprites())
+        .createCompactBoard(3, 2, new byte[] {
+            CompactBoard.WALL, CompactBoard.GROUND, CompactBoard.GROUND,
+            CompactBoard.GROUND, CompactBoard.GROUND, CompactBoard.GROUND});
+
+    /**
+     * Verifies the size and the accessibility of the squares.
+     */
+    @Test
+    void squares() {
+        assertThat(board.getWidth()).isEqualTo(3);
+        assertThat(board.getHeight()).isEqualTo(2);
+        assertThat(board.squareAt(0, 0).isAccessibleTo(new BasicUnit())).isFalse();
+        assertThat(board.squareAt(2, 1).isAccessibleTo(new BasicUnit())).isTrue();
+        assertThat(board.squareAt(2, 1).getIndex()).isEqualTo(5);
+    }
+
+    /**
+     * Verifies that neighbours wrap around the edges of the board.
+     */
+    @Test
+    void neighbours() {
+        Square corner = board.squareAt(0, 0);
+        assertThat(corner.getSquareAt(Direction.WEST)).isEqualTo(board.squareAt(2, 0));
+        assertThat(corner.getSquareAt(Direction.NORTH)).isEqualTo(board.squareAt(0, 1));
+        assertThat(corner.getSquareAt(Direction.EAST).getSquareAt(Direction.SOUTH))
+            .isEqualTo(board.squareAt(1, 1));
+    }
+
+    /**
+     * Verifies that occupants are shared by all views of a square and only
+     * kept for occupied squares.
+     */
+    @Test
+    void occupants() {
+        Unit first = new BasicUnit();
+        Unit second = new BasicUnit();
+        first.occupy(board.squareAt(1, 0));
+        second.occupy(board.squareAt(1, 0));
+
+        assertThat(board.squareAt(1, 0).getOccupants()).containsExactly(first, second);
+        assertThat(first.getSquare()).isEqualTo(board.squareAt(1));
+        assertThat(board.getOccupiedSquareCount()).isEqualTo(1);
+
+        first.occupy(first.getSquare().getSquareAt(Direction.SOUTH));
+        second.leaveSquare();
+        assertThat(board.squareAt(1, 0).getOccupants()).isEmpty();
+        assertThat(board.squareAt(1, 1).getOccupants()).containsExactly(first);
+        assertThat(board.getOccupiedSquareCount()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that the index-based accessors agree with the views.
+     */
+    @Test
+    void indexAccessors() {
+        Unit unit = new BasicUnit();
+        unit.occupy(board.squareAt(4));
+
+        assertThat(board.neighbourOf(0, Direction.WEST)).isEqualTo(2);
+        assertThat(board.neighbourOf(0, Direction.NORTH)).isEqualTo(3);
+        assertThat(board.isAccessibleTo(0, unit)).isFalse();
+        assertThat(board.isAccessibleTo(1, unit)).isTrue();
+        assertThat(board.firstOccupantOf(4, BasicUnit.class)).isSameAs(unit);
+        assertThat(board.firstOccupantOf(5, BasicUnit.class)).isNull();
+    }
+
+    /**
+     * Verifies that the occupants of many squares are kept apart while the
+     * table of occupants grows and shrinks.
+     */
+    @Test
+    void manyOccupiedSquares() {
+        int size = 64;
+        CompactBoard large = new BoardFactory(new PacManSprites())
+            .createCompactBoard(size, size, new byte[size * size]);
+        Unit[] units = new Unit[large.getSquareCount()];
+        for (int i = 0; i < units.length; i++) {
+            units[i] = new BasicUnit();
+            units[i].occupy(large.squareAt(i));
+        }
+        assertThat(large.getOccupiedSquareCount()).isEqualTo(units.length);
+
+        for (int i = 0; i < units.length; i++) {
+            if (i % 5 != 0) {
+                units[i].leaveSquare();
+            }
+        }
+        assertThat(large.getOccupiedSquareCount()).isEqualTo((units.length + 4) / 5);
+        for (int i = 0; i < units.length; i++) {
+            Square square = large.squareAt(i);
+            if (i % 5 == 0) {
+                assertThat(square.getOccupantCount()).isEqualTo(1);
+                assertThat(square.getOccupant(0)).isSameAs(units[i]);
+            } else {
+                assertThat(square.getOccupantCount()).isZero();
+            }
+        }
+    }
+}
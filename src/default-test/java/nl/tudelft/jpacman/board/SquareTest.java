@@ -1,5 +1,7 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -62,4 +64,49 @@ class SquareTest {
 
         assertThat(square.getOccupants()).containsSequence(o1, o2);
     }
+
+    /**
+     * Assert that occupants can be read by position, oldest first.
+     */
+    @Test
+    void testIndexedAccess() {
+        Unit o1 = mock(Unit.class);
+        Unit o2 = mock(Unit.class);
+        square.put(o1);
+        square.put(o2);
+        square.remove(o1);
+
+        assertThat(square.getOccupantCount()).isEqualTo(1);
+        assertThat(square.getOccupant(0)).isEqualTo(o2);
+    }
+
+    /**
+     * Assert that the oldest occupant of a type is found, and that nothing is
+     * found for a type without occupants.
+     */
+    @Test
+    void testFirstOccupantOf() {
+        Unit other = mock(Unit.class);
+        BasicUnit first = new BasicUnit();
+        square.put(other);
+        square.put(first);
+        square.put(new BasicUnit());
+
+        assertThat(square.firstOccupantOf(BasicUnit.class)).isSameAs(first);
+        assertThat(new BasicSquare().firstOccupantOf(Unit.class)).isNull();
+    }
+
+    /**
+     * Assert that a list of occupants is not affected by later moves.
+     */
+    @Test
+    void testOccupantsSnapshot() {
+        Unit occupant = mock(Unit.class);
+        square.put(occupant);
+        List<Unit> occupants = square.getOccupants();
+        square.remove(occupant);
+
+        assertThat(occupants).containsExactly(occupant);
+        assertThat(square.getOccupants()).isEmpty();
+    }
 }
@@ -0,0 +1,103 @@
+package nl.tudelft.jpacman.board;
+
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import nl.tudelft.jpacman.sprite.Sprite;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test suite to confirm that the {@link UnitIndex} of a board follows the
+ * units on it.
+ *
+ * @author Jeroen Roosen
+ */
+class UnitIndexTest {
+
+    /**
+     * The factory creating the boards.
+     */
+    private final BoardFactory factory = new BoardFactory(new PacManSprites());
+
+    /**
+     * @return A new 5x1 board of ground squares.
+     */
+    private Board createBoard() {
+        Square[][] grid = new Square[5][1];
+        for (int x = 0; x < grid.length; x++) {
+            grid[x][0] = factory.createGround();
+        }
+        return factory.createBoard(grid);
+    }
+
+    /**
+     * Verifies that the index starts with the units already on the board
+     * and follows units that move or leave.
+     */
+    @Test
+    void followsUnits() {
+        Board board = createBoard();
+        BasicUnit early = new BasicUnit();
+        early.occupy(board.squareAt(1, 0));
+        assertThat(board.getUnitIndex()).isNull();
+
+        UnitIndex index = board.indexUnits(BasicUnit.class);
+        assertThat(board.indexUnits(BasicUnit.class)).isSameAs(index);
+        assertThat(index.count(BasicUnit.class)).isEqualTo(1);
+
+        BasicUnit late = new BasicUnit();
+        late.occupy(board.squareAt(3, 0));
+        late.occupy(board.squareAt(4, 0));
+        early.leaveSquare();
+
+        assertThat(index.count(BasicUnit.class)).isEqualTo(1);
+        assertThat(index.count(Unit.class)).isEqualTo(1);
+        index.forEach(BasicUnit.class, (unit, square) -> {
+            assertThat(unit).isSameAs(late);
+            assertThat(square).isEqualTo(board.squareAt(4, 0));
+        });
+    }
+
+    /**
+     * Verifies that units of other types are left out of the index, and
+     * are still found by searching the board.
+     */
+    @Test
+    void leavesOutOtherTypes() {
+        Board board = createBoard();
+        UnitIndex index = board.indexUnits(BasicUnit.class);
+        Unit other = new Unit() {
+            @Override
+            public Sprite getSprite() {
+                return null;
+            }
+        };
+        other.occupy(board.squareAt(3, 0));
+        new BasicUnit().occupy(board.squareAt(1, 0));
+
+        assertThat(index.covers(BasicUnit.class)).isTrue();
+        assertThat(index.covers(Unit.class)).isFalse();
+        assertThat(index.count(Unit.class)).isEqualTo(1);
+        assertThat(Navigation.findNearest(other.getClass(), board.squareAt(4, 0)))
+            .isSameAs(other);
+    }
+
+    /**
+     * Verifies that the nearest unit is found through the index, counting
+     * steps around the edges of the board.
+     */
+    @Test
+    void nearestUnitWrapsAround() {
+        Board board = createBoard();
+        board.indexUnits(BasicUnit.class);
+        BasicUnit near = new BasicUnit();
+        near.occupy(board.squareAt(4, 0));
+        new BasicUnit().occupy(board.squareAt(2, 0));
+
+        assertThat(Navigation.findNearest(BasicUnit.class, board.squareAt(0, 0)))
+            .isSameAs(near);
+        assertThat(Navigation.findUnitInBoard(BasicUnit.class, board).getSquare())
+            .isEqualTo(board.squareAt(2, 0));
+    }
+}
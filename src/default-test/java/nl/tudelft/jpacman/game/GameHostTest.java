@@ -0,0 +1,120 @@
+package nl.tudelft.jpacman.game;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.CompactBoard;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a {@link GameHost} runs independent games.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class GameHostTest {
+
+    /**
+     * A small map with two ghosts that can roam around.
+     */
+    private static final List<String> MAP = Lists.newArrayList(
+        "#######",
+        "#P....#",
+        "#.###.#",
+        "#G...G#",
+        "#######");
+
+    /**
+     * The host under test.
+     */
+    private GameHost host;
+
+    /**
+     * Creates a host with two workers.
+     */
+    @BeforeEach
+    void setUp() {
+        host = new GameHost(2, new PacManSprites(), mock(PointCalculator.class));
+    }
+
+    /**
+     * Stops the host.
+     */
+    @AfterEach
+    void tearDown() {
+        host.close();
+    }
+
+    /**
+     * Verifies that the ghosts of every started game move, and that
+     * destroyed games are no longer hosted.
+     *
+     * @throws InterruptedException
+     *             when interrupted while waiting for moves.
+     */
+    @Test
+    void gamesRunIndependently() throws InterruptedException {
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Game game = host.createGame(MAP);
+            game.start();
+            games.add(game);
+        }
+        Game idle = host.createGame(MAP);
+
+        Thread.sleep(1000L);
+
+        for (Game game : games) {
+            assertThat(host.getTicks(game)).isPositive();
+        }
+        assertThat(host.getTicks(idle)).isZero();
+        assertThat(host.getTotalTicksPerSecond()).isPositive();
+
+        host.destroyGame(games.get(0));
+        assertThat(games.get(0).isInProgress()).isFalse();
+        assertThat(host.getGameCount()).isEqualTo(20);
+    }
+
+    /**
+     * Verifies that games on a shared map each get a board and pellets of
+     * their own.
+     *
+     * @throws IOException
+     *             when the map could not be read.
+     */
+    @Test
+    void sharedGamesHaveTheirOwnBoards() throws IOException {
+        Game first = host.createSharedGame("/board.txt");
+        Game second = host.createSharedGame("/board.txt");
+
+        assertThat(first.getLevel().getBoard()).isInstanceOf(CompactBoard.class)
+            .isNotSameAs(second.getLevel().getBoard());
+        assertThat(first.getLevel().remainingPellets()).isPositive()
+            .isEqualTo(second.getLevel().remainingPellets());
+        assertThat(host.getGameCount()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies that the players of different games do not share their lives.
+     */
+    @Test
+    void livesAreNotShared() {
+        Game first = host.createGame(MAP);
+        Game second = host.createGame(MAP);
+
+        first.getPlayers().get(0).loseLife();
+
+        assertThat(second.getPlayers().get(0).getLives())
+            .isEqualTo(first.getPlayers().get(0).getLives() + 1);
+    }
+}
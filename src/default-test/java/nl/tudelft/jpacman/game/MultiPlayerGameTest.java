@@ -0,0 +1,91 @@
+package nl.tudelft.jpacman.game;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.level.TestLevels;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the registry and the input path of a {@link MultiPlayerGame}.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class MultiPlayerGameTest {
+
+    /**
+     * A map with two start squares and room to move.
+     */
+    private static final List<String> MAP = Lists.newArrayList(
+        "#######",
+        "#P...P#",
+        "#.....#",
+        "#######");
+
+    /**
+     * @param playerCount
+     *            The number of players.
+     * @return A new game on the map.
+     */
+    private MultiPlayerGame createGame(int playerCount) {
+        Level level = TestLevels.parser().parseMap(MAP);
+        return new GameFactory(new PlayerFactory(TestLevels.sprites()))
+            .createMultiPlayerGame(level, playerCount, new DefaultPointCalculator());
+    }
+
+    /**
+     * Verifies that players get dense ids in order and keep lives of their
+     * own.
+     */
+    @Test
+    void playersHaveIdsAndOwnLives() {
+        MultiPlayerGame game = createGame(3);
+
+        assertThat(game.getPlayerCount()).isEqualTo(3);
+        for (int id = 0; id < 3; id++) {
+            Player player = game.getPlayer(id);
+            assertThat(game.getPlayerId(player)).isEqualTo(id);
+            assertThat(game.getPlayers().get(id)).isSameAs(player);
+        }
+        assertThat(game.getPlayer(2).getSquare()).isSameAs(game.getPlayer(0).getSquare());
+
+        game.getPlayer(1).loseLife();
+        assertThat(game.getPlayer(1).getLives())
+            .isEqualTo(game.getPlayer(0).getLives() - 1);
+    }
+
+    /**
+     * Verifies that only the latest direction of each player is carried out,
+     * and only while the game is in progress.
+     */
+    @Test
+    void appliesLatestIntentOnce() {
+        MultiPlayerGame game = createGame(2);
+        Player first = game.getPlayer(0);
+        Player second = game.getPlayer(1);
+
+        game.steer(0, Direction.EAST);
+        assertThat(game.applyMoves()).isZero();
+
+        game.start();
+        game.steer(0, Direction.WEST);
+        game.steer(0, Direction.EAST);
+        game.steer(1, Direction.SOUTH);
+        assertThat(game.applyMoves()).isEqualTo(2);
+        assertThat(game.applyMoves()).isZero();
+        game.stop();
+
+        assertThat(first.getSquare().getIndex()).isEqualTo(1 * 7 + 2);
+        assertThat(second.getSquare().getIndex()).isEqualTo(2 * 7 + 5);
+        assertThat(first.getScore()).isPositive();
+    }
+}
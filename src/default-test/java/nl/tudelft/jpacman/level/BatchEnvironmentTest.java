@@ -0,0 +1,94 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import nl.tudelft.jpacman.board.Direction;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests stepping several copies of a level in lockstep.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class BatchEnvironmentTest {
+
+    /**
+     * Two copies of a level with a single pellet east of the player.
+     */
+    private BatchEnvironment environment;
+
+    /**
+     * Creates the copies.
+     */
+    @BeforeEach
+    void setUp() {
+        Level level = TestLevels.withPlayer(Lists.newArrayList("#P. #"));
+        environment = new BatchEnvironment(GameState.of(level, 200L, 1L), 2, 7L, false);
+    }
+
+    /**
+     * Verifies that a copy that is won reports its reward, is done and is
+     * observed at its restart, while the other copy plays on.
+     */
+    @Test
+    void finishedCopiesRestart() {
+        float[] rewards = new float[2];
+        boolean[] done = new boolean[2];
+        float[] observations = new float[2 * environment.getObservationSize()];
+
+        environment.step(new int[] {Direction.EAST.ordinal(), BatchEnvironment.STAY},
+            rewards, done, observations);
+
+        assertThat(rewards).containsExactly(10f, 0f);
+        assertThat(done).containsExactly(true, false);
+        assertThat(environment.getState(0).getRemainingPellets()).isEqualTo(1);
+        assertThat(environment.getState(1).getTime()).isEqualTo(200L);
+
+        assertThat(plane(observations, 0, BatchEnvironment.WALLS))
+            .containsExactly(1f, 0f, 0f, 0f, 1f);
+        assertThat(plane(observations, 0, BatchEnvironment.PELLETS))
+            .containsExactly(0f, 0f, 1f, 0f, 0f);
+        assertThat(plane(observations, 0, BatchEnvironment.PLAYER))
+            .containsExactly(0f, 1f, 0f, 0f, 0f);
+    }
+
+    /**
+     * Verifies that observations can be written into a direct buffer.
+     */
+    @Test
+    void directBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(2 * environment.getObservationSize() * 4)
+            .order(ByteOrder.nativeOrder());
+
+        environment.reset(buffer);
+
+        int player = BatchEnvironment.PLAYER * 5;
+        assertThat(buffer.getFloat((player + 1) * 4)).isEqualTo(1f);
+        assertThat(buffer.getFloat((player + 2) * 4)).isZero();
+    }
+
+    /**
+     * Extracts one plane of the observation of a copy.
+     *
+     * @param observations
+     *            The observations of all copies.
+     * @param env
+     *            The number of the copy.
+     * @param channel
+     *            The plane to extract.
+     * @return The values of the plane.
+     */
+    private float[] plane(float[] observations, int env, int channel) {
+        float[] plane = new float[5];
+        int start = env * environment.getObservationSize() + channel * plane.length;
+        System.arraycopy(observations, start, plane, 0, plane.length);
+        return plane;
+    }
+}
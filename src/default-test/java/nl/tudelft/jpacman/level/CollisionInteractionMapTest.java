@@ -0,0 +1,94 @@
+package nl.tudelft.jpacman.level;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.CollisionInteractionMap.CollisionHandler;
+import nl.tudelft.jpacman.npc.Ghost;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a {@link CollisionInteractionMap} picks the right handler, also
+ * after handlers have been added.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings({"unchecked", "PMD.JUnitTestsShouldIncludeAssert"})
+class CollisionInteractionMapTest {
+
+    /**
+     * The collision map under test.
+     */
+    private CollisionInteractionMap map;
+
+    /**
+     * A player colliding.
+     */
+    private final Player player = mock(Player.class);
+
+    /**
+     * A ghost being collided with.
+     */
+    private final Ghost ghost = mock(Ghost.class);
+
+    /**
+     * Sets up an empty collision map.
+     */
+    @BeforeEach
+    void setUp() {
+        map = new CollisionInteractionMap();
+    }
+
+    /**
+     * Verifies that repeated collisions keep using the same handler, in both
+     * directions.
+     */
+    @Test
+    void repeatedCollisions() {
+        CollisionHandler<Player, Ghost> handler = mock(CollisionHandler.class);
+        map.onCollision(Player.class, Ghost.class, handler);
+
+        map.collide(player, ghost);
+        map.collide(player, ghost);
+        map.collide(ghost, player);
+
+        verify(handler, times(3)).handleCollision(player, ghost);
+    }
+
+    /**
+     * Verifies that a more specific handler added after a collision was
+     * resolved takes over from the general one.
+     */
+    @Test
+    void handlerAddedLater() {
+        CollisionHandler<Unit, Unit> general = mock(CollisionHandler.class);
+        CollisionHandler<Player, Ghost> specific = mock(CollisionHandler.class);
+        map.onCollision(Unit.class, Unit.class, false, general);
+        map.collide(player, ghost);
+
+        map.onCollision(Player.class, Ghost.class, false, specific);
+        map.collide(player, ghost);
+
+        verify(general, times(1)).handleCollision(player, ghost);
+        verify(specific, times(1)).handleCollision(player, ghost);
+    }
+
+    /**
+     * Verifies that collisions without a listed handler are ignored.
+     */
+    @Test
+    void noHandler() {
+        CollisionHandler<Player, Pellet> handler = mock(CollisionHandler.class);
+        map.onCollision(Player.class, Pellet.class, false, handler);
+
+        map.collide(player, ghost);
+        map.collide(player, ghost);
+
+        verifyNoInteractions(handler);
+    }
+}
@@ -0,0 +1,101 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import nl.tudelft.jpacman.board.Direction;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a {@link GameState} plays out moves like the level it was taken
+ * from, and that forks are independent of each other.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class GameStateTest {
+
+    /**
+     * Verifies that eating the last pellet scores like the level does and
+     * wins, without touching the state that was stepped from.
+     */
+    @Test
+    void eatingLastPelletWins() {
+        Level level = TestLevels.withPlayer(Lists.newArrayList("#P. #"));
+        GameState start = GameState.of(level, 200L, 1L);
+        int pelletSquare = level.getBoard().squareAt(2, 0).getIndex();
+        assertThat(start.hasPellet(pelletSquare)).isTrue();
+
+        GameState next = GameState.step(start, Direction.EAST);
+
+        assertThat(next.isWon()).isTrue();
+        assertThat(next.isInProgress()).isFalse();
+        assertThat(next.hasPellet(pelletSquare)).isFalse();
+        assertThat(next.getPlayerSquare()).isEqualTo(pelletSquare);
+
+        Player player = level.getPlayers().get(0);
+        level.start();
+        level.move(player, Direction.EAST);
+        assertThat(next.getScore()).isEqualTo(player.getScore());
+
+        assertThat(start.getRemainingPellets()).isEqualTo(1);
+        assertThat(start.getTime()).isZero();
+    }
+
+    /**
+     * Verifies that walls stop the player but still turn it around.
+     */
+    @Test
+    void wallsBlock() {
+        GameState start = GameState.of(TestLevels.withPlayer(Lists.newArrayList("#P. #")), 200L, 1L);
+
+        GameState next = GameState.step(start, Direction.WEST);
+
+        assertThat(next.getPlayerSquare()).isEqualTo(start.getPlayerSquare());
+        assertThat(next.getPlayerDirection()).isEqualTo(Direction.WEST);
+        assertThat(next.getTime()).isEqualTo(200L);
+    }
+
+    /**
+     * Verifies that Blinky catches a player that stays put.
+     */
+    @Test
+    void ghostCatchesPlayer() {
+        GameState state = GameState.of(TestLevels.withPlayer(Lists.newArrayList("#P.G#")), 200L, 1L);
+
+        for (int i = 0; i < 10 && state.isInProgress(); i++) {
+            state.advance(null);
+        }
+
+        assertThat(state.isLost()).isTrue();
+        assertThat(state.getGhostSquare(0)).isEqualTo(state.getPlayerSquare());
+    }
+
+    /**
+     * Verifies that forks with the same history end up in the same state.
+     */
+    @Test
+    void forksAreDeterministic() {
+        GameState start = GameState.of(TestLevels.withPlayer(Lists.newArrayList(
+            "#########",
+            "#P.....G#",
+            "#.#####.#",
+            "#.......#",
+            "#########")), 150L, 42L);
+        GameState first = start.fork();
+        GameState second = start.fork();
+
+        for (int i = 0; i < 50; i++) {
+            Direction move = Direction.values()[i % 4];
+            first.advance(move);
+            second = GameState.step(second, move);
+        }
+
+        assertThat(second.getPlayerSquare()).isEqualTo(first.getPlayerSquare());
+        assertThat(second.getGhostSquare(0)).isEqualTo(first.getGhostSquare(0));
+        assertThat(second.getScore()).isEqualTo(first.getScore());
+        assertThat(second.getTime()).isEqualTo(first.getTime());
+        assertThat(start.getTime()).isZero();
+    }
+}
@@ -0,0 +1,90 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.LevelEvents.Cursor;
+import nl.tudelft.jpacman.level.LevelEvents.Type;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ring buffer of {@link LevelEvents}.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class LevelEventsTest {
+
+    /**
+     * The stream under test, holding four events.
+     */
+    private LevelEvents events;
+
+    /**
+     * A unit the events are about.
+     */
+    private final Unit unit = mock(Unit.class);
+
+    /**
+     * The squares the events read so far ended on.
+     */
+    private final List<Integer> read = new ArrayList<>();
+
+    /**
+     * Creates a stream of four events.
+     */
+    @BeforeEach
+    void setUp() {
+        events = new LevelEvents(3);
+    }
+
+    /**
+     * Verifies that events are read in order, with their details, and that
+     * each cursor reads them independently.
+     */
+    @Test
+    void readInOrder() {
+        Cursor first = events.newCursor();
+        events.publish(Type.MOVED, unit, null, 0, 1);
+        Cursor second = events.newCursor();
+        events.publish(Type.PELLET_EATEN, unit, unit, 1, -1);
+
+        List<Type> types = new ArrayList<>();
+        assertThat(first.poll((type, subject, object, from, to) -> {
+            assertThat(subject).isSameAs(unit);
+            types.add(type);
+            read.add(to);
+        }, 10)).isEqualTo(2);
+        assertThat(types).containsExactly(Type.MOVED, Type.PELLET_EATEN);
+        assertThat(read).containsExactly(1, -1);
+
+        assertThat(second.poll((type, subject, object, from, to) -> read.add(to), 10))
+            .isEqualTo(1);
+        assertThat(first.poll((type, subject, object, from, to) -> read.add(to), 10))
+            .isZero();
+    }
+
+    /**
+     * Verifies that a cursor that falls behind skips the overwritten events
+     * and counts them as lost.
+     */
+    @Test
+    void overrun() {
+        assertThat(events.getCapacity()).isEqualTo(4);
+        Cursor cursor = events.newCursor();
+        for (int i = 0; i < 10; i++) {
+            events.publish(Type.MOVED, unit, null, i, i + 1);
+        }
+
+        assertThat(cursor.poll((type, subject, object, from, to) -> read.add(from), 3))
+            .isEqualTo(3);
+        assertThat(cursor.getLost()).isEqualTo(6);
+        assertThat(read).containsExactly(6, 7, 8);
+    }
+}
@@ -0,0 +1,132 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a level keeps track of its pellets and players as the game
+ * progresses, and tells its observers once when it is won or lost.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("PMD.TooManyStaticImports")
+class LevelProgressTest {
+
+    /**
+     * The level under test, with a single pellet east of the player.
+     */
+    private Level level;
+
+    /**
+     * The player on the level.
+     */
+    private Player player;
+
+    /**
+     * The observer of the level.
+     */
+    private final Level.LevelObserver observer = mock(Level.LevelObserver.class);
+
+    /**
+     * Sets up and starts the level.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        LevelFactory levelFactory = new LevelFactory(
+            sprites,
+            new GhostFactory(sprites),
+            mock(PointCalculator.class));
+        MapParser parser = new MapParser(levelFactory, new BoardFactory(sprites));
+        level = parser.parseMap(Lists.newArrayList("#P. #"));
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        level.addObserver(observer);
+        level.start();
+    }
+
+    /**
+     * Verifies that eating the last pellet wins the level exactly once.
+     */
+    @Test
+    void eatingLastPelletWins() {
+        assertThat(level.remainingPellets()).isEqualTo(1);
+
+        level.move(player, Direction.EAST);
+        level.move(player, Direction.EAST);
+
+        assertThat(level.remainingPellets()).isZero();
+        verify(observer, times(1)).levelWon();
+        verify(observer, never()).levelLost();
+    }
+
+    /**
+     * Verifies that the death of the only player loses the level exactly
+     * once, and that reviving the player is noticed by the level.
+     */
+    @Test
+    void dyingLoses() {
+        player.setAlive(false);
+        assertThat(level.isAnyPlayerAlive()).isFalse();
+
+        level.move(player, Direction.WEST);
+        level.move(player, Direction.WEST);
+        verify(observer, times(1)).levelLost();
+
+        player.resetForNextRound();
+        assertThat(level.isAnyPlayerAlive()).isTrue();
+    }
+
+    /**
+     * Verifies that observers are told about the squares involved in a move.
+     */
+    @Test
+    void movesAreObserved() {
+        Square from = player.getSquare();
+        Square to = from.getSquareAt(Direction.EAST);
+
+        level.move(player, Direction.EAST);
+
+        verify(observer).unitMoved(player, from, to);
+    }
+
+    /**
+     * Verifies that eating a pellet is published on the event stream of the
+     * level, right after the move that led to it.
+     */
+    @Test
+    void eatingIsPublished() {
+        LevelEvents.Cursor cursor = level.getEvents().newCursor();
+        int to = player.getSquare().getSquareAt(Direction.EAST).getIndex();
+
+        level.move(player, Direction.EAST);
+
+        List<LevelEvents.Type> types = new ArrayList<>();
+        List<Integer> squares = new ArrayList<>();
+        cursor.poll((type, subject, object, start, end) -> {
+            types.add(type);
+            squares.add(start);
+        }, 10);
+        assertThat(types).containsExactly(LevelEvents.Type.MOVED,
+            LevelEvents.Type.COLLIDED, LevelEvents.Type.PELLET_EATEN);
+        assertThat(squares.get(2)).isEqualTo(to);
+        assertThat(cursor.getLost()).isZero();
+    }
+}
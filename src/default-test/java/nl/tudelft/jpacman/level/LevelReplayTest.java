@@ -0,0 +1,88 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import nl.tudelft.jpacman.npc.Ghost;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that levels with equally seeded random sources and virtual clocks
+ * play out the same.
+ *
+ * @author Jeroen Roosen
+ */
+class LevelReplayTest {
+
+    /**
+     * The time (in milliseconds) every level is played for.
+     */
+    private static final long PLAY_TIME = 3000L;
+
+    /**
+     * Plays the default board for a while without moving the player.
+     *
+     * @param seed
+     *            The seed of the random source of the level factory.
+     * @param millis
+     *            The time (in milliseconds) to play for.
+     * @return The board index of every ghost afterwards.
+     * @throws IOException
+     *             when the board could not be read.
+     */
+    private List<Integer> play(long seed, long millis) throws IOException {
+        List<VirtualClock> clocks = new ArrayList<>();
+        LevelFactory levelFactory = TestLevels.levelFactory(() -> {
+            VirtualClock clock = new VirtualClock();
+            clocks.add(clock);
+            return clock;
+        }, new SplittableRandom(seed));
+        Level level = TestLevels.parser(levelFactory).parseMap("/board.txt");
+        level.registerPlayer(TestLevels.createPacMan());
+
+        level.start();
+        clocks.get(0).advance(millis);
+        level.stop();
+
+        List<Integer> squares = new ArrayList<>();
+        for (Ghost ghost : level.getGhosts()) {
+            squares.add(ghost.getSquare().getIndex());
+        }
+        return squares;
+    }
+
+    /**
+     * Verifies that the ghosts end up on the same squares when the level is
+     * replayed with the same seed, after having left their spawn squares.
+     *
+     * @throws IOException
+     *             when the board could not be read.
+     */
+    @Test
+    void sameSeedSameGame() throws IOException {
+        List<Integer> played = play(7L, PLAY_TIME);
+
+        assertThat(played).isEqualTo(play(7L, PLAY_TIME));
+        List<Integer> spawns = play(7L, 0L);
+        for (int i = 0; i < played.size(); i++) {
+            assertThat(played.get(i)).isNotEqualTo(spawns.get(i));
+        }
+    }
+
+    /**
+     * Verifies that the random source decides the game, so that another seed
+     * makes the ghosts end up elsewhere.
+     *
+     * @throws IOException
+     *             when the board could not be read.
+     */
+    @Test
+    void otherSeedOtherGame() throws IOException {
+        assertThat(play(7L, PLAY_TIME)).isNotEqualTo(play(8L, PLAY_TIME));
+    }
+}
@@ -0,0 +1,116 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that compiled maps load into the same levels as their text.
+ *
+ * @author Jeroen Roosen
+ */
+class MapCompilerTest {
+
+    /**
+     * A small map with every kind of square.
+     */
+    private static final List<String> MAP = Lists.newArrayList(
+        "#####",
+        "#P.G#",
+        "# . #",
+        "#G.P#",
+        "#####");
+
+    /**
+     * The directory holding the compiled maps.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Compiles the map into a file.
+     *
+     * @param withNavigation
+     *            Whether to include navigation tables.
+     * @return The compiled map.
+     * @throws IOException
+     *             when the file could not be written.
+     */
+    private Path compile(boolean withNavigation) throws IOException {
+        Path file = directory.resolve("map.jpm");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            MapCompiler.compile(MAP, out, withNavigation);
+        }
+        return file;
+    }
+
+    /**
+     * Verifies that the loaded board has the same squares, units and start
+     * squares as the parsed one.
+     *
+     * @throws IOException
+     *             when the map could not be compiled or loaded.
+     */
+    @Test
+    void loadsLikeText() throws IOException {
+        Level parsed = TestLevels.parser().parseMap(MAP);
+        Level loaded = TestLevels.parser().loadCompiledMap(compile(true));
+
+        Board expected = parsed.getBoard();
+        Board actual = loaded.getBoard();
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        for (int i = 0; i < expected.getSquareCount(); i++) {
+            Square square = actual.squareAt(i);
+            assertThat(square.getClass()).isEqualTo(expected.squareAt(i).getClass());
+            assertThat(square.getOccupants()).extracting(Object::getClass)
+                .isEqualTo(Lists.transform(expected.squareAt(i).getOccupants(),
+                    Object::getClass));
+        }
+        assertThat(loaded.remainingPellets()).isEqualTo(parsed.remainingPellets());
+        assertThat(loaded.getGhosts()).extracting(Object::getClass)
+            .containsExactlyElementsOf(Lists.transform(parsed.getGhosts(), Object::getClass));
+    }
+
+    /**
+     * Verifies that files that are not compiled maps are rejected.
+     *
+     * @throws IOException
+     *             when the file could not be written.
+     */
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("text.jpm");
+        Files.write(file, MAP);
+        assertThatThrownBy(() -> TestLevels.parser().loadCompiledMap(file))
+            .isInstanceOf(PacmanConfigurationException.class);
+
+        Files.write(file, new byte[] {0x4A, 0x50});
+        assertThatThrownBy(() -> TestLevels.parser().loadCompiledMap(file))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Verifies that maps with unknown characters are rejected when compiled.
+     */
+    @Test
+    void rejectsInvalidCharacters() {
+        assertThatThrownBy(() -> MapCompiler.compile(Lists.newArrayList("#X#"),
+            new ByteArrayOutputStream(), false))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.npc.Ghost;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that large maps parsed by a parallel parser, which adds their squares
+ * from several threads, parse like they do on a single thread.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class MapParserParallelTest {
+
+    /**
+     * The width and height of the map, which together make enough squares to
+     * be split into several bands.
+     */
+    private static final int SIZE = 256;
+
+    /**
+     * The number of start squares on the map.
+     */
+    private static final int PLAYERS = 3;
+
+    /**
+     * @return A map surrounded by walls, with pellets, ghosts and start
+     *         squares spread over it.
+     */
+    private static List<String> map() {
+        List<String> rows = new ArrayList<>();
+        for (int y = 0; y < SIZE; y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = 0; x < SIZE; x++) {
+                if (x == 0 || y == 0 || x == SIZE - 1 || y == SIZE - 1) {
+                    row.append('#');
+                } else if (y == 5 && x % 64 == 1 && x / 64 < PLAYERS) {
+                    row.append('P');
+                } else if (x % 7 == 3) {
+                    row.append('#');
+                } else if ((x * 31 + y * 17) % 251 == 0) {
+                    row.append('G');
+                } else if ((x + y) % 3 == 0) {
+                    row.append(' ');
+                } else {
+                    row.append('.');
+                }
+            }
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+    /**
+     * Verifies that the ghosts, pellets and start squares are the same
+     * whether the squares were added from several threads or from a single
+     * one.
+     */
+    @Test
+    void parallelParseMatchesSerialParse() {
+        MapParser parallelParser = new MapParser(TestLevels.levelFactory(),
+            TestLevels.boardFactory(), true);
+        Level parallel = parallelParser.parseMap(map());
+        Level serial = TestLevels.parser().parseMap(map());
+
+        assertThat(parallel.getGhosts()).isNotEmpty().hasSameSizeAs(serial.getGhosts());
+        for (int i = 0; i < serial.getGhosts().size(); i++) {
+            Ghost expected = serial.getGhosts().get(i);
+            Ghost actual = parallel.getGhosts().get(i);
+            assertThat(actual).hasSameClassAs(expected);
+            assertThat(actual.getSquare().getIndex()).isEqualTo(expected.getSquare().getIndex());
+        }
+        assertThat(parallel.remainingPellets()).isPositive()
+            .isEqualTo(serial.remainingPellets());
+        assertThat(startSquares(parallel)).isEqualTo(startSquares(serial));
+    }
+
+    /**
+     * Registers a player on every start square of a level.
+     *
+     * @param level
+     *            The level.
+     * @return The board index of every start square, in order.
+     */
+    private static List<Integer> startSquares(Level level) {
+        List<Integer> squares = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            Player player = TestLevels.createPacMan();
+            level.registerPlayer(player);
+            squares.add(player.getSquare().getIndex());
+        }
+        assertThat(squares).doesNotHaveDuplicates();
+        return squares;
+    }
+}
@@ -0,0 +1,89 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests parsing maps from streams in a single pass.
+ *
+ * @author Jeroen Roosen
+ */
+class MapParserStreamTest {
+
+    /**
+     * @param text
+     *            The text of a map.
+     * @return A stream of the text.
+     */
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies that a streamed map has the same squares and ghosts as the
+     * same map given as lines, whatever its line endings.
+     *
+     * @throws IOException
+     *             never.
+     */
+    @Test
+    void sameAsLines() throws IOException {
+        Level expected = TestLevels.parser().parseMap(Lists.newArrayList("#P.G#", "#G. #", "#..G#"));
+        Level actual = TestLevels.parser().parseMap(stream("#P.G#\r\n#G. #\r#..G#"));
+
+        Board board = actual.getBoard();
+        assertThat(board.getWidth()).isEqualTo(5);
+        assertThat(board.getHeight()).isEqualTo(3);
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            assertThat(board.squareAt(i).getClass())
+                .isEqualTo(expected.getBoard().squareAt(i).getClass());
+        }
+        assertThat(actual.remainingPellets()).isEqualTo(expected.remainingPellets());
+        assertThat(Lists.transform(actual.getGhosts(), Object::getClass))
+            .isEqualTo(Lists.transform(expected.getGhosts(), Object::getClass));
+    }
+
+    /**
+     * Verifies that a trailing line break does not add a row.
+     *
+     * @throws IOException
+     *             never.
+     */
+    @Test
+    void trailingLineBreak() throws IOException {
+        Level level = TestLevels.parser().parseMap(stream("#P#\n# #\n"));
+        assertThat(level.getBoard().getHeight()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies that badly formatted maps are rejected with the same errors as
+     * maps given as lines, format errors taking precedence over invalid
+     * characters.
+     */
+    @Test
+    void formatErrors() {
+        assertThatThrownBy(() -> TestLevels.parser().parseMap(stream("")))
+            .isInstanceOf(PacmanConfigurationException.class)
+            .hasMessage("Input text must consist of at least 1 row.");
+        assertThatThrownBy(() -> TestLevels.parser().parseMap(stream("\n###")))
+            .isInstanceOf(PacmanConfigurationException.class)
+            .hasMessage("Input text lines cannot be empty.");
+        assertThatThrownBy(() -> TestLevels.parser().parseMap(stream("#X#\n##")))
+            .isInstanceOf(PacmanConfigurationException.class)
+            .hasMessage("Input text lines are not of equal width.");
+        assertThatThrownBy(() -> TestLevels.parser().parseMap(stream("###\n#X#")))
+            .isInstanceOf(PacmanConfigurationException.class)
+            .hasMessageEndingWith("1,1: X");
+    }
+}
@@ -0,0 +1,105 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.DistanceField;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the distance fields a level keeps towards its players for the ghosts
+ * chasing them.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class PlayerDistanceFieldTest {
+
+    /**
+     * Verifies that all ghosts share one field until the player moves.
+     */
+    @Test
+    void fieldIsRebuiltWhenThePlayerMoves() {
+        Level level = TestLevels.withPlayer(Lists.newArrayList(
+            "#########",
+            "#G  P  G#",
+            "#########"));
+        Player player = level.getPlayers().get(0);
+        Ghost first = level.getGhosts().get(0);
+        Ghost second = level.getGhosts().get(1);
+
+        Square start = first.getSquare();
+        DistanceField field = level.distanceField(player, first);
+        assertThat(level.distanceField(player, second)).isSameAs(field);
+        assertThat(field.distance(start)).isEqualTo(3);
+
+        level.start();
+        level.move(player, Direction.EAST);
+        level.stop();
+        DistanceField moved = level.distanceField(player, second);
+        assertThat(moved).isNotSameAs(field);
+        assertThat(moved.getTarget()).isEqualTo(player.getSquare().getIndex());
+        assertThat(moved.distance(start)).isEqualTo(4);
+        assertThat(level.distanceField(player, first)).isSameAs(moved);
+    }
+
+    /**
+     * Verifies that ghosts chase the player they can reach soonest, which is
+     * not the one nearest as the crow flies.
+     */
+    @Test
+    void nearestPlayerIsMeasuredAlongTheField() {
+        Level level = TestLevels.parser().parseMap(Lists.newArrayList(
+            "#######",
+            "#P#G  #",
+            "# ### #",
+            "#    P#",
+            "#######"));
+        Player behindWall = TestLevels.createPacMan();
+        Player open = TestLevels.createPacMan();
+        level.registerPlayer(behindWall);
+        level.registerPlayer(open);
+        Ghost ghost = level.getGhosts().get(0);
+
+        assertThat(Navigation.nearestPlayer(ghost.getSquare(), ghost)).isSameAs(open);
+    }
+
+    /**
+     * Verifies that a ghost aiming ahead of the player follows the field of
+     * the player from afar, and then finds its destination next to the
+     * player along a shortest path.
+     */
+    @Test
+    void approachReachesTheDestination() {
+        Level level = TestLevels.withPlayer(Lists.newArrayList(
+            "#########",
+            "#G      #",
+            "#   P   #",
+            "#       #",
+            "#########"));
+        Board board = level.getBoard();
+        Player player = level.getPlayers().get(0);
+        Ghost ghost = level.getGhosts().get(0);
+        DistanceField field = level.distanceField(player, ghost);
+
+        Square destination = board.squareAt(6, 2);
+        Square square = ghost.getSquare();
+        assertThat(field.approach(square, destination, ghost))
+            .isEqualTo(field.firstStep(square, ghost));
+        int steps = 0;
+        while (!square.equals(destination) && steps < board.getSquareCount()) {
+            square = square.getSquareAt(field.approach(square, destination, ghost));
+            steps++;
+        }
+        assertThat(square).isEqualTo(destination);
+        assertThat(steps).isEqualTo(6);
+        assertThat(field.approach(destination, destination, ghost)).isNull();
+        assertThat(field.approach(ghost.getSquare(), board.squareAt(0, 0), ghost)).isNull();
+    }
+}
@@ -0,0 +1,102 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.DefaultPointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * Creates the factories and parsers used to set up levels in tests. Every
+ * call creates new factories, so that levels parsed in a test get the same
+ * ghosts whatever was parsed before.
+ *
+ * @author Jeroen Roosen
+ */
+public final class TestLevels {
+
+    /**
+     * The sprites shared by all factories.
+     */
+    private static final PacManSprites SPRITES = new PacManSprites();
+
+    private TestLevels() {
+        // utility class
+    }
+
+    /**
+     * @return The sprites shared by all factories.
+     */
+    public static PacManSprites sprites() {
+        return SPRITES;
+    }
+
+    /**
+     * @return A new level factory with the default point calculator, whose
+     *         levels run in real time.
+     */
+    public static LevelFactory levelFactory() {
+        return new LevelFactory(SPRITES, new GhostFactory(SPRITES),
+            new DefaultPointCalculator());
+    }
+
+    /**
+     * @param clockFactory
+     *            Provides a new clock for every level.
+     * @param random
+     *            The source from which the random source of every level is
+     *            split.
+     * @return A new level factory with the default point calculator.
+     */
+    public static LevelFactory levelFactory(Supplier<? extends Clock> clockFactory,
+                                            SplittableRandom random) {
+        return new LevelFactory(SPRITES, new GhostFactory(SPRITES),
+            new DefaultPointCalculator(), clockFactory, random);
+    }
+
+    /**
+     * @return A new board factory.
+     */
+    public static BoardFactory boardFactory() {
+        return new BoardFactory(SPRITES);
+    }
+
+    /**
+     * @return A new map parser using a new {@link #levelFactory()}.
+     */
+    public static MapParser parser() {
+        return parser(levelFactory());
+    }
+
+    /**
+     * @param levelFactory
+     *            The factory providing the NPC objects and the level.
+     * @return A new map parser using the given level factory.
+     */
+    public static MapParser parser(LevelFactory levelFactory) {
+        return new MapParser(levelFactory, boardFactory());
+    }
+
+    /**
+     * @return A new Pac-Man.
+     */
+    public static Player createPacMan() {
+        return new PlayerFactory(SPRITES).createPacMan();
+    }
+
+    /**
+     * Parses a map and registers a new Pac-Man on it.
+     *
+     * @param map
+     *            The rows of the map.
+     * @return The level, with its player.
+     */
+    public static Level withPlayer(List<String> map) {
+        Level level = parser().parseMap(map);
+        level.registerPlayer(createPacMan());
+        return level;
+    }
+}
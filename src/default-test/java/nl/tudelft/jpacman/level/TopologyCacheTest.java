@@ -0,0 +1,65 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import nl.tudelft.jpacman.board.CompactBoard;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests sharing map topologies between levels.
+ *
+ * @author Jeroen Roosen
+ */
+class TopologyCacheTest {
+
+    /**
+     * A small map with a pellet, a ghost and a start square.
+     */
+    private static final byte[] MAP = "#####\n#P.G#\n#####".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Verifies that the same text yields the same topology, and different
+     * texts different ones, until the least recently used one is dropped.
+     */
+    @Test
+    void cachesByContent() {
+        TopologyCache cache = new TopologyCache(2);
+        MapTopology first = cache.get(MAP);
+        assertThat(cache.get(MAP.clone())).isSameAs(first);
+
+        MapTopology second = cache.get("#P #".getBytes(StandardCharsets.UTF_8));
+        assertThat(second).isNotSameAs(first);
+        cache.get(MAP);
+        cache.get("#P.#".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(MAP)).isSameAs(first);
+        assertThat(cache.get("#P #".getBytes(StandardCharsets.UTF_8))).isNotSameAs(second);
+    }
+
+    /**
+     * Verifies that levels of the same topology share their walls but not
+     * their units.
+     */
+    @Test
+    void levelsShareWallsOnly() {
+        MapTopology topology = new TopologyCache(1).get(MAP);
+        Level first = topology.createLevel(TestLevels.levelFactory(), TestLevels.boardFactory());
+        Level second = topology.createLevel(TestLevels.levelFactory(), TestLevels.boardFactory());
+
+        CompactBoard firstBoard = (CompactBoard) first.getBoard();
+        CompactBoard secondBoard = (CompactBoard) second.getBoard();
+        assertThat(firstBoard.getTopology()).isSameAs(secondBoard.getTopology());
+        assertThat(first.getGhosts()).hasSize(1);
+
+        first.getGhosts().get(0).leaveSquare();
+        firstBoard.squareAt(2, 1).getOccupant(0).leaveSquare();
+        assertThat(firstBoard.squareAt(3, 1).getOccupants()).isEmpty();
+        assertThat(firstBoard.squareAt(2, 1).getOccupants()).isEmpty();
+        assertThat(secondBoard.squareAt(3, 1).getOccupants()).hasSize(1);
+        assertThat(secondBoard.squareAt(2, 1).getOccupants()).hasSize(1);
+    }
+}
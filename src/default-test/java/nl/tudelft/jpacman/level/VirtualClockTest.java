@@ -0,0 +1,92 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a level driven by a {@link VirtualClock} moves its NPCs
+ * deterministically.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings({"magicnumber", "PMD.TooManyStaticImports"})
+class VirtualClockTest {
+
+    /**
+     * The clock under test.
+     */
+    private VirtualClock clock;
+
+    /**
+     * An NPC on the level.
+     */
+    private final Ghost ghost = mock(Ghost.class);
+
+    /**
+     * The level driven by the clock.
+     */
+    private Level level;
+
+    /**
+     * Sets up a single square level with one NPC moving every 100 ms.
+     */
+    @BeforeEach
+    void setUp() {
+        BoardFactory factory = new BoardFactory(mock(PacManSprites.class));
+        Square square = factory.createGround();
+        Board board = factory.createBoard(new Square[][]{{square}});
+
+        clock = new VirtualClock();
+        level = new Level(board, Lists.newArrayList(ghost), Lists.newArrayList(square),
+            mock(CollisionMap.class), clock);
+        when(ghost.getInterval()).thenReturn(100L);
+    }
+
+    /**
+     * Verifies that nothing moves before the level is started.
+     */
+    @Test
+    void noMovesWhenStopped() {
+        assertThat(clock.advance(1000L)).isZero();
+        verify(ghost, times(0)).nextMove();
+    }
+
+    /**
+     * Verifies that the first move happens after half an interval and every
+     * interval after that.
+     */
+    @Test
+    void movesOnSchedule() {
+        level.start();
+        assertThat(clock.advance(49L)).isZero();
+        assertThat(clock.advance(1L)).isEqualTo(1);
+        assertThat(clock.advance(200L)).isEqualTo(2);
+        assertThat(clock.currentTimeMillis()).isEqualTo(250L);
+        verify(ghost, times(3)).nextMove();
+    }
+
+    /**
+     * Verifies that stopping the level stops the NPC moves.
+     */
+    @Test
+    void noMovesAfterStop() {
+        level.start();
+        clock.advance(100L);
+        level.stop();
+        assertThat(clock.advance(1000L)).isZero();
+        assertThat(level.getTickEngine().getTicks()).isEqualTo(1L);
+    }
+}
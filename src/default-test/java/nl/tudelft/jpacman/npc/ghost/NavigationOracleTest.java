@@ -0,0 +1,137 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import com.google.common.collect.Lists;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies that the {@link NavigationOracle} and {@link DistanceField} agree
+ * with the breadth first search of {@link Navigation}.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class NavigationOracleTest {
+
+    /**
+     * Map parser used to construct boards.
+     */
+    private MapParser parser;
+
+    /**
+     * Set up the map parser.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        LevelFactory levelFactory = new LevelFactory(
+            sprites,
+            new GhostFactory(sprites),
+            mock(PointCalculator.class));
+        parser = new MapParser(levelFactory, new BoardFactory(sprites));
+    }
+
+    /**
+     * Verifies distances and first steps against the search on the default
+     * board, including the paths through the tunnels that wrap around.
+     *
+     * @throws IOException if board reading fails.
+     */
+    @Test
+    void agreesWithSearch() throws IOException {
+        try (InputStream i = getClass().getResourceAsStream("/board.txt")) {
+            Board b = parser.parseMap(i).getBoard();
+            Unit traveller = mock(Unit.class);
+            NavigationOracle oracle = NavigationOracle.build(b, traveller);
+            assertThat(oracle).isNotNull();
+
+            for (int from = 0; from < b.getSquareCount(); from += 7) {
+                Square s1 = b.squareAt(from);
+                if (!oracle.covers(s1)) {
+                    continue;
+                }
+                for (int to = 0; to < b.getSquareCount(); to++) {
+                    Square s2 = b.squareAt(to);
+                    List<Direction> path = Navigation.shortestPath(s1, s2, traveller);
+                    if (path == null) {
+                        assertThat(oracle.distance(s1, s2)).isEqualTo(-1);
+                        assertThat(oracle.firstStep(s1, s2)).isNull();
+                    } else {
+                        assertThat(oracle.distance(s1, s2)).isEqualTo(path.size());
+                        assertThat(oracle.firstStep(s1, s2))
+                            .isEqualTo(path.isEmpty() ? null : path.get(0));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies distances and first steps of distance fields against the
+     * search on the default board.
+     *
+     * @throws IOException if board reading fails.
+     */
+    @Test
+    void fieldsAgreeWithSearch() throws IOException {
+        try (InputStream i = getClass().getResourceAsStream("/board.txt")) {
+            Board b = parser.parseMap(i).getBoard();
+            Unit traveller = mock(Unit.class);
+
+            for (int to = 0; to < b.getSquareCount(); to += 5) {
+                Square s2 = b.squareAt(to);
+                DistanceField field = DistanceField.build(s2, traveller);
+                for (int from = 0; from < b.getSquareCount(); from++) {
+                    Square s1 = b.squareAt(from);
+                    List<Direction> path = Navigation.shortestPath(s1, s2, traveller);
+                    if (path == null) {
+                        assertThat(field.distance(s1)).isEqualTo(-1);
+                        assertThat(field.firstStep(s1, traveller)).isNull();
+                    } else {
+                        assertThat(field.distance(s1)).isEqualTo(path.size());
+                        assertThat(field.firstStep(s1, traveller))
+                            .isEqualTo(path.isEmpty() ? null : path.get(0));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies that walking a path twice wraps around the board.
+     */
+    @Test
+    void projectBeyondWraps() {
+        Board b = parser.parseMap(Lists.newArrayList("#####", "#   #", "#####"))
+            .getBoard();
+        assertThat(Navigation.projectBeyond(b.squareAt(1, 1), b.squareAt(3, 1)))
+            .isEqualTo(b.squareAt(0, 1));
+        assertThat(Navigation.projectBeyond(b.squareAt(2, 1), b.squareAt(2, 1)))
+            .isEqualTo(b.squareAt(2, 1));
+    }
+
+    /**
+     * Verifies that squares without a common board are not walked between.
+     */
+    @Test
+    void projectBeyondWithoutBoard() {
+        Square through = mock(Square.class);
+        assertThat(Navigation.projectBeyond(mock(Square.class), through)).isSameAs(through);
+    }
+}
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,17 +36,28 @@ class NavigationTest {
      */
     private MapParser parser;
 
+    /**
+     * Level factory used by the map parser.
+     */
+    private LevelFactory levelFactory;
+
+    /**
+     * Board factory used by the map parser.
+     */
+    private BoardFactory boardFactory;
+
     /**
      * Set up the map parser.
      */
     @BeforeEach
     void setUp() {
         PacManSprites sprites = new PacManSprites();
-        LevelFactory levelFactory = new LevelFactory(
+        levelFactory = new LevelFactory(
             sprites,
             new GhostFactory(sprites),
             mock(PointCalculator.class));
-        parser = new MapParser(levelFactory, new BoardFactory(sprites));
+        boardFactory = new BoardFactory(sprites);
+        parser = new MapParser(levelFactory, boardFactory);
     }
 
     /**
@@ -143,6 +155,54 @@ class NavigationTest {
         assertThat(unit).isNull();
     }
 
+    /**
+     * Verifies that a path is found between squares that are linked to each
+     * other but not placed on a board.
+     */
+    @Test
+    void testPathOffBoard() {
+        List<Square> row = linkedRow(5);
+        List<Direction> path = Navigation
+            .shortestPath(row.get(0), row.get(2), mock(Unit.class));
+        assertThat(path).containsExactly(Direction.EAST, Direction.EAST);
+    }
+
+    /**
+     * Verifies that the nearest object is found between squares that are
+     * linked to each other but not placed on a board.
+     */
+    @Test
+    void testNearestUnitOffBoard() {
+        List<Square> row = linkedRow(4);
+        Pellet pellet = levelFactory.createPellet();
+        pellet.occupy(row.get(2));
+        assertThat(Navigation.findNearest(Pellet.class, row.get(0))).isSameAs(pellet);
+    }
+
+    /**
+     * Creates a row of ground squares that are linked to each other, wrapping
+     * around at its ends, without placing them on a board.
+     *
+     * @param length
+     *            The number of squares in the row.
+     * @return The squares of the row, from west to east.
+     */
+    private List<Square> linkedRow(int length) {
+        List<Square> row = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            row.add(boardFactory.createGround());
+        }
+        for (int i = 0; i < length; i++) {
+            Square square = row.get(i);
+            Square east = row.get((i + 1) % length);
+            square.link(east, Direction.EAST);
+            east.link(square, Direction.WEST);
+            square.link(square, Direction.NORTH);
+            square.link(square, Direction.SOUTH);
+        }
+        return row;
+    }
+
     /**
      * Verifies that there is ghost on the default board
      * next to cell [1, 1].
@@ -3,6 +3,9 @@ package nl.tudelft.jpacman.sprite;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -109,4 +112,22 @@ class SpriteTest {
         Sprite split = sprite.split(10, 10, 64, 10);
         assertThat(split).isInstanceOf(EmptySprite.class);
     }
+
+    /**
+     * Verifies that a sprite is drawn at the requested size, also after
+     * being drawn at another size.
+     */
+    @Test
+    void drawScaled() {
+        BufferedImage canvas = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = canvas.createGraphics();
+
+        sprite.draw(graphics, 0, 0, 16, 16);
+        assertThat(canvas.getRGB(15, 15)).isEqualTo(Color.WHITE.getRGB());
+        assertThat(canvas.getRGB(16, 16)).isEqualTo(Color.BLACK.getRGB());
+
+        sprite.draw(graphics, 0, 0, 32, 32);
+        assertThat(canvas.getRGB(31, 31)).isEqualTo(Color.WHITE.getRGB());
+        graphics.dispose();
+    }
 }
@@ -0,0 +1,104 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import nl.tudelft.jpacman.Launcher;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.Player;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which changes make the board panel draw a new frame.
+ *
+ * @author Jeroen Roosen
+ */
+class BoardPanelTest {
+
+    /**
+     * The size (in pixels) of a square in the frames drawn.
+     */
+    private static final int SQUARE_SIZE = 4;
+
+    /**
+     * The game displayed, which is not started.
+     */
+    private Game game;
+
+    /**
+     * The player of the game.
+     */
+    private Player player;
+
+    /**
+     * The panel under test.
+     */
+    private BoardPanel panel;
+
+    /**
+     * Sets up a panel for the default game that has drawn its first frame.
+     */
+    @BeforeEach
+    void setUp() {
+        game = new Launcher().makeGame();
+        player = game.getPlayers().get(0);
+        panel = new BoardPanel(game);
+        panel.setSize(SQUARE_SIZE * game.getLevel().getBoard().getWidth(),
+            SQUARE_SIZE * game.getLevel().getBoard().getHeight());
+        paint();
+    }
+
+    /**
+     * Verifies that nothing is drawn while the game is stopped and nothing
+     * changes.
+     */
+    @Test
+    void stoppedGameNeedsNoFrames() {
+        assertThat(panel.needsFrame()).isFalse();
+    }
+
+    /**
+     * Verifies that the death of Pac-Man keeps being drawn after the game
+     * stopped, as it does when the level is lost.
+     */
+    @Test
+    void deathAnimationPlaysWhileStopped() {
+        player.setAlive(false);
+        assertThat(game.isInProgress()).isFalse();
+        assertThat(panel.needsFrame()).isTrue();
+
+        paint();
+        assertThat(panel.needsFrame()).isTrue();
+        paint();
+        assertThat(panel.needsFrame()).isTrue();
+    }
+
+    /**
+     * Verifies that Pac-Man coming back to life is drawn without a move.
+     */
+    @Test
+    void revivalIsDrawn() {
+        player.setAlive(false);
+        paint();
+        player.resetForNextRound();
+        assertThat(panel.needsFrame()).isTrue();
+
+        paint();
+        assertThat(panel.needsFrame()).isFalse();
+    }
+
+    /**
+     * Paints the panel on an image of its size.
+     */
+    private void paint() {
+        BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(),
+            BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.createGraphics();
+        panel.paint(graphics);
+        graphics.dispose();
+    }
+}
@@ -0,0 +1,51 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+
+import nl.tudelft.jpacman.Launcher;
+import nl.tudelft.jpacman.board.Board;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests drawing boards off screen in tiles.
+ *
+ * @author Jeroen Roosen
+ */
+class BoardRendererTest {
+
+    /**
+     * The board of the default level.
+     */
+    private final Board board = new Launcher().makeLevel().getBoard();
+
+    /**
+     * Verifies that the frame is the same whatever the tiles and threads,
+     * including tiles that stick out of the board.
+     */
+    @Test
+    void tilesMakeTheSameFrame() {
+        BoardRenderer whole = new BoardRenderer(8, Math.max(board.getWidth(), board.getHeight()),
+            false);
+        BoardRenderer tiled = new BoardRenderer(8, 5, true);
+
+        int[] expected = new int[whole.getFrameWidth(board) * whole.getFrameHeight(board)];
+        int[] actual = new int[expected.length];
+        whole.render(board, expected);
+        tiled.render(board, actual);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    /**
+     * Verifies that images have room for every square.
+     */
+    @Test
+    void imageSize() {
+        BufferedImage image = new BoardRenderer(4, 3, false).render(board);
+        assertThat(image.getWidth()).isEqualTo(4 * board.getWidth());
+        assertThat(image.getHeight()).isEqualTo(4 * board.getHeight());
+    }
+}
@@ -0,0 +1,49 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests writing frames in the background.
+ *
+ * @author Jeroen Roosen
+ */
+class FrameExporterTest {
+
+    /**
+     * The directory receiving the frames.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Verifies that every accepted frame is written once the exporter is
+     * closed, numbered in the order of acceptance, and that no frames are
+     * accepted afterwards.
+     *
+     * @throws IOException
+     *             when a frame could not be written.
+     */
+    @Test
+    void writesAcceptedFrames() throws IOException {
+        FrameExporter exporter = new FrameExporter(directory, "frame", 2);
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < 10; i++) {
+            exporter.offer(image);
+        }
+        exporter.close();
+
+        assertThat(exporter.getAccepted() + exporter.getDropped()).isEqualTo(10);
+        assertThat(directory.toFile().list()).hasSize((int) exporter.getAccepted());
+        assertThat(directory.resolve("frame000000.png")).exists();
+        assertThatThrownBy(() -> exporter.offer(image))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
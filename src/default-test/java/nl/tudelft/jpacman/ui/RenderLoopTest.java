@@ -0,0 +1,67 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the pacing of frames by the render loop.
+ *
+ * @author Jeroen Roosen
+ */
+class RenderLoopTest {
+
+    /**
+     * The time (in milliseconds) between two frames at most.
+     */
+    private static final long BUDGET = 5L;
+
+    /**
+     * Verifies that no frames are drawn while nothing changes, and that slow
+     * frames make the loop drop frames instead of queueing them.
+     *
+     * @throws InterruptedException
+     *             when interrupted while waiting for frames.
+     */
+    @Test
+    void drawsOnlyChangedFrames() throws InterruptedException {
+        AtomicBoolean changed = new AtomicBoolean();
+        AtomicInteger drawn = new AtomicInteger();
+        RenderLoop loop = new RenderLoop(BUDGET, changed::get, () -> {
+            drawn.incrementAndGet();
+            sleep(4 * BUDGET);
+        });
+        loop.start();
+
+        Thread.sleep(20 * BUDGET);
+        assertThat(loop.getFrameCount()).isZero();
+
+        changed.set(true);
+        Thread.sleep(40 * BUDGET);
+        changed.set(false);
+        loop.stop();
+
+        assertThat(loop.isStopped()).isTrue();
+        assertThat(drawn.get()).isPositive();
+        assertThat(loop.getDroppedFrames()).isPositive();
+        assertThat(loop.getFrameTimePercentile(50)).isPositive()
+            .isLessThanOrEqualTo(loop.getFrameTimePercentile(100));
+    }
+
+    /**
+     * Sleeps without being interrupted.
+     *
+     * @param millis
+     *            The time (in milliseconds) to sleep.
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
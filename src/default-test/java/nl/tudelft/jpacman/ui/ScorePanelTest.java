@@ -0,0 +1,53 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the score panel only formats the scores that changed.
+ *
+ * @author Jeroen Roosen
+ */
+class ScorePanelTest {
+
+    /**
+     * Verifies that a refresh only formats the players that changed since
+     * the previous refresh.
+     */
+    @Test
+    void formatsChangedPlayersOnly() {
+        PlayerFactory factory = new PlayerFactory(new PacManSprites());
+        Player first = factory.createPacMan();
+        Player second = factory.createPacMan();
+        List<Player> formatted = new ArrayList<>();
+        ScorePanel panel = new ScorePanel(List.of(first, second));
+        panel.setScoreFormatter(player -> {
+            formatted.add(player);
+            return Integer.toString(player.getScore());
+        });
+
+        assertThat(panel.needsRefresh()).isTrue();
+        panel.refresh();
+        assertThat(formatted).containsExactly(first, second);
+        assertThat(panel.needsRefresh()).isFalse();
+
+        formatted.clear();
+        second.addPoints(10);
+        second.gainLife();
+        assertThat(panel.needsRefresh()).isTrue();
+        panel.refresh();
+        assertThat(formatted).containsExactly(second);
+
+        formatted.clear();
+        panel.refresh();
+        assertThat(formatted).isEmpty();
+    }
+}
@@ -0,0 +1,235 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.EmptySprite;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * Creates the maps and levels the benchmarks run on. Levels are driven by a
+ * {@link VirtualClock}, so NPCs never move behind the back of a benchmark, and
+ * all sprites are empty, so no display is needed.
+ *
+ * @author Jeroen Roosen
+ */
+public final class BenchmarkLevels {
+
+    /**
+     * The name of the map size parameter value denoting the default board.
+     */
+    public static final String DEFAULT_BOARD = "board";
+
+    /**
+     * The sprites shared by all benchmarks.
+     */
+    private static final PacManSprites SPRITES = new EmptySprites();
+
+    /**
+     * The seed of the random choices of the ghosts.
+     */
+    private static final long SEED = 42L;
+
+    private BenchmarkLevels() {
+    }
+
+    /**
+     * Creates a map parser producing levels driven by a virtual clock, whose
+     * ghosts make the same random choices in every run.
+     *
+     * @return A new map parser.
+     */
+    public static MapParser parser() {
+        LevelFactory levelFactory = new LevelFactory(SPRITES, new GhostFactory(SPRITES),
+            new NoPoints(), VirtualClock::new, new SplittableRandom(SEED));
+        return new MapParser(levelFactory, new BoardFactory(SPRITES));
+    }
+
+    /**
+     * Creates a board factory using empty sprites.
+     *
+     * @return A new board factory.
+     */
+    public static BoardFactory boardFactory() {
+        return new BoardFactory(SPRITES);
+    }
+
+    /**
+     * Returns the text of a map.
+     *
+     * @param size
+     *            Either {@link #DEFAULT_BOARD}, or the width and height of a
+     *            generated map.
+     * @param ghosts
+     *            The number of ghosts on a generated map.
+     * @return The lines of the map.
+     */
+    public static List<String> map(String size, int ghosts) {
+        if (DEFAULT_BOARD.equals(size)) {
+            return resource("/board.txt");
+        }
+        int side = Integer.parseInt(size);
+        return generate(side, side, ghosts);
+    }
+
+    /**
+     * Generates a map surrounded by walls, with pillars of wall on every
+     * fourth row and column and a pellet on every other square. The player
+     * starts in the top left corner and the ghosts are spread over the map.
+     *
+     * @param width
+     *            The width of the map, at least 4.
+     * @param height
+     *            The height of the map, at least 4.
+     * @param ghosts
+     *            The number of ghosts on the map.
+     * @return The lines of the map.
+     */
+    public static List<String> generate(int width, int height, int ghosts) {
+        assert width >= 4 && height >= 4;
+
+        char[][] cells = new char[height][width];
+        List<int[]> open = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean border = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+                boolean pillar = x % 4 == 0 && y % 4 == 0;
+                if (border || pillar) {
+                    cells[y][x] = '#';
+                } else {
+                    cells[y][x] = '.';
+                    open.add(new int[] {x, y});
+                }
+            }
+        }
+        cells[1][1] = 'P';
+        int placed = Math.min(ghosts, open.size() - 2);
+        for (int i = 1; i <= placed; i++) {
+            int[] position = open.get(open.size() - 1 - (i - 1) * (open.size() - 2) / placed);
+            cells[position[1]][position[0]] = 'G';
+        }
+
+        List<String> lines = new ArrayList<>(height);
+        for (char[] row : cells) {
+            lines.add(new String(row));
+        }
+        return lines;
+    }
+
+    /**
+     * Reads the lines of a map resource.
+     *
+     * @param name
+     *            The name of the resource.
+     * @return The lines of the map.
+     */
+    public static List<String> resource(String name) {
+        try (InputStream stream = BenchmarkLevels.class.getResourceAsStream(name)) {
+            if (stream == null) {
+                throw new PacmanConfigurationException("Could not get resource for: " + name);
+            }
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(stream, StandardCharsets.UTF_8));
+            return reader.lines().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new PacmanConfigurationException("Could not read resource: " + name, e);
+        }
+    }
+
+    /**
+     * Creates a new Pac-Man.
+     *
+     * @return A new player.
+     */
+    public static Player createPlayer() {
+        return new PlayerFactory(SPRITES).createPacMan();
+    }
+
+    /**
+     * Creates a new ghost that is not part of any level.
+     *
+     * @return A new ghost.
+     */
+    public static Ghost createGhost() {
+        return new GhostFactory(SPRITES).createBlinky();
+    }
+
+    /**
+     * Returns the square that is reached from a square by going in a
+     * direction as long as possible.
+     *
+     * @param board
+     *            The board the square is on.
+     * @param from
+     *            The square to start from.
+     * @param direction
+     *            The direction to go in.
+     * @param traveller
+     *            The unit going there.
+     * @return The last square reached.
+     */
+    public static Square farthest(Board board, Square from, Direction direction,
+                                  Ghost traveller) {
+        Square current = from;
+        for (int i = 0; i < board.getWidth() + board.getHeight(); i++) {
+            Square next = current.getSquareAt(direction);
+            if (!next.isAccessibleTo(traveller)) {
+                break;
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * A point calculator that awards nothing.
+     *
+     * @author Jeroen Roosen
+     */
+    public static final class NoPoints implements PointCalculator {
+
+        @Override
+        public void collidedWithAGhost(Player player, Ghost ghost) {
+            // no points
+        }
+
+        @Override
+        public void consumedAPellet(Player player, Pellet pellet) {
+            // no points
+        }
+
+        @Override
+        public void pacmanMoved(Player player, Direction direction) {
+            // no points
+        }
+    }
+
+    /**
+     * Sprites that draw nothing and do not need to be loaded.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class EmptySprites extends PacManSprites {
+
+        @Override
+        public Sprite loadSprite(String resource) {
+            return new EmptySprite();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures connecting the squares of large boards, serially and on the
+ * common fork/join pool.
+ *
+ * @author Jeroen Roosen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    /**
+     * The width and height of the board.
+     */
+    @Param({"256", "1024", "2048"})
+    private int side;
+
+    /**
+     * Whether to connect the squares on the common fork/join pool.
+     */
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    /**
+     * The factory under test.
+     */
+    private BoardFactory factory;
+
+    /**
+     * The squares of the board, surrounded by walls.
+     */
+    private Square[][] grid;
+
+    /**
+     * Creates the squares of the board.
+     */
+    @Setup
+    public void setUp() {
+        factory = BenchmarkLevels.boardFactory();
+        grid = new Square[side][side];
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                boolean border = x == 0 || y == 0 || x == side - 1 || y == side - 1;
+                grid[x][y] = border ? factory.createWall() : factory.createGround();
+            }
+        }
+    }
+
+    /**
+     * Connects the squares into a board. Linking a square again replaces its
+     * neighbours by the same squares, so the grid can be reused.
+     *
+     * @return The board.
+     */
+    @Benchmark
+    public Board createBoard() {
+        return factory.createBoard(grid, parallel);
+    }
+}
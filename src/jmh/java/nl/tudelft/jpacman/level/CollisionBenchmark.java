@@ -0,0 +1,90 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.sprite.EmptySprite;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the declarative {@link CollisionInteractionMap}, as used by
+ * {@link DefaultPlayerInteractionMap}, with the hand written
+ * {@link PlayerCollisions} for the collisions of a player.
+ *
+ * @author Jeroen Roosen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    /**
+     * The collision map built on a {@link CollisionInteractionMap}.
+     */
+    private CollisionMap interactionMap;
+
+    /**
+     * The hand written collision map.
+     */
+    private CollisionMap playerCollisions;
+
+    /**
+     * The player colliding.
+     */
+    private Player player;
+
+    /**
+     * The ghost the player runs into.
+     */
+    private Ghost ghost;
+
+    /**
+     * The pellet the player runs into. It is not on a square, so it stays
+     * around after being eaten.
+     */
+    private Pellet pellet;
+
+    /**
+     * Sets up the collision maps and units.
+     */
+    @Setup
+    public void setUp() {
+        interactionMap = new DefaultPlayerInteractionMap(new BenchmarkLevels.NoPoints());
+        playerCollisions = new PlayerCollisions(new BenchmarkLevels.NoPoints());
+        player = BenchmarkLevels.createPlayer();
+        ghost = BenchmarkLevels.createGhost();
+        pellet = new Pellet(1, new EmptySprite());
+    }
+
+    /**
+     * Lets the player run into a ghost and a pellet using the interaction map.
+     */
+    @Benchmark
+    public void interactionMap() {
+        interactionMap.collide(player, ghost);
+        interactionMap.collide(player, pellet);
+    }
+
+    /**
+     * Lets the player run into a ghost and a pellet using the hand written
+     * collisions.
+     */
+    @Benchmark
+    public void playerCollisions() {
+        playerCollisions.collide(player, ghost);
+        playerCollisions.collide(player, pellet);
+    }
+}
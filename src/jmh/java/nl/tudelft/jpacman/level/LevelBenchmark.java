@@ -0,0 +1,141 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures moving a player back and forth, and counting the pellets of a
+ * level. One level has nothing to collide with on the way, on the other the
+ * player runs into a ghost on every move.
+ *
+ * @author Jeroen Roosen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LevelBenchmark {
+
+    /**
+     * The map to play on, either the default board or the side of a generated
+     * square map.
+     */
+    @Param({BenchmarkLevels.DEFAULT_BOARD, "32", "128"})
+    private String mapSize;
+
+    /**
+     * The number of ghosts on a generated map.
+     */
+    @Param({"4", "64"})
+    private int ghosts;
+
+    /**
+     * The level without collisions.
+     */
+    private Level quiet;
+
+    /**
+     * The player on the level without collisions.
+     */
+    private Player quietPlayer;
+
+    /**
+     * The level with a collision on every move.
+     */
+    private Level busy;
+
+    /**
+     * The player on the level with collisions.
+     */
+    private Player busyPlayer;
+
+    /**
+     * The direction of the next move.
+     */
+    private Direction direction = Direction.EAST;
+
+    /**
+     * Sets up and starts both levels.
+     */
+    @Setup
+    public void setUp() {
+        quietPlayer = BenchmarkLevels.createPlayer();
+        quiet = start(quietPlayer);
+        // Eat the pellet next door, so nothing is left to collide with.
+        quiet.move(quietPlayer, Direction.EAST);
+        quiet.move(quietPlayer, Direction.WEST);
+
+        busyPlayer = BenchmarkLevels.createPlayer();
+        busy = start(busyPlayer);
+        Square start = busyPlayer.getSquare();
+        BenchmarkLevels.createGhost().occupy(start);
+        BenchmarkLevels.createGhost().occupy(start.getSquareAt(Direction.EAST));
+    }
+
+    /**
+     * Creates and starts a level with a player.
+     *
+     * @param player
+     *            The player to register.
+     * @return The started level.
+     */
+    private Level start(Player player) {
+        Level level = BenchmarkLevels.parser().parseMap(BenchmarkLevels.map(mapSize, ghosts));
+        level.registerPlayer(player);
+        level.start();
+        return level;
+    }
+
+    /**
+     * Returns the direction of the next move, alternating between east and
+     * west.
+     *
+     * @return The direction to move in.
+     */
+    private Direction nextDirection() {
+        direction = direction.equals(Direction.EAST) ? Direction.WEST : Direction.EAST;
+        return direction;
+    }
+
+    /**
+     * Moves the player without colliding.
+     */
+    @Benchmark
+    public void moveWithoutCollisions() {
+        quiet.move(quietPlayer, nextDirection());
+    }
+
+    /**
+     * Moves the player into a ghost.
+     */
+    @Benchmark
+    public void moveWithCollisions() {
+        busy.move(busyPlayer, nextDirection());
+    }
+
+    /**
+     * Counts the pellets left on the level.
+     *
+     * @return The number of pellets.
+     */
+    @Benchmark
+    public int remainingPellets() {
+        return quiet.remainingPellets();
+    }
+}
@@ -0,0 +1,113 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing the default board and generated maps into levels, from
+ * text and from compiled maps.
+ *
+ * @author Jeroen Roosen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapParserBenchmark {
+
+    /**
+     * The map to parse, either the default board or the side of a generated
+     * square map.
+     */
+    @Param({BenchmarkLevels.DEFAULT_BOARD, "64", "256"})
+    private String mapSize;
+
+    /**
+     * The number of ghosts on a generated map.
+     */
+    @Param({"4", "64"})
+    private int ghosts;
+
+    /**
+     * The parser under test.
+     */
+    private MapParser parser;
+
+    /**
+     * The text of the map.
+     */
+    private List<String> map;
+
+    /**
+     * The compiled map.
+     */
+    private Path compiled;
+
+    /**
+     * Sets up the parser, the map text and the compiled map.
+     *
+     * @throws IOException
+     *             when the compiled map could not be written.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        parser = BenchmarkLevels.parser();
+        map = BenchmarkLevels.map(mapSize, ghosts);
+        compiled = Files.createTempFile("jpacman", ".jpm");
+        try (OutputStream out = Files.newOutputStream(compiled)) {
+            MapCompiler.compile(map, out, false);
+        }
+    }
+
+    /**
+     * Removes the compiled map.
+     *
+     * @throws IOException
+     *             when the compiled map could not be removed.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(compiled);
+    }
+
+    /**
+     * Parses the map.
+     *
+     * @return The parsed level.
+     */
+    @Benchmark
+    public Level parseMap() {
+        return parser.parseMap(map);
+    }
+
+    /**
+     * Loads the compiled map.
+     *
+     * @return The loaded level.
+     * @throws IOException
+     *             when the compiled map could not be read.
+     */
+    @Benchmark
+    public Level loadCompiledMap() throws IOException {
+        return parser.loadCompiledMap(compiled);
+    }
+}
@@ -0,0 +1,124 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.BenchmarkLevels;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.npc.Ghost;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the searches ghosts use to find their way, from the top left corner
+ * of a map to the farthest corner and to the nearest other ghost.
+ *
+ * @author Jeroen Roosen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NavigationBenchmark {
+
+    /**
+     * The map to search, either the default board or the side of a generated
+     * square map.
+     */
+    @Param({BenchmarkLevels.DEFAULT_BOARD, "32", "128"})
+    private String mapSize;
+
+    /**
+     * The number of ghosts on a generated map.
+     */
+    @Param({"4", "64"})
+    private int ghosts;
+
+    /**
+     * The ghost travelling.
+     */
+    private Ghost traveller;
+
+    /**
+     * The square the searches start from.
+     */
+    private Square from;
+
+    /**
+     * The square the searches go to.
+     */
+    private Square to;
+
+    /**
+     * Sets up the map and picks the squares to search between.
+     */
+    @Setup
+    public void setUp() {
+        Level level = BenchmarkLevels.parser().parseMap(BenchmarkLevels.map(mapSize, ghosts));
+        Player player = BenchmarkLevels.createPlayer();
+        level.registerPlayer(player);
+
+        Board board = level.getBoard();
+        traveller = BenchmarkLevels.createGhost();
+        from = player.getSquare();
+        Square corner = BenchmarkLevels.farthest(board, from, Direction.EAST, traveller);
+        to = BenchmarkLevels.farthest(board, corner, Direction.SOUTH, traveller);
+    }
+
+    /**
+     * Searches the shortest path for the traveller.
+     *
+     * @return The path found.
+     */
+    @Benchmark
+    public List<Direction> shortestPath() {
+        return Navigation.shortestPath(from, to, traveller);
+    }
+
+    /**
+     * Searches the shortest path ignoring the terrain.
+     *
+     * @return The path found.
+     */
+    @Benchmark
+    public List<Direction> shortestPathIgnoringTerrain() {
+        return Navigation.shortestPath(from, to, null);
+    }
+
+    /**
+     * Decides on the first step towards the target, as ghosts do.
+     *
+     * @return The first step.
+     */
+    @Benchmark
+    public Direction firstStep() {
+        return Navigation.firstStep(from, to, traveller);
+    }
+
+    /**
+     * Searches the nearest ghost.
+     *
+     * @return The ghost found.
+     */
+    @Benchmark
+    public Unit findNearest() {
+        return Navigation.findNearest(Ghost.class, from);
+    }
+}
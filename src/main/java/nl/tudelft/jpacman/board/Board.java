@@ -1,5 +1,6 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.function.BiConsumer;
 
 /**
  * A top-down view of a matrix of {@link Square}s.
@@ -13,6 +14,22 @@ public class Board {
      */
     private final Square[][] board;
 
+    /**
+     * The number of columns.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * The index of the units on this board, or <code>null</code> if the
+     * units are not indexed.
+     */
+    private volatile UnitIndex units;
+
     /**
      * Creates a new board.
      *
@@ -24,7 +41,30 @@ public class Board {
     Board(Square[][] grid) {
         assert grid != null;
         this.board = grid;
+        this.width = grid.length;
+        this.height = grid[0].length;
         assert invariant() : "Initial grid cannot contain null squares";
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                grid[x][y].attach(this, indexOf(x, y));
+            }
+        }
+    }
+
+    /**
+     * Creates a new board that does not keep a grid of squares, for
+     * subclasses that provide their squares themselves.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     */
+    Board(int width, int height) {
+        assert width > 0 && height > 0;
+        this.board = null;
+        this.width = width;
+        this.height = height;
     }
 
     /**
@@ -32,6 +72,9 @@ public class Board {
      * @return false if any square on the board is null.
      */
     protected final boolean invariant() {
+        if (board == null) {
+            return true;
+        }
         for (Square[] row : board) {
             for (Square square : row) {
                 if (square == null) {
@@ -48,7 +91,7 @@ public class Board {
      * @return The width of this board.
      */
     public int getWidth() {
-        return board.length;
+        return width;
     }
 
     /**
@@ -57,7 +100,7 @@ public class Board {
      * @return The height of this board.
      */
     public int getHeight() {
-        return board[0].length;
+        return height;
     }
 
     /**
@@ -90,6 +133,169 @@ public class Board {
         return result;
     }
 
+    /**
+     * Returns the number of squares on this board.
+     *
+     * @return The number of squares, i.e. width times height.
+     */
+    public int getSquareCount() {
+        return getWidth() * getHeight();
+    }
+
+    /**
+     * Returns the dense index of the square at the given <code>x,y</code>
+     * position. Squares are numbered row by row, starting at the top-left.
+     *
+     * Precondition: The <code>(x, y)</code> coordinates are within the
+     * width and height of the board.
+     *
+     * @param x
+     *            The <code>x</code> position (column) of the square.
+     * @param y
+     *            The <code>y</code> position (row) of the square.
+     * @return The index of the square, between 0 and
+     *         {@link #getSquareCount()} (exclusive).
+     */
+    public int indexOf(int x, int y) {
+        assert withinBorders(x, y);
+        return y * getWidth() + x;
+    }
+
+    /**
+     * Returns the square with the given index.
+     *
+     * @param index
+     *            The index of the square, see {@link #indexOf(int, int)}.
+     * @return The square with the given index (never null).
+     */
+    public Square squareAt(int index) {
+        assert index >= 0 && index < getSquareCount();
+        return squareAt(index % getWidth(), index / getWidth());
+    }
+
+    /**
+     * Returns the index of the square next to another one. Unlike
+     * {@link Square#getSquareAt(Direction)}, this does not need a square
+     * object, which boards that create their squares on demand would have
+     * to create.
+     *
+     * @param index
+     *            The index of the square.
+     * @param direction
+     *            The direction of the neighbour.
+     * @return The index of the neighbour.
+     */
+    public int neighbourOf(int index, Direction direction) {
+        return squareAt(index).getSquareAt(direction).getIndex();
+    }
+
+    /**
+     * Determines whether a unit may occupy a square, like
+     * {@link Square#isAccessibleTo(Unit)}.
+     *
+     * @param index
+     *            The index of the square.
+     * @param unit
+     *            The unit to grant or deny access.
+     * @return <code>true</code> iff the unit is allowed to occupy the square.
+     */
+    public boolean isAccessibleTo(int index, Unit unit) {
+        return squareAt(index).isAccessibleTo(unit);
+    }
+
+    /**
+     * Returns the oldest occupant of a type of a square, like
+     * {@link Square#firstOccupantOf(Class)}.
+     *
+     * @param index
+     *            The index of the square.
+     * @param type
+     *            The type of unit to look for.
+     * @param <T>
+     *            The type of unit to look for.
+     * @return The oldest occupant of the given type, or <code>null</code> if
+     *         no unit of that type occupies the square.
+     */
+    public <T extends Unit> T firstOccupantOf(int index, Class<T> type) {
+        return squareAt(index).firstOccupantOf(type);
+    }
+
+    /**
+     * Returns the index of the units on this board.
+     *
+     * @return The index, or <code>null</code> if the units on this board are
+     *         not indexed.
+     */
+    public final UnitIndex getUnitIndex() {
+        return units;
+    }
+
+    /**
+     * Starts keeping an index of the units of some types on this board,
+     * starting with the units on it now. No units should move meanwhile.
+     * Only index types of which there are few units, as every move of an
+     * indexed unit updates the index.
+     *
+     * @param types
+     *            The types of unit to index, including their subtypes.
+     * @return The index, which is the existing one if the units were indexed
+     *         already, whatever its types.
+     */
+    public final synchronized UnitIndex indexUnits(Class<?>... types) {
+        if (units == null) {
+            UnitIndex index = new UnitIndex(types);
+            forEachOccupant(index::moved);
+            units = index;
+        }
+        return units;
+    }
+
+    /**
+     * Performs an action for every unit on this board.
+     *
+     * @param action
+     *            The action, given each unit and the square it occupies.
+     */
+    void forEachOccupant(BiConsumer<Unit, Square> action) {
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                Square square = board[x][y];
+                for (Unit unit : square.occupants()) {
+                    action.accept(unit, square);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the index of the units, if any, after a unit occupied a square
+     * of this board.
+     *
+     * @param unit
+     *            The unit that moved.
+     * @param square
+     *            The square it now occupies.
+     */
+    void unitMoved(Unit unit, Square square) {
+        UnitIndex index = units;
+        if (index != null) {
+            index.moved(unit, square);
+        }
+    }
+
+    /**
+     * Updates the index of the units, if any, after a unit left this board.
+     *
+     * @param unit
+     *            The unit that left.
+     */
+    void unitLeft(Unit unit) {
+        UnitIndex index = units;
+        if (index != null) {
+            index.removed(unit);
+        }
+    }
+
     /**
      * Determines whether the given <code>x,y</code> position is on this board.
      *
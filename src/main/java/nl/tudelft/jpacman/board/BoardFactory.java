@@ -1,5 +1,8 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import nl.tudelft.jpacman.sprite.PacManSprites;
 import nl.tudelft.jpacman.sprite.Sprite;
 
@@ -11,6 +14,18 @@ import nl.tudelft.jpacman.sprite.Sprite;
  */
 public class BoardFactory {
 
+    /**
+     * The number of squares from which boards are built on the common
+     * fork/join pool.
+     */
+    public static final int PARALLEL_SQUARES = 1 << 16;
+
+    /**
+     * The number of squares below which a band of columns is linked without
+     * splitting it further.
+     */
+    private static final int BAND_SQUARES = 1 << 13;
+
     /**
      * The sprite store providing the sprites for the background.
      */
@@ -28,7 +43,9 @@ public class BoardFactory {
     }
 
     /**
-     * Creates a new board from a grid of cells and connects it.
+     * Creates a new board from a grid of cells and connects it. Boards of at
+     * least {@link #PARALLEL_SQUARES} squares are connected on the common
+     * fork/join pool.
      *
      * @param grid
      *            The square grid of cells, in which grid[x][y] corresponds to
@@ -37,12 +54,47 @@ public class BoardFactory {
      */
     public Board createBoard(Square[][] grid) {
         assert grid != null;
+        return createBoard(grid, (long) grid.length * grid[0].length >= PARALLEL_SQUARES);
+    }
+
+    /**
+     * Creates a new board from a grid of cells and connects it.
+     *
+     * @param grid
+     *            The square grid of cells, in which grid[x][y] corresponds to
+     *            the square at position x,y.
+     * @param parallel
+     *            Whether to connect bands of columns on the common fork/join
+     *            pool. The result is the same either way.
+     * @return A new board, wrapping a grid of connected cells.
+     */
+    public Board createBoard(Square[][] grid, boolean parallel) {
+        assert grid != null;
 
         Board board = new Board(grid);
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new LinkBand(grid, 0, grid.length));
+        } else {
+            link(grid, 0, grid.length);
+        }
+        return board;
+    }
 
-        int width = board.getWidth();
-        int height = board.getHeight();
-        for (int x = 0; x < width; x++) {
+    /**
+     * Links the squares of a band of columns to their neighbours, wrapping
+     * around the edges of the grid.
+     *
+     * @param grid
+     *            The grid of squares.
+     * @param fromX
+     *            The first column of the band.
+     * @param toX
+     *            The column after the band.
+     */
+    private static void link(Square[][] grid, int fromX, int toX) {
+        int width = grid.length;
+        int height = grid[0].length;
+        for (int x = fromX; x < toX; x++) {
             for (int y = 0; y < height; y++) {
                 Square square = grid[x][y];
                 for (Direction dir : Direction.values()) {
@@ -53,8 +105,37 @@ public class BoardFactory {
                 }
             }
         }
+    }
 
-        return board;
+    /**
+     * Creates a new compact board, which stores a byte per square instead of
+     * a square object, for maps too large for {@link #createBoard(Square[][])}.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     * @param cells
+     *            The type of every square, {@link CompactBoard#GROUND} or
+     *            {@link CompactBoard#WALL}, at index <code>y * width + x</code>.
+     * @return A new board, connected like the boards of
+     *         {@link #createBoard(Square[][])}.
+     */
+    public CompactBoard createCompactBoard(int width, int height, byte[] cells) {
+        return createCompactBoard(new BoardTopology(width, height, cells));
+    }
+
+    /**
+     * Creates a new compact board without occupants on a layout that may be
+     * shared with other boards.
+     *
+     * @param topology
+     *            The size and the type of every square.
+     * @return A new board with the given layout.
+     */
+    public CompactBoard createCompactBoard(BoardTopology topology) {
+        assert topology != null;
+        return new CompactBoard(topology, sprites.getGroundSprite(), sprites.getWallSprite());
     }
 
     /**
@@ -75,6 +156,59 @@ public class BoardFactory {
         return new Wall(sprites.getWallSprite());
     }
 
+    /**
+     * Links a band of columns, splitting it in halves until the bands are
+     * small enough. Every square is only linked by the task of its own
+     * column, so the bands need no locking.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class LinkBand extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The grid of squares.
+         */
+        private final transient Square[][] grid;
+
+        /**
+         * The first column of the band.
+         */
+        private final int fromX;
+
+        /**
+         * The column after the band.
+         */
+        private final int toX;
+
+        /**
+         * Creates a task linking a band of columns.
+         *
+         * @param grid
+         *            The grid of squares.
+         * @param fromX
+         *            The first column of the band.
+         * @param toX
+         *            The column after the band.
+         */
+        LinkBand(Square[][] grid, int fromX, int toX) {
+            this.grid = grid;
+            this.fromX = fromX;
+            this.toX = toX;
+        }
+
+        @Override
+        protected void compute() {
+            if (toX - fromX <= 1 || (long) (toX - fromX) * grid[0].length <= BAND_SQUARES) {
+                link(grid, fromX, toX);
+                return;
+            }
+            int middle = (fromX + toX) >>> 1;
+            invokeAll(new LinkBand(grid, fromX, middle), new LinkBand(grid, middle, toX));
+        }
+    }
+
     /**
      * A wall is a square that is inaccessible to anyone.
      *
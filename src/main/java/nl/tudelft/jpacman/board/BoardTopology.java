@@ -0,0 +1,100 @@
+package nl.tudelft.jpacman.board;
+
+/**
+ * The immutable layout of a board: its size and the type of every square.
+ * Like the boards of {@link BoardFactory#createBoard(Square[][])}, the edges
+ * wrap around, so the neighbours of a square follow from its position. A
+ * topology holds no units, so any number of {@link CompactBoard}s can share
+ * it.
+ *
+ * @author Jeroen Roosen
+ */
+public final class BoardTopology {
+
+    /**
+     * The number of columns.
+     */
+    private final int width;
+
+    /**
+     * The number of rows.
+     */
+    private final int height;
+
+    /**
+     * The type of every square, by index.
+     */
+    private final byte[] cells;
+
+    /**
+     * Creates a new topology.
+     *
+     * @param width
+     *            The number of columns.
+     * @param height
+     *            The number of rows.
+     * @param cells
+     *            The type of every square, {@link CompactBoard#GROUND} or
+     *            {@link CompactBoard#WALL}, at index <code>y * width + x</code>.
+     *            The array is copied.
+     */
+    public BoardTopology(int width, int height, byte[] cells) {
+        assert width > 0 && height > 0;
+        assert cells != null && cells.length == (long) width * height;
+        this.width = width;
+        this.height = height;
+        this.cells = cells.clone();
+        for (byte cell : this.cells) {
+            assert cell == CompactBoard.GROUND || cell == CompactBoard.WALL
+                : "Unknown square type: " + cell;
+        }
+    }
+
+    /**
+     * @return The number of columns.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The number of squares.
+     */
+    public int getSquareCount() {
+        return cells.length;
+    }
+
+    /**
+     * Returns the type of a square.
+     *
+     * @param index
+     *            The index of the square.
+     * @return The type of the square, {@link CompactBoard#GROUND} or
+     *         {@link CompactBoard#WALL}.
+     */
+    public byte getType(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Returns the index of the square next to another one.
+     *
+     * @param index
+     *            The index of the square.
+     * @param direction
+     *            The direction of the neighbour.
+     * @return The index of the neighbour.
+     */
+    public int neighbourOf(int index, Direction direction) {
+        int x = (index % width + direction.getDeltaX() + width) % width;
+        int y = (index / width + direction.getDeltaY() + height) % height;
+        return y * width + x;
+    }
+}
@@ -0,0 +1,288 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * A board for huge maps that keeps one byte per square instead of a
+ * {@link Square} object. The types of the squares are read from a
+ * {@link BoardTopology}, which may be shared by many boards, and the
+ * occupants are only stored for the squares that have any, in an
+ * {@link OccupantTable}. Squares are created on demand as light views, so
+ * different calls may return different objects for the same square; such
+ * views are equal to each other and share the same occupants. Searches over
+ * huge boards should use the methods taking square indices, which do not
+ * create views.
+ *
+ * @author Jeroen Roosen
+ */
+public class CompactBoard extends Board {
+
+    /**
+     * The type of a square that can be occupied by any unit.
+     */
+    public static final byte GROUND = 0;
+
+    /**
+     * The type of a square that cannot be occupied by any unit.
+     */
+    public static final byte WALL = 1;
+
+    /**
+     * The size and the type of every square.
+     */
+    private final BoardTopology topology;
+
+    /**
+     * The background of every type of square, by type.
+     */
+    private final Sprite[] backgrounds;
+
+    /**
+     * The units occupying the squares that have any, by index.
+     */
+    private final OccupantTable occupants;
+
+    /**
+     * Creates a new compact board without occupants.
+     *
+     * @param topology
+     *            The size and the type of every square.
+     * @param ground
+     *            The background of ground squares.
+     * @param wall
+     *            The background of walls.
+     */
+    CompactBoard(BoardTopology topology, Sprite ground, Sprite wall) {
+        super(topology.getWidth(), topology.getHeight());
+        this.topology = topology;
+        this.backgrounds = new Sprite[] {ground, wall};
+        this.occupants = new OccupantTable();
+    }
+
+    /**
+     * @return The size and the type of every square of this board.
+     */
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Returns the number of squares that have occupants.
+     *
+     * @return The number of occupied squares.
+     */
+    public int getOccupiedSquareCount() {
+        return occupants.size();
+    }
+
+    @Override
+    void forEachOccupant(BiConsumer<Unit, Square> action) {
+        occupants.forEach((entry, index) -> {
+            Square square = squareAt(index);
+            for (int i = 0; i < OccupantTable.count(entry); i++) {
+                action.accept(OccupantTable.get(entry, i), square);
+            }
+        });
+    }
+
+    @Override
+    public int neighbourOf(int index, Direction direction) {
+        return topology.neighbourOf(index, direction);
+    }
+
+    @Override
+    public boolean isAccessibleTo(int index, Unit unit) {
+        return topology.getType(index) != WALL;
+    }
+
+    @Override
+    public <T extends Unit> T firstOccupantOf(int index, Class<T> type) {
+        return firstOf(occupants.get(index), type);
+    }
+
+    /**
+     * Returns the oldest unit of a type in an entry of the occupant table.
+     *
+     * @param entry
+     *            The entry, which may be <code>null</code>.
+     * @param type
+     *            The type of unit to look for.
+     * @param <T>
+     *            The type of unit to look for.
+     * @return The oldest unit of the given type, or <code>null</code> if
+     *         there is none.
+     */
+    private static <T extends Unit> T firstOf(Object entry, Class<T> type) {
+        for (int i = 0; i < OccupantTable.count(entry); i++) {
+            Unit unit = OccupantTable.get(entry, i);
+            if (type.isInstance(unit)) {
+                return type.cast(unit);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The grid is filled with new views of every square, so it should be
+     * avoided for huge boards.
+     * </p>
+     */
+    @Override
+    public Square[][] getSquares() {
+        Square[][] grid = new Square[getWidth()][getHeight()];
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                grid[x][y] = squareAt(x, y);
+            }
+        }
+        return grid;
+    }
+
+    @Override
+    public Square squareAt(int x, int y) {
+        return new View(this, indexOf(x, y));
+    }
+
+    @Override
+    public Square squareAt(int index) {
+        assert index >= 0 && index < getSquareCount();
+        return new View(this, index);
+    }
+
+    /**
+     * A square of a compact board, which reads and changes the tables of its
+     * board.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class View extends Square {
+
+        /**
+         * The board this square is on.
+         */
+        private final CompactBoard owner;
+
+        /**
+         * Creates a view of a square.
+         *
+         * @param owner
+         *            The board the square is on.
+         * @param position
+         *            The index of the square.
+         */
+        View(CompactBoard owner, int position) {
+            super(owner, position);
+            this.owner = owner;
+        }
+
+        @Override
+        public Square getSquareAt(Direction direction) {
+            return new View(owner, owner.topology.neighbourOf(getIndex(), direction));
+        }
+
+        @Override
+        public void link(Square neighbour, Direction direction) {
+            throw new UnsupportedOperationException(
+                "The squares of a compact board cannot be relinked.");
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>
+         * A square with a single occupant does not keep it in an array, so
+         * the array is created on every call. The other accessors of the
+         * occupants read the table of the board directly.
+         * </p>
+         */
+        @Override
+        Unit[] occupants() {
+            Object entry = owner.occupants.get(getIndex());
+            if (entry instanceof Unit) {
+                return new Unit[] {(Unit) entry};
+            }
+            return entry == null ? NO_OCCUPANTS : (Unit[]) entry;
+        }
+
+        @Override
+        public int getOccupantCount() {
+            return OccupantTable.count(owner.occupants.get(getIndex()));
+        }
+
+        @Override
+        public Unit getOccupant(int position) {
+            Object entry = owner.occupants.get(getIndex());
+            if (entry == null) {
+                throw new ArrayIndexOutOfBoundsException(position);
+            }
+            return OccupantTable.get(entry, position);
+        }
+
+        @Override
+        public void forEachOccupant(Consumer<? super Unit> action) {
+            Object entry = owner.occupants.get(getIndex());
+            for (int i = 0; i < OccupantTable.count(entry); i++) {
+                action.accept(OccupantTable.get(entry, i));
+            }
+        }
+
+        @Override
+        public <T extends Unit> T firstOccupantOf(Class<T> type) {
+            return firstOf(owner.occupants.get(getIndex()), type);
+        }
+
+        @Override
+        boolean isOccupiedBy(Unit unit) {
+            Object entry = owner.occupants.get(getIndex());
+            for (int i = 0; i < OccupantTable.count(entry); i++) {
+                if (OccupantTable.get(entry, i).equals(unit)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void put(Unit occupant) {
+            assert occupant != null;
+            assert !isOccupiedBy(occupant);
+            owner.occupants.add(getIndex(), occupant);
+        }
+
+        @Override
+        void remove(Unit occupant) {
+            assert occupant != null;
+            owner.occupants.remove(getIndex(), occupant);
+        }
+
+        @Override
+        public boolean isAccessibleTo(Unit unit) {
+            return owner.topology.getType(getIndex()) != WALL;
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return owner.backgrounds[owner.topology.getType(getIndex())];
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof View)) {
+                return false;
+            }
+            View view = (View) other;
+            return view.owner == owner && view.getIndex() == getIndex();
+        }
+
+        @Override
+        public int hashCode() {
+            return getIndex();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The occupants of the occupied squares of a {@link CompactBoard}, by square
+ * index. The indices are kept in an open addressing table of primitive
+ * <code>int</code>s, so an occupied square costs no more than two array
+ * slots. A square with a single occupant holds the {@link Unit} itself, a
+ * square with several occupants holds a <code>Unit[]</code> of them, oldest
+ * first. These entries are replaced rather than modified, so they can be
+ * used after they were read without locking.
+ *
+ * @author Jeroen Roosen
+ */
+final class OccupantTable {
+
+    /**
+     * The key of a free slot. Square indices are never negative.
+     */
+    private static final int FREE = -1;
+
+    /**
+     * The smallest number of slots of a table.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * The square index of every slot, or {@link #FREE}.
+     */
+    private int[] keys;
+
+    /**
+     * The occupants of the square of every slot.
+     */
+    private Object[] entries;
+
+    /**
+     * The number of occupied squares.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty table.
+     */
+    OccupantTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the number of units in an entry.
+     *
+     * @param entry
+     *            The entry, which may be <code>null</code>.
+     * @return The number of units.
+     */
+    static int count(Object entry) {
+        if (entry == null) {
+            return 0;
+        }
+        return entry instanceof Unit ? 1 : ((Unit[]) entry).length;
+    }
+
+    /**
+     * Returns one of the units in an entry.
+     *
+     * @param entry
+     *            The entry.
+     * @param position
+     *            The number of the unit, oldest first.
+     * @return The unit.
+     */
+    static Unit get(Object entry, int position) {
+        if (entry instanceof Unit) {
+            if (position != 0) {
+                throw new ArrayIndexOutOfBoundsException(position);
+            }
+            return (Unit) entry;
+        }
+        return ((Unit[]) entry)[position];
+    }
+
+    /**
+     * Returns the occupants of a square.
+     *
+     * @param index
+     *            The index of the square.
+     * @return The single occupant, an array of several occupants or
+     *         <code>null</code> if the square is not occupied.
+     */
+    synchronized Object get(int index) {
+        int slot = find(index);
+        return keys[slot] == FREE ? null : entries[slot];
+    }
+
+    /**
+     * Adds an occupant to a square.
+     *
+     * @param index
+     *            The index of the square.
+     * @param unit
+     *            The new occupant.
+     */
+    synchronized void add(int index, Unit unit) {
+        assert index >= 0;
+        int slot = find(index);
+        if (keys[slot] == FREE) {
+            keys[slot] = index;
+            entries[slot] = unit;
+            size++;
+            if (size * 4 > keys.length * 3) {
+                rehash(keys.length * 2);
+            }
+            return;
+        }
+        Object entry = entries[slot];
+        entries[slot] = entry instanceof Unit
+            ? new Unit[] {(Unit) entry, unit}
+            : Square.with((Unit[]) entry, unit);
+    }
+
+    /**
+     * Removes an occupant from a square, if it occupies the square.
+     *
+     * @param index
+     *            The index of the square.
+     * @param unit
+     *            The occupant to remove.
+     */
+    synchronized void remove(int index, Unit unit) {
+        int slot = find(index);
+        if (keys[slot] == FREE) {
+            return;
+        }
+        Object entry = entries[slot];
+        if (entry instanceof Unit) {
+            if (entry.equals(unit)) {
+                delete(slot);
+            }
+            return;
+        }
+        Unit[] rest = Square.without((Unit[]) entry, unit);
+        entries[slot] = rest.length == 1 ? rest[0] : rest;
+    }
+
+    /**
+     * @return The number of occupied squares.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Performs an action for every occupied square. The table should not
+     * change meanwhile.
+     *
+     * @param action
+     *            The action, given the occupants of each square as
+     *            {@link #get(int)} returns them and its index.
+     */
+    synchronized void forEach(ObjIntConsumer<Object> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                action.accept(entries[slot], keys[slot]);
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of a square, probing linearly from its hash.
+     *
+     * @param index
+     *            The index of the square.
+     * @return The slot holding the square, or the free slot it would be
+     *         added to.
+     */
+    private int find(int index) {
+        int mask = keys.length - 1;
+        int slot = hash(index) & mask;
+        while (keys[slot] != FREE && keys[slot] != index) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Spreads the indices of neighbouring squares over the table.
+     *
+     * @param index
+     *            The index of a square.
+     * @return The hash of the index.
+     */
+    private static int hash(int index) {
+        int hash = index * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Frees a slot, moving up the entries that were probed past it so they
+     * can still be found, and shrinks the table when most of it is free.
+     *
+     * @param removed
+     *            The slot to free.
+     */
+    private void delete(int removed) {
+        int mask = keys.length - 1;
+        int free = removed;
+        int slot = (free + 1) & mask;
+        while (keys[slot] != FREE) {
+            int home = hash(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                keys[free] = keys[slot];
+                entries[free] = entries[slot];
+                free = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[free] = FREE;
+        entries[free] = null;
+        size--;
+        if (keys.length > MIN_CAPACITY && size * 8 < keys.length) {
+            rehash(keys.length / 2);
+        }
+    }
+
+    /**
+     * Moves all entries to a table with a different number of slots.
+     *
+     * @param capacity
+     *            The new number of slots, a power of two.
+     */
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldEntries = entries;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != FREE) {
+                int target = find(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                entries[target] = oldEntries[slot];
+            }
+        }
+    }
+
+    /**
+     * Replaces the slots by empty ones.
+     *
+     * @param capacity
+     *            The number of slots, a power of two.
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, FREE);
+        entries = new Object[capacity];
+    }
+}
@@ -1,11 +1,11 @@
 package nl.tudelft.jpacman.board;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-
-import com.google.common.collect.ImmutableList;
+import java.util.function.Consumer;
 
 import nl.tudelft.jpacman.sprite.Sprite;
 /**
@@ -17,24 +17,61 @@ import nl.tudelft.jpacman.sprite.Sprite;
 public abstract class Square {
 
     /**
-     * The units occupying this square, in order of appearance.
+     * The occupants of a square nobody occupies.
+     */
+    static final Unit[] NO_OCCUPANTS = new Unit[0];
+
+    /**
+     * The units occupying this square, in order of appearance. The array is
+     * replaced rather than modified, so readers can use it without locking.
      */
-    private final List<Unit> occupants;
+    private volatile Unit[] occupants;
 
     /**
      * The collection of squares adjacent to this square.
      */
     private final Map<Direction, Square> neighbours;
 
+    /**
+     * The board this square is on, or <code>null</code> if it is not on a
+     * board (yet).
+     */
+    private Board board;
+
+    /**
+     * The position of this square on its board, see
+     * {@link Board#indexOf(int, int)}, or <code>-1</code> if it is not on a
+     * board (yet).
+     */
+    private int index;
+
     /**
      * Creates a new, empty square.
      */
     protected Square() {
-        this.occupants = new ArrayList<>();
+        this.occupants = NO_OCCUPANTS;
         this.neighbours = new EnumMap<>(Direction.class);
+        this.index = -1;
         assert invariant();
     }
 
+    /**
+     * Creates a view of a square of a board that stores its squares itself.
+     * The view has no neighbours or occupants of its own, so a subclass must
+     * override {@link #getSquareAt(Direction)}, {@link #link(Square, Direction)},
+     * {@link #occupants()}, {@link #put(Unit)} and {@link #remove(Unit)}.
+     *
+     * @param owner
+     *            The board the square is on.
+     * @param position
+     *            The index of the square on the board.
+     */
+    Square(Board owner, int position) {
+        this.occupants = NO_OCCUPANTS;
+        this.neighbours = null;
+        attach(owner, position);
+    }
+
     /**
      * Returns the square adjacent to this square.
      *
@@ -60,6 +97,42 @@ public abstract class Square {
         assert invariant();
     }
 
+    /**
+     * Places this square on a board.
+     *
+     * @param owner
+     *            The board this square is on.
+     * @param position
+     *            The index of this square on the board.
+     */
+    void attach(Board owner, int position) {
+        assert owner != null;
+        assert position >= 0;
+        this.board = owner;
+        this.index = position;
+    }
+
+    /**
+     * Returns the board this square is on.
+     *
+     * @return The board this square is on, or <code>null</code> if it was
+     *         not placed on a board.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the dense index of this square on its board, which identifies
+     * the square in per-board tables.
+     *
+     * @return The index of this square on its board, or <code>-1</code> if
+     *         it was not placed on a board.
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Returns an immutable list of units occupying this square, in the order in
      * which they occupied this square (i.e. oldest first.)
@@ -68,7 +141,85 @@ public abstract class Square {
      *         which they occupied this square (i.e. oldest first.)
      */
     public List<Unit> getOccupants() {
-        return ImmutableList.copyOf(occupants);
+        return Collections.unmodifiableList(Arrays.asList(occupants()));
+    }
+
+    /**
+     * Returns the number of units occupying this square.
+     *
+     * @return The number of units occupying this square.
+     */
+    public int getOccupantCount() {
+        return occupants().length;
+    }
+
+    /**
+     * Returns one of the units occupying this square. Units are numbered in
+     * the order in which they occupied this square (i.e. oldest first.) Only
+     * use this while no units are moving, e.g. on the thread moving them;
+     * other threads should use {@link #forEachOccupant(Consumer)}.
+     *
+     * @param position
+     *            The number of the unit, between <code>0</code> and
+     *            {@link #getOccupantCount()}.
+     * @return The unit with the given number.
+     */
+    public Unit getOccupant(int position) {
+        return occupants()[position];
+    }
+
+    /**
+     * Performs an action for every unit occupying this square at the moment
+     * of the call, in the order in which they occupied this square.
+     *
+     * @param action
+     *            The action to perform for each unit.
+     */
+    public void forEachOccupant(Consumer<? super Unit> action) {
+        for (Unit occupant : occupants()) {
+            action.accept(occupant);
+        }
+    }
+
+    /**
+     * Returns the unit that has occupied this square the longest among the
+     * units of the given type.
+     *
+     * @param type
+     *            The type of unit to look for.
+     * @param <T>
+     *            The type of unit to look for.
+     * @return The oldest occupant of the given type, or <code>null</code> if
+     *         no unit of that type occupies this square.
+     */
+    public <T extends Unit> T firstOccupantOf(Class<T> type) {
+        for (Unit occupant : occupants()) {
+            if (type.isInstance(occupant)) {
+                return type.cast(occupant);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tests whether a unit occupies this square.
+     *
+     * @param unit
+     *            The unit to look for.
+     * @return <code>true</code> iff the unit occupies this square.
+     */
+    boolean isOccupiedBy(Unit unit) {
+        return indexOf(occupants(), unit) >= 0;
+    }
+
+    /**
+     * Returns the units occupying this square. The array must not be
+     * modified.
+     *
+     * @return The units occupying this square, oldest first.
+     */
+    Unit[] occupants() {
+        return occupants;
     }
 
     /**
@@ -77,11 +228,10 @@ public abstract class Square {
      * @param occupant
      *            The unit to occupy this square.
      */
-    void put(Unit occupant) {
+    synchronized void put(Unit occupant) {
         assert occupant != null;
-        assert !occupants.contains(occupant);
-
-        occupants.add(occupant);
+        assert !isOccupiedBy(occupant);
+        occupants = with(occupants, occupant);
     }
 
     /**
@@ -90,9 +240,66 @@ public abstract class Square {
      * @param occupant
      *            The unit to be removed from this square.
      */
-    void remove(Unit occupant) {
+    synchronized void remove(Unit occupant) {
         assert occupant != null;
-        occupants.remove(occupant);
+        occupants = without(occupants, occupant);
+    }
+
+    /**
+     * Adds a unit to a list of occupants.
+     *
+     * @param current
+     *            The current occupants, which are left unchanged.
+     * @param occupant
+     *            The unit to add.
+     * @return The occupants followed by the new unit.
+     */
+    static Unit[] with(Unit[] current, Unit occupant) {
+        Unit[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = occupant;
+        return updated;
+    }
+
+    /**
+     * Removes a unit from a list of occupants.
+     *
+     * @param current
+     *            The current occupants, which are left unchanged.
+     * @param occupant
+     *            The unit to remove.
+     * @return The occupants without the unit, which is the same array if the
+     *         unit was absent.
+     */
+    static Unit[] without(Unit[] current, Unit occupant) {
+        int position = indexOf(current, occupant);
+        if (position < 0) {
+            return current;
+        }
+        if (current.length == 1) {
+            return NO_OCCUPANTS;
+        }
+        Unit[] updated = new Unit[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, position);
+        System.arraycopy(current, position + 1, updated, position, updated.length - position);
+        return updated;
+    }
+
+    /**
+     * Finds a unit among the occupants.
+     *
+     * @param units
+     *            The occupants to search.
+     * @param unit
+     *            The unit to look for.
+     * @return The position of the unit, or <code>-1</code> if it is absent.
+     */
+    private static int indexOf(Unit[] units, Unit unit) {
+        for (int i = 0; i < units.length; i++) {
+            if (units[i].equals(unit)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -103,8 +310,8 @@ public abstract class Square {
      *         square listed as the square they are currently occupying.
      */
     protected final boolean invariant(Square this) {
-        for (Unit occupant : occupants) {
-            if (occupant.hasSquare() && occupant.getSquare() != this) {
+        for (Unit occupant : occupants()) {
+            if (occupant.hasSquare() && !occupant.getSquare().equals(this)) {
                 return false;
             }
         }
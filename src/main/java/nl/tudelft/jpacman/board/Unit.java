@@ -75,9 +75,16 @@ public abstract class Unit {
 
         if (square != null) {
             square.remove(this);
+            Board previous = square.getBoard();
+            if (previous != null && previous != target.getBoard()) {
+                previous.unitLeft(this);
+            }
         }
         square = target;
         target.put(this);
+        if (target.getBoard() != null) {
+            target.getBoard().unitMoved(this, target);
+        }
         assert invariant();
     }
 
@@ -87,6 +94,9 @@ public abstract class Unit {
     public void leaveSquare() {
         if (square != null) {
             square.remove(this);
+            if (square.getBoard() != null) {
+                square.getBoard().unitLeft(this);
+            }
             square = null;
         }
         assert invariant();
@@ -101,7 +111,7 @@ public abstract class Unit {
      *         not occupying any square.
      */
     protected boolean invariant() {
-        return square == null || square.getOccupants().contains(this);
+        return square == null || square.isOccupiedBy(this);
     }
 
     /**
@@ -0,0 +1,122 @@
+package nl.tudelft.jpacman.board;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps track of the square every unit of a few types on a board occupies, by
+ * type of unit, so that units of a rare type can be found without searching
+ * the board. Units of other types, such as the pellets, are left out. The
+ * index is kept up to date by {@link Unit#occupy(Square)} and
+ * {@link Unit#leaveSquare()} once the board is
+ * {@link Board#indexUnits(Class[]) indexed}.
+ *
+ * @author Jeroen Roosen
+ */
+public final class UnitIndex {
+
+    /**
+     * The types of unit that are indexed.
+     */
+    private final Class<?>[] types;
+
+    /**
+     * The square of every indexed unit on the board, by class of unit.
+     */
+    private final Map<Class<?>, Map<Unit, Square>> squares;
+
+    /**
+     * Creates a new, empty index.
+     *
+     * @param types
+     *            The types of unit to index, including their subtypes.
+     */
+    UnitIndex(Class<?>... types) {
+        this.types = types.clone();
+        this.squares = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Tells whether every unit of a type is indexed.
+     *
+     * @param type
+     *            The type of unit.
+     * @return <code>true</code> iff the type is one of the indexed types or
+     *         a subtype of one.
+     */
+    public boolean covers(Class<?> type) {
+        for (Class<?> indexed : types) {
+            if (indexed.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the square a unit now occupies.
+     *
+     * @param unit
+     *            The unit that moved.
+     * @param square
+     *            The square it occupies.
+     */
+    void moved(Unit unit, Square square) {
+        if (!covers(unit.getClass())) {
+            return;
+        }
+        squares.computeIfAbsent(unit.getClass(), type -> new ConcurrentHashMap<>())
+            .put(unit, square);
+    }
+
+    /**
+     * Forgets a unit that left the board.
+     *
+     * @param unit
+     *            The unit that left.
+     */
+    void removed(Unit unit) {
+        Map<Unit, Square> units = squares.get(unit.getClass());
+        if (units != null) {
+            units.remove(unit);
+        }
+    }
+
+    /**
+     * Returns the number of units of a type on the board. Only indexed units
+     * are counted, see {@link #covers(Class)}.
+     *
+     * @param type
+     *            The type of unit, including its subtypes.
+     * @return The number of units of the type.
+     */
+    public int count(Class<? extends Unit> type) {
+        int count = 0;
+        for (Map.Entry<Class<?>, Map<Unit, Square>> entry : squares.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                count += entry.getValue().size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Performs an action for every indexed unit of a type on the board, in no
+     * particular order. Units moving meanwhile may be seen at either square.
+     *
+     * @param type
+     *            The type of unit, including its subtypes.
+     * @param action
+     *            The action, given each unit and the square it occupies.
+     * @param <T>
+     *            The type of unit.
+     */
+    public <T extends Unit> void forEach(Class<T> type, BiConsumer<? super T, Square> action) {
+        for (Map.Entry<Class<?>, Map<Unit, Square>> entry : squares.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                entry.getValue().forEach((unit, square) -> action.accept(type.cast(unit), square));
+            }
+        }
+    }
+}
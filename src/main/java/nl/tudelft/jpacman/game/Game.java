@@ -116,6 +116,7 @@
 // }
 package nl.tudelft.jpacman.game;
 
+import java.awt.GraphicsEnvironment;
 import java.util.List;
 
 import javax.swing.JOptionPane;
@@ -149,11 +150,6 @@ public abstract class Game implements LevelObserver {
      */
     private PointCalculator pointCalculator;
 
-    /**
-     * The number of lives the player has.
-     */
-    public static int lives;
-
     /**
      * Creates a new game.
      *
@@ -258,7 +254,10 @@ public abstract class Game implements LevelObserver {
             if (player.getLives() == 0) {
                 //setAlive(false); // Le joueur est mort si les vies atteignent zéro
                 System.out.println("Game Over!");
-                JOptionPane.showMessageDialog(null, "Game Over!", "Game Over", JOptionPane.INFORMATION_MESSAGE);
+                if (!GraphicsEnvironment.isHeadless()) {
+                    JOptionPane.showMessageDialog(null, "Game Over!", "Game Over",
+                        JOptionPane.INFORMATION_MESSAGE);
+                }
 
             }
         }
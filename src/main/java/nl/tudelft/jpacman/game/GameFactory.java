@@ -1,6 +1,10 @@
 package nl.tudelft.jpacman.game;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.level.PlayerFactory;
 import nl.tudelft.jpacman.points.PointCalculator;
 
@@ -39,6 +43,28 @@ public class GameFactory {
         return new SinglePlayerGame(playerFactory.createPacMan(), level, pointCalculator);
     }
 
+    /**
+     * Creates a game for a single level with several players, who start on
+     * the start squares of the level in turn.
+     *
+     * @param level
+     *            The level to create a game for.
+     * @param playerCount
+     *            The number of players.
+     * @param pointCalculator
+     *             The way to calculate points upon collisions.
+     * @return A new multi player game.
+     */
+    public MultiPlayerGame createMultiPlayerGame(Level level, int playerCount,
+                                                 PointCalculator pointCalculator) {
+        assert playerCount > 0;
+        List<Player> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(playerFactory.createPacMan());
+        }
+        return new MultiPlayerGame(players, level, pointCalculator);
+    }
+
     /**
      * Returns the player factory associated with this game factory.
      *
@@ -0,0 +1,438 @@
+package nl.tudelft.jpacman.game;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Clock;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.level.TickEngine;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.points.PointCalculator;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * Runs many independent single player games without a user interface. The NPC
+ * moves of all games are carried out by a fixed number of work stealing
+ * threads: a single dispatcher thread waits until the next move of any game is
+ * due and hands it to the workers, so the number of threads does not grow with
+ * the number of games.
+ *
+ * @author Jeroen Roosen
+ */
+public class GameHost implements AutoCloseable {
+
+    /**
+     * The threads carrying out the NPC moves.
+     */
+    private final ForkJoinPool workers;
+
+    /**
+     * The moments the clocks of the games need to run their due moves.
+     */
+    private final DelayQueue<Wakeup> wakeups;
+
+    /**
+     * The thread handing due moves to the workers.
+     */
+    private final Thread dispatcher;
+
+    /**
+     * The parser creating the levels of the games.
+     */
+    private final MapParser parser;
+
+    /**
+     * The factory creating the games.
+     */
+    private final GameFactory gameFactory;
+
+    /**
+     * The algorithm calculating the points in all games.
+     */
+    private final PointCalculator pointCalculator;
+
+    /**
+     * The games currently hosted.
+     */
+    private final Map<Game, HostedGame> games;
+
+    /**
+     * The moves carried out in games that have since been destroyed.
+     */
+    private final LongAdder retiredTicks;
+
+    /**
+     * The moment this host was created, in nanoseconds.
+     */
+    private final long createdAt;
+
+    /**
+     * Creates a new host and starts its threads.
+     *
+     * @param workerCount
+     *            The number of threads carrying out NPC moves.
+     * @param sprites
+     *            The sprites shared by all games.
+     * @param pointCalculator
+     *            The algorithm calculating the points in all games.
+     */
+    public GameHost(int workerCount, PacManSprites sprites, PointCalculator pointCalculator) {
+        assert workerCount > 0;
+        assert sprites != null;
+        assert pointCalculator != null;
+
+        this.workers = new ForkJoinPool(workerCount,
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.wakeups = new DelayQueue<>();
+        this.pointCalculator = pointCalculator;
+        this.games = new ConcurrentHashMap<>();
+        this.retiredTicks = new LongAdder();
+        this.createdAt = System.nanoTime();
+
+        LevelFactory levelFactory = new LevelFactory(sprites, new GhostFactory(sprites),
+            pointCalculator, HostClock::new);
+        this.parser = new MapParser(levelFactory, new BoardFactory(sprites));
+        this.gameFactory = new GameFactory(new PlayerFactory(sprites));
+
+        this.dispatcher = new Thread(this::dispatch, "jpacman-host-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Creates a new single player game on a map. The game is not started.
+     *
+     * @param map
+     *            The text representation of the map.
+     * @return The new game.
+     */
+    public Game createGame(List<String> map) {
+        Level level;
+        synchronized (parser) {
+            level = parser.parseMap(map);
+        }
+        return host(level);
+    }
+
+    /**
+     * Creates a new single player game on a map resource, sharing its walls,
+     * start squares and navigation tables with all other games created from
+     * the same map text, as done by {@link MapParser#parseSharedMap(String)}.
+     * The game is not started.
+     *
+     * @param mapName
+     *            Name of a resource that will be read.
+     * @return The new game.
+     * @throws IOException
+     *             when the resource could not be read.
+     */
+    public Game createSharedGame(String mapName) throws IOException {
+        Level level;
+        synchronized (parser) {
+            level = parser.parseSharedMap(mapName);
+        }
+        return host(level);
+    }
+
+    /**
+     * Creates a new single player game on a level and starts hosting it.
+     *
+     * @param level
+     *            The level of the game.
+     * @return The new game.
+     */
+    private Game host(Level level) {
+        Game game = gameFactory.createSinglePlayerGame(level, pointCalculator);
+        games.put(game, new HostedGame(level, System.nanoTime()));
+        return game;
+    }
+
+    /**
+     * Stops a game and stops hosting it. Its moves still count towards the
+     * total of this host.
+     *
+     * @param game
+     *            The game to destroy.
+     */
+    public void destroyGame(Game game) {
+        HostedGame hosted = games.remove(game);
+        if (hosted == null) {
+            return;
+        }
+        game.stop();
+        hosted.level.stop();
+        retiredTicks.add(hosted.level.getTickEngine().getTicks());
+    }
+
+    /**
+     * @return The number of games currently hosted.
+     */
+    public int getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Returns the number of NPC moves carried out in a game.
+     *
+     * @param game
+     *            A game hosted by this host.
+     * @return The number of moves carried out in the game.
+     */
+    public long getTicks(Game game) {
+        HostedGame hosted = games.get(game);
+        assert hosted != null;
+        return hosted.level.getTickEngine().getTicks();
+    }
+
+    /**
+     * Returns the average number of NPC moves per second in a game since it
+     * was created.
+     *
+     * @param game
+     *            A game hosted by this host.
+     * @return The number of moves per second in the game.
+     */
+    public double getTicksPerSecond(Game game) {
+        HostedGame hosted = games.get(game);
+        assert hosted != null;
+        return perSecond(hosted.level.getTickEngine().getTicks(), hosted.createdAt);
+    }
+
+    /**
+     * Returns the average number of NPC moves per second in all games, hosted
+     * now or before, since this host was created.
+     *
+     * @return The number of moves per second in all games.
+     */
+    public double getTotalTicksPerSecond() {
+        long ticks = retiredTicks.sum();
+        for (HostedGame hosted : games.values()) {
+            ticks += hosted.level.getTickEngine().getTicks();
+        }
+        return perSecond(ticks, createdAt);
+    }
+
+    /**
+     * Computes an average rate.
+     *
+     * @param count
+     *            The number of events.
+     * @param since
+     *            The moment counting started, in nanoseconds.
+     * @return The number of events per second.
+     */
+    private static double perSecond(long count, long since) {
+        long elapsed = Math.max(1L, System.nanoTime() - since);
+        return count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Destroys all games and stops the threads of this host.
+     */
+    @Override
+    public void close() {
+        for (Game game : new ArrayList<>(games.keySet())) {
+            destroyGame(game);
+        }
+        dispatcher.interrupt();
+        workers.shutdown();
+    }
+
+    /**
+     * Hands the due moves of the games to the workers, until interrupted.
+     */
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Wakeup wakeup;
+            try {
+                wakeup = wakeups.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            workers.execute(() -> wakeup.clock.tick(wakeup.generation));
+        }
+    }
+
+    /**
+     * The level of a hosted game and when it was created.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class HostedGame {
+
+        /**
+         * The level of the game.
+         */
+        private final Level level;
+
+        /**
+         * The moment the game was created, in nanoseconds.
+         */
+        private final long createdAt;
+
+        /**
+         * Creates a new hosted game.
+         *
+         * @param level
+         *            The level of the game.
+         * @param createdAt
+         *            The moment the game was created, in nanoseconds.
+         */
+        HostedGame(Level level, long createdAt) {
+            this.level = level;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * The clock of a hosted level. While started, it has exactly one wakeup
+     * waiting in the queue or being run by a worker.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class HostClock implements Clock {
+
+        /**
+         * The engine this clock drives, or <code>null</code> if it is not
+         * started.
+         */
+        private TickEngine engine;
+
+        /**
+         * Counts the starts and stops of this clock, so that wakeups from
+         * before a stop are ignored.
+         */
+        private long generation;
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public synchronized void start(TickEngine toDrive) {
+            assert toDrive != null;
+            if (engine != null) {
+                return;
+            }
+            engine = toDrive;
+            generation++;
+            schedule(toDrive.nextDeadline());
+        }
+
+        @Override
+        public synchronized void stop() {
+            engine = null;
+            generation++;
+        }
+
+        /**
+         * Runs the moves that are due and waits for the next one.
+         *
+         * @param expected
+         *            The generation of this clock the wakeup was made in.
+         */
+        void tick(long expected) {
+            TickEngine current;
+            synchronized (this) {
+                if (expected != generation) {
+                    return;
+                }
+                current = engine;
+            }
+            current.runDue(currentTimeMillis());
+            synchronized (this) {
+                if (expected == generation) {
+                    schedule(current.nextDeadline());
+                }
+            }
+        }
+
+        /**
+         * Queues a wakeup for the current generation.
+         *
+         * @param due
+         *            The moment to wake up, in milliseconds.
+         */
+        private void schedule(long due) {
+            if (due != Long.MAX_VALUE) {
+                wakeups.add(new Wakeup(this, generation, due));
+            }
+        }
+    }
+
+    /**
+     * The moment a clock needs to run its due moves.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Wakeup implements Delayed {
+
+        /**
+         * The clock to wake up.
+         */
+        private final HostClock clock;
+
+        /**
+         * The generation of the clock this wakeup was made in.
+         */
+        private final long generation;
+
+        /**
+         * The moment to wake up, in milliseconds.
+         */
+        private final long due;
+
+        /**
+         * Creates a new wakeup.
+         *
+         * @param clock
+         *            The clock to wake up.
+         * @param generation
+         *            The generation of the clock this wakeup was made in.
+         * @param due
+         *            The moment to wake up, in milliseconds.
+         */
+        Wakeup(HostClock clock, long generation, long due) {
+            this.clock = clock;
+            this.generation = generation;
+            this.due = due;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(due - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Wakeup) {
+                return Long.compare(due, ((Wakeup) other).due);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS),
+                other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package nl.tudelft.jpacman.game;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Player;
+
+import com.google.common.collect.ImmutableList;
+import nl.tudelft.jpacman.points.PointCalculator;
+
+/**
+ * A game with any number of players on a single level. Every player has an
+ * id, counting from <code>0</code> in the order the players were given, and
+ * keeps lives and a score of its own.
+ *
+ * <p>
+ * Input does not move players right away. Instead, {@link #steer(int,
+ * Direction)} records the direction a player wants to go in, which takes no
+ * lock, so input from many players never waits for the moves of others.
+ * {@link #applyMoves()} then carries out the latest direction of every player
+ * that steered since, once per tick of whoever drives the game.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public class MultiPlayerGame extends Game {
+
+    /**
+     * The players of this game, by id.
+     */
+    private final List<Player> players;
+
+    /**
+     * The id of every player of this game.
+     */
+    private final Map<Player, Integer> ids;
+
+    /**
+     * The direction every player last steered in since the moves were last
+     * applied, by id, or <code>null</code> if the player did not steer.
+     */
+    private final AtomicReferenceArray<Direction> intents;
+
+    /**
+     * The level of this game.
+     */
+    private final Level level;
+
+    /**
+     * Create a new game for the provided level and players.
+     *
+     * @param players
+     *            The players, in order of their ids.
+     * @param level
+     *            The level.
+     * @param pointCalculator
+     *            The way to calculate points upon collisions.
+     */
+    protected MultiPlayerGame(List<Player> players, Level level,
+                              PointCalculator pointCalculator) {
+        super(pointCalculator);
+
+        assert players != null && !players.isEmpty();
+        assert level != null;
+
+        this.players = ImmutableList.copyOf(players);
+        this.ids = new HashMap<>(players.size() * 2);
+        this.intents = new AtomicReferenceArray<>(players.size());
+        this.level = level;
+        for (Player player : this.players) {
+            Integer previous = ids.put(player, ids.size());
+            assert previous == null : "A player can only join a game once.";
+            level.registerPlayer(player);
+        }
+    }
+
+    @Override
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    @Override
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @return The number of players of this game.
+     */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * @param id
+     *            The id of the player.
+     * @return The player with the given id.
+     */
+    public Player getPlayer(int id) {
+        return players.get(id);
+    }
+
+    /**
+     * @param player
+     *            A player of this game.
+     * @return The id of the player.
+     */
+    public int getPlayerId(Player player) {
+        Integer id = ids.get(player);
+        assert id != null : "The player is not part of this game.";
+        return id;
+    }
+
+    /**
+     * Records the direction a player wants to move in, replacing the
+     * direction it steered in before if the moves were not applied since.
+     * This may be called on any thread.
+     *
+     * @param id
+     *            The id of the player.
+     * @param direction
+     *            The direction to move in.
+     */
+    public void steer(int id, Direction direction) {
+        assert direction != null;
+        intents.set(id, direction);
+    }
+
+    /**
+     * Moves every player that steered since the moves were last applied in
+     * the direction it last steered in, in order of their ids. Directions
+     * recorded while the game is not in progress are discarded.
+     *
+     * @return The number of players that were moved.
+     */
+    public int applyMoves() {
+        int moved = 0;
+        for (int id = 0; id < intents.length(); id++) {
+            Direction direction = intents.getAndSet(id, null);
+            if (direction != null && isInProgress()) {
+                move(players.get(id), direction);
+                moved++;
+            }
+        }
+        return moved;
+    }
+}
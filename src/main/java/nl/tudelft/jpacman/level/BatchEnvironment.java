@@ -0,0 +1,319 @@
+package nl.tudelft.jpacman.level;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import nl.tudelft.jpacman.board.Direction;
+
+/**
+ * A fixed number of copies of the same level, stepped in lockstep for agents
+ * that learn by playing many games at once. Every copy is a {@link GameState}
+ * that is restarted automatically, with a fresh seed, as soon as it is won or
+ * lost.
+ *
+ * <p>
+ * Observations are written as floats into a buffer provided by the caller,
+ * copy after copy, each copy as {@link #CHANNELS} planes of one value per
+ * square in board index order: walls, pellets, ghosts and the player. A value
+ * is <code>1</code> where the plane applies and <code>0</code> elsewhere.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public class BatchEnvironment {
+
+    /**
+     * The number of planes in the observation of a copy.
+     */
+    public static final int CHANNELS = 4;
+
+    /**
+     * The plane marking the squares the player cannot occupy.
+     */
+    public static final int WALLS = 0;
+
+    /**
+     * The plane marking the squares holding a pellet.
+     */
+    public static final int PELLETS = 1;
+
+    /**
+     * The plane marking the squares holding a ghost.
+     */
+    public static final int GHOSTS = 2;
+
+    /**
+     * The plane marking the square of the player.
+     */
+    public static final int PLAYER = 3;
+
+    /**
+     * The action that does not move the player. The other actions are the
+     * ordinals of the {@link Direction} to move in.
+     */
+    public static final int STAY = Direction.values().length;
+
+    /**
+     * All directions, by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The multiplier spreading the seeds of the copies.
+     */
+    private static final long SEED_SPREAD = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The state every copy starts from.
+     */
+    private final GameState template;
+
+    /**
+     * The current state of every copy.
+     */
+    private final GameState[] states;
+
+    /**
+     * The number of times every copy was started.
+     */
+    private final long[] episodes;
+
+    /**
+     * The seed from which the seeds of all copies are derived.
+     */
+    private final long seed;
+
+    /**
+     * Whether copies are stepped on several threads.
+     */
+    private final boolean parallel;
+
+    /**
+     * The number of squares on the board.
+     */
+    private final int squareCount;
+
+    /**
+     * The wall plane, which is the same for every copy.
+     */
+    private final float[] walls;
+
+    /**
+     * Creates a new batch of copies of a level, all at their start.
+     *
+     * @param template
+     *            The state every copy starts from.
+     * @param size
+     *            The number of copies.
+     * @param seed
+     *            The seed from which the random choices of all copies are
+     *            derived.
+     * @param parallel
+     *            Whether to step the copies on the threads of the common pool.
+     */
+    public BatchEnvironment(GameState template, int size, long seed, boolean parallel) {
+        assert template != null;
+        assert size > 0;
+
+        this.template = template;
+        this.states = new GameState[size];
+        this.episodes = new long[size];
+        this.seed = seed;
+        this.parallel = parallel;
+        this.squareCount = template.getBoard().getSquareCount();
+        this.walls = new float[squareCount];
+        for (int i = 0; i < squareCount; i++) {
+            walls[i] = template.isAccessibleToPlayer(i) ? 0f : 1f;
+        }
+        for (int env = 0; env < size; env++) {
+            restart(env);
+        }
+    }
+
+    /**
+     * @return The number of copies.
+     */
+    public int size() {
+        return states.length;
+    }
+
+    /**
+     * @return The number of floats in the observation of a single copy.
+     */
+    public int getObservationSize() {
+        return CHANNELS * squareCount;
+    }
+
+    /**
+     * Returns the current state of a copy. The state must not be changed.
+     *
+     * @param env
+     *            The number of the copy.
+     * @return The state of the copy.
+     */
+    public GameState getState(int env) {
+        return states[env];
+    }
+
+    /**
+     * Restarts all copies and writes their observations.
+     *
+     * @param observations
+     *            The buffer receiving the observations, holding at least
+     *            <code>size() * getObservationSize()</code> floats.
+     */
+    public void reset(float[] observations) {
+        reset(FloatBuffer.wrap(observations));
+    }
+
+    /**
+     * Restarts all copies and writes their observations.
+     *
+     * @param observations
+     *            The buffer receiving the observations as floats in its byte
+     *            order, starting at its position.
+     */
+    public void reset(ByteBuffer observations) {
+        reset(observations.asFloatBuffer());
+    }
+
+    /**
+     * Restarts all copies and writes their observations.
+     *
+     * @param out
+     *            The buffer receiving the observations.
+     */
+    private void reset(FloatBuffer out) {
+        assert out.capacity() >= states.length * getObservationSize();
+        forEachEnv(env -> {
+            restart(env);
+            observe(env, out);
+        });
+    }
+
+    /**
+     * Moves the player of every copy and plays out the ghost moves that fall
+     * due meanwhile. Copies that are won or lost are restarted, so that the
+     * observation written for them is the start of their next game.
+     *
+     * @param actions
+     *            The action of every copy: a direction ordinal, or
+     *            {@link #STAY}.
+     * @param rewards
+     *            Receives the points scored in every copy.
+     * @param done
+     *            Receives whether every copy was won or lost.
+     * @param observations
+     *            Receives the observations, holding at least
+     *            <code>size() * getObservationSize()</code> floats.
+     */
+    public void step(int[] actions, float[] rewards, boolean[] done, float[] observations) {
+        step(actions, rewards, done, FloatBuffer.wrap(observations));
+    }
+
+    /**
+     * Moves the player of every copy and plays out the ghost moves that fall
+     * due meanwhile. Copies that are won or lost are restarted, so that the
+     * observation written for them is the start of their next game.
+     *
+     * @param actions
+     *            The action of every copy: a direction ordinal, or
+     *            {@link #STAY}.
+     * @param rewards
+     *            Receives the points scored in every copy.
+     * @param done
+     *            Receives whether every copy was won or lost.
+     * @param observations
+     *            Receives the observations as floats in its byte order,
+     *            starting at its position. May be a direct buffer.
+     */
+    public void step(int[] actions, float[] rewards, boolean[] done, ByteBuffer observations) {
+        step(actions, rewards, done, observations.asFloatBuffer());
+    }
+
+    /**
+     * Steps all copies.
+     *
+     * @param actions
+     *            The action of every copy.
+     * @param rewards
+     *            Receives the points scored in every copy.
+     * @param done
+     *            Receives whether every copy was won or lost.
+     * @param out
+     *            Receives the observations.
+     */
+    private void step(int[] actions, float[] rewards, boolean[] done, FloatBuffer out) {
+        assert actions.length >= states.length;
+        assert rewards.length >= states.length;
+        assert done.length >= states.length;
+        assert out.capacity() >= states.length * getObservationSize();
+
+        forEachEnv(env -> {
+            int action = actions[env];
+            assert action >= 0 && action <= STAY;
+            GameState state = states[env];
+            int before = state.getScore();
+            state.advance(action == STAY ? null : DIRECTIONS[action]);
+            rewards[env] = state.getScore() - before;
+            done[env] = !state.isInProgress();
+            if (done[env]) {
+                restart(env);
+            }
+            observe(env, out);
+        });
+    }
+
+    /**
+     * Runs an action for every copy, on several threads if requested.
+     *
+     * @param action
+     *            The action to run with the number of every copy.
+     */
+    private void forEachEnv(IntConsumer action) {
+        IntStream envs = IntStream.range(0, states.length);
+        if (parallel) {
+            envs = envs.parallel();
+        }
+        envs.forEach(action);
+    }
+
+    /**
+     * Starts a new game in a copy.
+     *
+     * @param env
+     *            The number of the copy.
+     */
+    private void restart(int env) {
+        long episode = episodes[env]++;
+        states[env] = template.fork(seed + SEED_SPREAD * (episode * states.length + env + 1));
+    }
+
+    /**
+     * Writes the observation of a copy.
+     *
+     * @param env
+     *            The number of the copy.
+     * @param out
+     *            The buffer receiving all observations.
+     */
+    private void observe(int env, FloatBuffer out) {
+        GameState state = states[env];
+        int base = env * getObservationSize();
+        int pellets = base + PELLETS * squareCount;
+        int ghosts = base + GHOSTS * squareCount;
+        int player = base + PLAYER * squareCount;
+        for (int i = 0; i < squareCount; i++) {
+            out.put(base + WALLS * squareCount + i, walls[i]);
+            out.put(pellets + i, state.hasPellet(i) ? 1f : 0f);
+            out.put(ghosts + i, 0f);
+            out.put(player + i, 0f);
+        }
+        for (int g = 0; g < state.getGhostCount(); g++) {
+            out.put(ghosts + state.getGhostSquare(g), 1f);
+        }
+        out.put(player + state.getPlayerSquare(), 1f);
+    }
+}
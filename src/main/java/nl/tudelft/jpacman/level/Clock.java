@@ -0,0 +1,34 @@
+package nl.tudelft.jpacman.level;
+
+/**
+ * The source of time for a {@link Level}. A clock tells the level what time it
+ * is and decides when the NPC moves scheduled on its {@link TickEngine} are
+ * actually carried out: in real time for the interactive game, or on demand for
+ * headless simulations.
+ *
+ * @author Jeroen Roosen
+ */
+public interface Clock {
+
+    /**
+     * Returns the current time of this clock.
+     *
+     * @return The current time in milliseconds.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Starts driving the given engine, i.e. running its moves once they are
+     * due according to this clock.
+     *
+     * @param engine
+     *            The engine to drive.
+     */
+    void start(TickEngine engine);
+
+    /**
+     * Stops driving the engine this clock was started with. Has no effect if
+     * the clock was not started.
+     */
+    void stop();
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import nl.tudelft.jpacman.board.Unit;
 
@@ -21,11 +22,38 @@ public class CollisionInteractionMap implements CollisionMap {
     private final Map<Class<? extends Unit>,
         Map<Class<? extends Unit>, CollisionHandler<?, ?>>> handlers;
 
+    /**
+     * The handler that is resolved for pairs of classes without a listed
+     * collision.
+     */
+    private static final CollisionHandler<Unit, Unit> NO_HANDLER = (collider, collidee) -> { };
+
+    /**
+     * The handlers resolved so far, per collider class and then per collidee
+     * class. Replaced whenever a handler is added.
+     */
+    private volatile ClassValue<Map<Class<?>, CollisionHandler<?, ?>>> resolved;
+
     /**
      * Creates a new, empty collision map.
      */
     public CollisionInteractionMap() {
         this.handlers = new HashMap<>();
+        this.resolved = newResolvedCache();
+    }
+
+    /**
+     * Creates an empty cache of resolved handlers.
+     *
+     * @return An empty cache of resolved handlers.
+     */
+    private static ClassValue<Map<Class<?>, CollisionHandler<?, ?>>> newResolvedCache() {
+        return new ClassValue<Map<Class<?>, CollisionHandler<?, ?>>>() {
+            @Override
+            protected Map<Class<?>, CollisionHandler<?, ?>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
     }
 
     /**
@@ -87,6 +115,7 @@ public class CollisionInteractionMap implements CollisionMap {
 private void addHandler(Class<? extends Unit> collider,
                         Class<? extends Unit> collidee, CollisionHandler<?, ?> handler) {
     handlers.computeIfAbsent(collider, k -> new HashMap<>()).put(collidee, handler);
+    resolved = newResolvedCache();
 }
 
 
@@ -175,18 +204,39 @@ public <C1 extends Unit, C2 extends Unit> void collide(C1 collider, C2 collidee)
  */
 @SuppressWarnings("unchecked")
 private <C1 extends Unit, C2 extends Unit> CollisionHandler<C1, C2> getHandler(C1 collider, C2 collidee) {
-    Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, collider.getClass());
+    Map<Class<?>, CollisionHandler<?, ?>> pairs = resolved.get(collider.getClass());
+    CollisionHandler<?, ?> handler = pairs.get(collidee.getClass());
+    if (handler == null) {
+        handler = resolveHandler(collider.getClass(), collidee.getClass());
+        pairs.put(collidee.getClass(), handler == null ? NO_HANDLER : handler);
+    }
+    if (handler == NO_HANDLER) {
+        return null;
+    }
+    return (CollisionHandler<C1, C2>) handler;
+}
+
+/**
+ * Looks up the handler for the most specific classes listed for a collision.
+ *
+ * @param colliderType The class of the collider.
+ * @param collideeType The class of the collidee.
+ * @return The collision handler if found, otherwise null.
+ */
+private CollisionHandler<?, ?> resolveHandler(Class<? extends Unit> colliderType,
+                                              Class<? extends Unit> collideeType) {
+    Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, colliderType);
     if (colliderKey == null) {
         return null;
     }
 
     Map<Class<? extends Unit>, CollisionHandler<?, ?>> map = handlers.get(colliderKey);
-    Class<? extends Unit> collideeKey = getMostSpecificClass(map, collidee.getClass());
+    Class<? extends Unit> collideeKey = getMostSpecificClass(map, collideeType);
     if (collideeKey == null) {
         return null;
     }
 
-    return (CollisionHandler<C1, C2>) map.get(collideeKey);
+    return map.get(collideeKey);
 }
 
 /**
@@ -0,0 +1,763 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.Arrays;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.DistanceField;
+import nl.tudelft.jpacman.npc.ghost.GhostKind;
+import nl.tudelft.jpacman.npc.ghost.SearchBuffers;
+
+/**
+ * A compact copy of a single player {@link Level} for agents that search
+ * ahead by trying out moves. The positions and directions of the units are
+ * kept as board indices, the remaining pellets as a bit set and the random
+ * choices of the ghosts come from a generator that is part of the state, so a
+ * state can be forked cheaply and every fork plays out deterministically.
+ *
+ * <p>
+ * {@link #step(GameState, Direction)} plays out one move of the player
+ * followed by the NPC moves that fall due in the time it takes, with the same
+ * outcome as {@link Level#move(nl.tudelft.jpacman.board.Unit, Direction)}
+ * under {@link PlayerCollisions} with the default point calculator: moving
+ * into a ghost kills the player, moving onto a pellet eats it for its value.
+ * Ghosts decide on their moves through their {@link GhostKind}, falling back
+ * to a random move just like the ghosts themselves.
+ * </p>
+ *
+ * <p>
+ * The board and the units of the level are shared by all states made from it
+ * and are never changed. A state itself must only be used by one thread at a
+ * time, but different states can be stepped on different threads.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public final class GameState {
+
+    /**
+     * All directions, by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The number of directions.
+     */
+    private static final int WAYS = DIRECTIONS.length;
+
+    /**
+     * The increment of the random generator.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The parts of the level that do not change while playing.
+     */
+    private final Topology topology;
+
+    /**
+     * The board index of the square of the player.
+     */
+    private int playerSquare;
+
+    /**
+     * The ordinal of the direction the player is facing.
+     */
+    private int playerDirection;
+
+    /**
+     * Whether the player is alive.
+     */
+    private boolean playerAlive;
+
+    /**
+     * The score of the player.
+     */
+    private int score;
+
+    /**
+     * The board index of the square of every ghost.
+     */
+    private final int[] ghostSquares;
+
+    /**
+     * The ordinal of the direction every ghost is facing.
+     */
+    private final byte[] ghostDirections;
+
+    /**
+     * The moment every ghost moves next, in milliseconds.
+     */
+    private final long[] ghostDue;
+
+    /**
+     * The order in which every ghost was last scheduled, breaking ties
+     * between ghosts due at the same moment.
+     */
+    private final long[] ghostOrder;
+
+    /**
+     * The pellets still on the board, one bit per pellet.
+     */
+    private final long[] pellets;
+
+    /**
+     * The number of pellets still on the board.
+     */
+    private int remainingPellets;
+
+    /**
+     * The time played, in milliseconds.
+     */
+    private long time;
+
+    /**
+     * The order given to the next ghost to be scheduled.
+     */
+    private long nextOrder;
+
+    /**
+     * The state of the random generator.
+     */
+    private long seed;
+
+    /**
+     * Whether moves can still be made, i.e. the level is neither won nor
+     * lost.
+     */
+    private boolean inProgress;
+
+    /**
+     * The distance field towards the player the ghosts last chased, like
+     * the one {@link Level#distanceField} keeps, or <code>null</code> if none
+     * was needed yet. Fields never change, so forks share it until their
+     * player moves.
+     */
+    private DistanceField playerField;
+
+    /**
+     * Creates the state of a level, as if the level was just started.
+     *
+     * @param topology
+     *            The parts of the level that do not change while playing.
+     * @param player
+     *            The player of the level.
+     * @param ghosts
+     *            The ghosts of the level.
+     * @param seed
+     *            The seed of the random generator.
+     */
+    private GameState(Topology topology, Player player, List<Ghost> ghosts, long seed) {
+        this.topology = topology;
+        this.playerSquare = player.getSquare().getIndex();
+        this.playerDirection = player.getDirection().ordinal();
+        this.playerAlive = player.isAlive();
+        this.score = player.getScore();
+        this.seed = seed;
+
+        int ghostCount = ghosts.size();
+        this.ghostSquares = new int[ghostCount];
+        this.ghostDirections = new byte[ghostCount];
+        this.ghostDue = new long[ghostCount];
+        this.ghostOrder = new long[ghostCount];
+        for (int i = 0; i < ghostCount; i++) {
+            Ghost ghost = ghosts.get(i);
+            ghostSquares[i] = ghost.getSquare().getIndex();
+            ghostDirections[i] = (byte) ghost.getDirection().ordinal();
+            schedule(i, nextInterval(i) / 2);
+        }
+
+        int pelletCount = topology.pelletValues.length;
+        this.pellets = new long[(pelletCount + Long.SIZE - 1) / Long.SIZE];
+        for (int i = 0; i < pelletCount; i++) {
+            pellets[i / Long.SIZE] |= 1L << i;
+        }
+        this.remainingPellets = pelletCount;
+        updateProgress();
+    }
+
+    /**
+     * Creates a copy of a state.
+     *
+     * @param original
+     *            The state to copy.
+     */
+    private GameState(GameState original) {
+        this.topology = original.topology;
+        this.playerSquare = original.playerSquare;
+        this.playerDirection = original.playerDirection;
+        this.playerAlive = original.playerAlive;
+        this.score = original.score;
+        this.ghostSquares = original.ghostSquares.clone();
+        this.ghostDirections = original.ghostDirections.clone();
+        this.ghostDue = original.ghostDue.clone();
+        this.ghostOrder = original.ghostOrder.clone();
+        this.pellets = original.pellets.clone();
+        this.remainingPellets = original.remainingPellets;
+        this.time = original.time;
+        this.nextOrder = original.nextOrder;
+        this.seed = original.seed;
+        this.inProgress = original.inProgress;
+        this.playerField = original.playerField;
+    }
+
+    /**
+     * Takes a snapshot of a level with exactly one player. The ghosts are
+     * scheduled as if the level was just started.
+     *
+     * @param level
+     *            The level to copy.
+     * @param stepMillis
+     *            The time a move of the player takes, in milliseconds.
+     * @param seed
+     *            The seed of the random generator deciding the random moves
+     *            and move intervals of the ghosts.
+     * @return The state of the level.
+     */
+    public static GameState of(Level level, long stepMillis, long seed) {
+        assert level != null;
+        assert stepMillis > 0;
+        List<Player> players = level.getPlayers();
+        assert players.size() == 1;
+        Player player = players.get(0);
+        List<Ghost> ghosts = level.getGhosts();
+        Topology topology = new Topology(level.getBoard(), player, ghosts, stepMillis);
+        return new GameState(topology, player, ghosts, seed);
+    }
+
+    /**
+     * Plays out a move of the player on a copy of a state, leaving the state
+     * itself untouched.
+     *
+     * @param state
+     *            The state to start from.
+     * @param playerMove
+     *            The direction the player moves in, or <code>null</code> to
+     *            stay put.
+     * @return The state after the move.
+     */
+    public static GameState step(GameState state, Direction playerMove) {
+        GameState next = state.fork();
+        next.advance(playerMove);
+        return next;
+    }
+
+    /**
+     * @return An independent copy of this state.
+     */
+    public GameState fork() {
+        return new GameState(this);
+    }
+
+    /**
+     * Creates an independent copy of this state whose random choices from
+     * now on are drawn from a new seed.
+     *
+     * @param newSeed
+     *            The seed of the random generator of the copy.
+     * @return The reseeded copy of this state.
+     */
+    public GameState fork(long newSeed) {
+        GameState copy = new GameState(this);
+        copy.seed = newSeed;
+        return copy;
+    }
+
+    /**
+     * Plays out a move of the player on this state, followed by the NPC moves
+     * that fall due while it takes place. Has no effect once the level is won
+     * or lost.
+     *
+     * @param playerMove
+     *            The direction the player moves in, or <code>null</code> to
+     *            stay put.
+     */
+    public void advance(Direction playerMove) {
+        if (!inProgress) {
+            return;
+        }
+        if (playerMove != null) {
+            movePlayer(playerMove.ordinal());
+            updateProgress();
+        }
+        time += topology.stepMillis;
+        while (inProgress) {
+            int ghost = nextDueGhost();
+            if (ghost < 0 || ghostDue[ghost] > time) {
+                return;
+            }
+            moveGhost(ghost);
+            schedule(ghost, time + Math.max(1L, nextInterval(ghost)));
+            updateProgress();
+        }
+    }
+
+    /**
+     * Moves the player, handling its collisions.
+     *
+     * @param direction
+     *            The ordinal of the direction to move in.
+     */
+    private void movePlayer(int direction) {
+        playerDirection = direction;
+        int destination = topology.links[playerSquare * WAYS + direction];
+        if (!topology.playerAccess[destination]) {
+            return;
+        }
+        playerSquare = destination;
+        for (int ghostSquare : ghostSquares) {
+            if (ghostSquare == destination) {
+                playerAlive = false;
+            }
+        }
+        int pellet = topology.pelletAt[destination];
+        if (pellet >= 0 && hasPelletNumber(pellet)) {
+            pellets[pellet / Long.SIZE] &= ~(1L << pellet);
+            remainingPellets--;
+            score += topology.pelletValues[pellet];
+        }
+    }
+
+    /**
+     * Lets a ghost decide on its next move and carries it out.
+     *
+     * @param ghost
+     *            The number of the ghost.
+     */
+    private void moveGhost(int ghost) {
+        int direction = nextGhostMove(ghost);
+        if (direction < 0) {
+            return;
+        }
+        ghostDirections[ghost] = (byte) direction;
+        int destination = topology.links[ghostSquares[ghost] * WAYS + direction];
+        if (!topology.ghostAccess[ghost][destination]) {
+            return;
+        }
+        ghostSquares[ghost] = destination;
+        if (destination == playerSquare) {
+            playerAlive = false;
+        }
+    }
+
+    /**
+     * Decides on the next move of a ghost, like {@link Ghost#nextMove()}.
+     *
+     * @param ghost
+     *            The number of the ghost.
+     * @return The ordinal of the direction to move in, or <code>-1</code> if
+     *         the ghost cannot move.
+     */
+    private int nextGhostMove(int ghost) {
+        GhostKind kind = topology.kinds[ghost];
+        if (kind != null) {
+            Board board = topology.board;
+            Square blinky = null;
+            if (kind == GhostKind.INKY) {
+                int nearest = nearestBlinky(ghostSquares[ghost]);
+                blinky = nearest < 0 ? null : board.squareAt(nearest);
+            }
+            Square player = board.squareAt(playerSquare);
+            if (playerField == null || playerField.getTarget() != playerSquare) {
+                playerField = DistanceField.build(player, topology.ghosts[ghost]);
+            }
+            Direction direction = kind.chase(board.squareAt(ghostSquares[ghost]), player,
+                DIRECTIONS[playerDirection], blinky, playerField, topology.ghosts[ghost]);
+            if (direction != null) {
+                return direction.ordinal();
+            }
+        }
+        return randomGhostMove(ghost);
+    }
+
+    /**
+     * Picks a random direction a ghost can move in, like the ghosts do when
+     * their AI has no move in mind.
+     *
+     * @param ghost
+     *            The number of the ghost.
+     * @return The ordinal of the direction, or <code>-1</code> if the ghost
+     *         is boxed in.
+     */
+    private int randomGhostMove(int ghost) {
+        int base = ghostSquares[ghost] * WAYS;
+        boolean[] access = topology.ghostAccess[ghost];
+        int options = 0;
+        for (int i = 0; i < WAYS; i++) {
+            if (access[topology.links[base + i]]) {
+                options++;
+            }
+        }
+        if (options == 0) {
+            return -1;
+        }
+        int choice = nextInt(options);
+        for (int i = 0; i < WAYS; i++) {
+            if (access[topology.links[base + i]] && choice-- == 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Ran out of options.");
+    }
+
+    /**
+     * Finds the Blinky nearest to a square, ignoring terrain, in the order in
+     * which {@link nl.tudelft.jpacman.npc.ghost.Navigation#findNearest} visits
+     * the squares. Of several Blinkies on the same square, the first one of
+     * the level is taken.
+     *
+     * @param from
+     *            The board index of the square to search from.
+     * @return The board index of the square of the nearest Blinky, or
+     *         <code>-1</code> if there is none.
+     */
+    private int nearestBlinky(int from) {
+        if (topology.blinkies.length <= 1) {
+            return topology.blinkies.length == 0 ? -1 : ghostSquares[topology.blinkies[0]];
+        }
+        SearchBuffers search = SearchBuffers.get(topology.links.length / WAYS);
+        search.visit(from);
+        while (search.hasNext()) {
+            int square = search.next();
+            for (int blinky : topology.blinkies) {
+                if (ghostSquares[blinky] == square) {
+                    return square;
+                }
+            }
+            for (int i = 0; i < WAYS; i++) {
+                int neighbour = topology.links[square * WAYS + i];
+                if (!search.isVisited(neighbour)) {
+                    search.visit(neighbour);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The number of the ghost to move next, or <code>-1</code> if
+     *         there are no ghosts.
+     */
+    private int nextDueGhost() {
+        int next = -1;
+        for (int i = 0; i < ghostDue.length; i++) {
+            if (next < 0 || ghostDue[i] < ghostDue[next]
+                || (ghostDue[i] == ghostDue[next] && ghostOrder[i] < ghostOrder[next])) {
+                next = i;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Schedules the next move of a ghost.
+     *
+     * @param ghost
+     *            The number of the ghost.
+     * @param due
+     *            The moment of the move, in milliseconds.
+     */
+    private void schedule(int ghost, long due) {
+        ghostDue[ghost] = due;
+        ghostOrder[ghost] = nextOrder++;
+    }
+
+    /**
+     * Draws the time until the next move of a ghost, like
+     * {@link Ghost#getInterval()}.
+     *
+     * @param ghost
+     *            The number of the ghost.
+     * @return The interval in milliseconds.
+     */
+    private long nextInterval(int ghost) {
+        return topology.moveIntervals[ghost] + nextInt(topology.intervalVariations[ghost]);
+    }
+
+    /**
+     * Ends the game once the player died or ate the last pellet.
+     */
+    private void updateProgress() {
+        inProgress = playerAlive && remainingPellets > 0;
+    }
+
+    /**
+     * @return The next value of the random generator.
+     */
+    private long nextLong() {
+        seed += GOLDEN_GAMMA;
+        long z = seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param bound
+     *            The upper bound, exclusive, which must be positive.
+     * @return A random value between zero and the bound.
+     */
+    private int nextInt(int bound) {
+        assert bound > 0;
+        return (int) (((nextLong() >>> Integer.SIZE) * bound) >>> Integer.SIZE);
+    }
+
+    /**
+     * @param pellet
+     *            The number of a pellet.
+     * @return <code>true</code> iff the pellet is still on the board.
+     */
+    private boolean hasPelletNumber(int pellet) {
+        return (pellets[pellet / Long.SIZE] & (1L << pellet)) != 0;
+    }
+
+    /**
+     * @return The board this state is played on.
+     */
+    public Board getBoard() {
+        return topology.board;
+    }
+
+    /**
+     * @return The board index of the square of the player.
+     */
+    public int getPlayerSquare() {
+        return playerSquare;
+    }
+
+    /**
+     * @return The direction the player is facing.
+     */
+    public Direction getPlayerDirection() {
+        return DIRECTIONS[playerDirection];
+    }
+
+    /**
+     * @return <code>true</code> iff the player is alive.
+     */
+    public boolean isPlayerAlive() {
+        return playerAlive;
+    }
+
+    /**
+     * @return The score of the player.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return The number of ghosts.
+     */
+    public int getGhostCount() {
+        return ghostSquares.length;
+    }
+
+    /**
+     * @param ghost
+     *            The number of a ghost, in the order of the level.
+     * @return The board index of the square of the ghost.
+     */
+    public int getGhostSquare(int ghost) {
+        return ghostSquares[ghost];
+    }
+
+    /**
+     * @param ghost
+     *            The number of a ghost, in the order of the level.
+     * @return The direction the ghost is facing.
+     */
+    public Direction getGhostDirection(int ghost) {
+        return DIRECTIONS[ghostDirections[ghost]];
+    }
+
+    /**
+     * @return The number of pellets still on the board.
+     */
+    public int getRemainingPellets() {
+        return remainingPellets;
+    }
+
+    /**
+     * @param square
+     *            The board index of a square.
+     * @return <code>true</code> iff there is a pellet on the square.
+     */
+    public boolean hasPellet(int square) {
+        int pellet = topology.pelletAt[square];
+        return pellet >= 0 && hasPelletNumber(pellet);
+    }
+
+    /**
+     * @param square
+     *            The board index of a square.
+     * @return <code>true</code> iff the player may occupy the square.
+     */
+    public boolean isAccessibleToPlayer(int square) {
+        return topology.playerAccess[square];
+    }
+
+    /**
+     * @return The time played, in milliseconds.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return <code>true</code> iff the level is neither won nor lost.
+     */
+    public boolean isInProgress() {
+        return inProgress;
+    }
+
+    /**
+     * @return <code>true</code> iff the player ate all pellets and survived.
+     */
+    public boolean isWon() {
+        return playerAlive && remainingPellets == 0;
+    }
+
+    /**
+     * @return <code>true</code> iff the player died.
+     */
+    public boolean isLost() {
+        return !playerAlive;
+    }
+
+    /**
+     * The parts of a level that stay the same while playing, shared by all
+     * states forked from the same snapshot.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Topology {
+
+        /**
+         * The board of the level.
+         */
+        private final Board board;
+
+        /**
+         * The board index of the neighbour of every square in every
+         * direction, at <code>index * WAYS + ordinal</code>.
+         */
+        private final int[] links;
+
+        /**
+         * Whether the player may occupy every square.
+         */
+        private final boolean[] playerAccess;
+
+        /**
+         * Whether every ghost may occupy every square.
+         */
+        private final boolean[][] ghostAccess;
+
+        /**
+         * The number of the pellet on every square, or <code>-1</code>.
+         */
+        private final int[] pelletAt;
+
+        /**
+         * The value of every pellet.
+         */
+        private final int[] pelletValues;
+
+        /**
+         * The ghosts of the level, used as travellers when navigating.
+         */
+        private final Ghost[] ghosts;
+
+        /**
+         * The kind of every ghost, or <code>null</code> for ghosts that only
+         * move randomly.
+         */
+        private final GhostKind[] kinds;
+
+        /**
+         * The numbers of the ghosts that are Blinky.
+         */
+        private final int[] blinkies;
+
+        /**
+         * The base move interval of every ghost.
+         */
+        private final int[] moveIntervals;
+
+        /**
+         * The variation of the move interval of every ghost.
+         */
+        private final int[] intervalVariations;
+
+        /**
+         * The time a move of the player takes, in milliseconds.
+         */
+        private final long stepMillis;
+
+        /**
+         * Extracts the fixed parts of a level.
+         *
+         * @param board
+         *            The board of the level.
+         * @param player
+         *            The player of the level.
+         * @param ghostList
+         *            The ghosts of the level.
+         * @param stepMillis
+         *            The time a move of the player takes, in milliseconds.
+         */
+        Topology(Board board, Player player, List<Ghost> ghostList, long stepMillis) {
+            this.board = board;
+            this.stepMillis = stepMillis;
+
+            int size = board.getSquareCount();
+            this.links = new int[size * WAYS];
+            this.playerAccess = new boolean[size];
+            this.pelletAt = new int[size];
+            int[] values = new int[size];
+            int pelletCount = 0;
+            for (int i = 0; i < size; i++) {
+                Square square = board.squareAt(i);
+                for (int d = 0; d < WAYS; d++) {
+                    links[i * WAYS + d] = square.getSquareAt(DIRECTIONS[d]).getIndex();
+                }
+                playerAccess[i] = square.isAccessibleTo(player);
+                Pellet pellet = square.firstOccupantOf(Pellet.class);
+                if (pellet == null) {
+                    pelletAt[i] = -1;
+                } else {
+                    pelletAt[i] = pelletCount;
+                    values[pelletCount++] = pellet.getValue();
+                }
+            }
+            this.pelletValues = Arrays.copyOf(values, pelletCount);
+
+            int ghostCount = ghostList.size();
+            this.ghosts = ghostList.toArray(new Ghost[ghostCount]);
+            this.kinds = new GhostKind[ghostCount];
+            this.ghostAccess = new boolean[ghostCount][];
+            this.moveIntervals = new int[ghostCount];
+            this.intervalVariations = new int[ghostCount];
+            int[] blinkyNumbers = new int[ghostCount];
+            int blinkyCount = 0;
+            for (int g = 0; g < ghostCount; g++) {
+                Ghost ghost = ghosts[g];
+                kinds[g] = GhostKind.of(ghost);
+                if (kinds[g] == GhostKind.BLINKY) {
+                    blinkyNumbers[blinkyCount++] = g;
+                }
+                moveIntervals[g] = ghost.getMoveInterval();
+                intervalVariations[g] = ghost.getIntervalVariation();
+                ghostAccess[g] = new boolean[size];
+                for (int i = 0; i < size; i++) {
+                    ghostAccess[g][i] = board.squareAt(i).isAccessibleTo(ghost);
+                }
+            }
+            this.blinkies = Arrays.copyOf(blinkyNumbers, blinkyCount);
+        }
+    }
+}
@@ -1,21 +1,21 @@
 package nl.tudelft.jpacman.level;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.DistanceField;
 
 /**
  * A level of Pac-Man. A level consists of the board with the players and the
@@ -26,6 +26,11 @@ import nl.tudelft.jpacman.npc.Ghost;
 @SuppressWarnings("PMD.TooManyMethods")
 public class Level {
 
+    /**
+     * The number of events kept for the consumers of {@link #events}.
+     */
+    private static final int EVENT_CAPACITY = 4096;
+
     /**
      * The board of this level.
      */
@@ -36,6 +41,12 @@ public class Level {
      */
     private final Object moveLock = new Object();
 
+    /**
+     * The units a moving unit collides with, taken before it moves. Only
+     * used while holding the {@link #moveLock}.
+     */
+    private Unit[] colliding = new Unit[2];
+
     /**
      * The lock that ensures starting and stopping can't interfere with each
      * other.
@@ -43,9 +54,25 @@ public class Level {
     private final Object startStopLock = new Object();
 
     /**
-     * The NPCs of this level and, if they are running, their schedules.
+     * The latest distance field towards every player that ghosts asked for,
+     * by player.
+     */
+    private final Map<Player, DistanceField> distanceFields = new ConcurrentHashMap<>();
+
+    /**
+     * The NPCs of this level.
+     */
+    private final List<Ghost> npcs;
+
+    /**
+     * The clock deciding when NPC moves are carried out.
      */
-    private final Map<Ghost, ScheduledExecutorService> npcs;
+    private final Clock clock;
+
+    /**
+     * The schedule of NPC moves, driven by the {@link #clock}.
+     */
+    private final TickEngine engine;
 
     /**
      * <code>true</code> iff this level is currently in progress, i.e. players
@@ -68,6 +95,12 @@ public class Level {
      */
     private final List<Player> players;
 
+    /**
+     * The players on this level, to tell in constant time whether a player
+     * is registered already.
+     */
+    private final Set<Player> registeredPlayers;
+
     /**
      * The table of possible collisions between units.
      */
@@ -79,7 +112,40 @@ public class Level {
     private final Set<LevelObserver> observers;
 
     /**
-     * Creates a new level for the board.
+     * The stream of events on this level.
+     */
+    private final LevelEvents events;
+
+    /**
+     * The lock guarding the pellet and player counters, which is never held
+     * while calling out of this level.
+     */
+    private final Object counterLock = new Object();
+
+    /**
+     * The number of pellets left on the board.
+     */
+    private int pelletCount;
+
+    /**
+     * The number of registered players that are alive.
+     */
+    private int alivePlayerCount;
+
+    /**
+     * <code>true</code> iff the observers have been told this level is lost
+     * since it was last started.
+     */
+    private boolean lostNotified;
+
+    /**
+     * <code>true</code> iff the observers have been told this level is won
+     * since it was last started.
+     */
+    private boolean wonNotified;
+
+    /**
+     * Creates a new level for the board, moving its NPCs in real time.
      *
      * @param board
      *            The board for the level.
@@ -92,25 +158,78 @@ public class Level {
      */
     public Level(Board board, List<Ghost> ghosts, List<Square> startPositions,
                  CollisionMap collisionMap) {
+        this(board, ghosts, startPositions, collisionMap, new RealTimeClock());
+    }
+
+    /**
+     * Creates a new level for the board, moving its NPCs according to the
+     * given clock.
+     *
+     * @param board
+     *            The board for the level.
+     * @param ghosts
+     *            The ghosts on the board.
+     * @param startPositions
+     *            The squares on which players start on this board.
+     * @param collisionMap
+     *            The collection of collisions that should be handled.
+     * @param clock
+     *            The clock deciding when NPCs move.
+     */
+    public Level(Board board, List<Ghost> ghosts, List<Square> startPositions,
+                 CollisionMap collisionMap, Clock clock) {
+        this(board, ghosts, startPositions, collisionMap, clock, new SplittableRandom());
+    }
+
+    /**
+     * Creates a new level for the board, moving its NPCs according to the
+     * given clock. Every ghost gets its own random source, split from the
+     * given one in the order of the ghosts, so that a level whose source is
+     * seeded and whose clock is virtual can be replayed exactly.
+     *
+     * @param board
+     *            The board for the level.
+     * @param ghosts
+     *            The ghosts on the board.
+     * @param startPositions
+     *            The squares on which players start on this board.
+     * @param collisionMap
+     *            The collection of collisions that should be handled.
+     * @param clock
+     *            The clock deciding when NPCs move.
+     * @param random
+     *            The random source of this level.
+     */
+    public Level(Board board, List<Ghost> ghosts, List<Square> startPositions,
+                 CollisionMap collisionMap, Clock clock, SplittableRandom random) {
         assert board != null;
         assert ghosts != null;
         assert startPositions != null;
+        assert clock != null;
+        assert random != null;
 
-        this.board = board;
-        this.inProgress = false;
-        this.npcs = new HashMap<>();
         for (Ghost ghost : ghosts) {
-            npcs.put(ghost, null);
+            ghost.setRandom(random.split());
         }
+        this.board = board;
+        this.inProgress = false;
+        this.npcs = new ArrayList<>(ghosts);
+        this.clock = clock;
+        this.engine = new TickEngine(this);
         this.startSquares = startPositions;
         this.startSquareIndex = 0;
         this.players = new ArrayList<>();
+        this.registeredPlayers = new HashSet<>();
         this.collisions = collisionMap;
-        this.observers = new HashSet<>();
+        this.observers = new CopyOnWriteArraySet<>();
+        this.events = new LevelEvents(EVENT_CAPACITY);
+        this.pelletCount = countPellets(board);
+        board.indexUnits(Player.class, Ghost.class);
     }
 
     /**
-     * Adds an observer that will be notified when the level is won or lost.
+     * Adds an observer that will be notified when the level is won or lost,
+     * and when units move.
      *
      * @param observer
      *            The observer that will be notified.
@@ -141,14 +260,35 @@ public class Level {
         assert player != null;
         assert !startSquares.isEmpty();
 
-        if (players.contains(player)) {
+        if (!registeredPlayers.add(player)) {
             return;
         }
         players.add(player);
+        player.attachTo(this);
+        if (player.isAlive()) {
+            synchronized (counterLock) {
+                alivePlayerCount++;
+            }
+        }
         Square square = startSquares.get(startSquareIndex);
         player.occupy(square);
         startSquareIndex++;
         startSquareIndex %= startSquares.size();
+        notifyChanged(player);
+    }
+
+    /**
+     * @return The players registered on this level, in order of registration.
+     */
+    List<Player> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /**
+     * @return The NPCs of this level.
+     */
+    List<Ghost> getGhosts() {
+        return Collections.unmodifiableList(npcs);
     }
 
     /**
@@ -160,6 +300,36 @@ public class Level {
         return board;
     }
 
+    /**
+     * Returns the distance field towards the square of a player, which all
+     * ghosts chasing the player share. The field is rebuilt on the first
+     * request after the player moved, so it is built at most once per move
+     * of the player however many ghosts chase it. All ghosts are assumed to
+     * have access to the same squares, as the ghosts of this game do.
+     *
+     * @param player
+     *            The player to chase.
+     * @param traveller
+     *            The ghost asking, whose access to squares determines the
+     *            paths.
+     * @return The field towards the player, or <code>null</code> if the
+     *         player is not on a square.
+     */
+    public DistanceField distanceField(Player player, Unit traveller) {
+        assert player != null;
+        assert traveller != null;
+        if (!player.hasSquare()) {
+            return null;
+        }
+        Square square = player.getSquare();
+        DistanceField field = distanceFields.get(player);
+        if (field == null || field.getTarget() != square.getIndex()) {
+            field = DistanceField.build(square, traveller);
+            distanceFields.put(player, field);
+        }
+        return field;
+    }
+
     /**
      * Moves the unit into the given direction if possible and handles all
      * collisions.
@@ -184,12 +354,30 @@ public class Level {
             Square destination = location.getSquareAt(direction);
 
             if (destination.isAccessibleTo(unit)) {
-                List<Unit> occupants = destination.getOccupants();
+                int count = destination.getOccupantCount();
+                if (colliding.length < count) {
+                    colliding = new Unit[Math.max(count, colliding.length * 2)];
+                }
+                for (int i = 0; i < count; i++) {
+                    colliding[i] = destination.getOccupant(i);
+                }
                 unit.occupy(destination);
-                for (Unit occupant : occupants) {
+                int to = destination.getIndex();
+                events.publish(LevelEvents.Type.MOVED, unit, null, location.getIndex(), to);
+                for (int i = 0; i < count; i++) {
+                    Unit occupant = colliding[i];
+                    colliding[i] = null;
+                    events.publish(LevelEvents.Type.COLLIDED, unit, occupant, to, to);
                     collisions.collide(unit, occupant);
+                    if (occupant instanceof Pellet && !occupant.hasSquare()) {
+                        pelletEaten();
+                        events.publish(LevelEvents.Type.PELLET_EATEN, occupant, unit, to, -1);
+                    }
                 }
             }
+            for (LevelObserver observer : observers) {
+                observer.unitMoved(unit, location, destination);
+            }
             updateObservers();
         }
     }
@@ -231,11 +419,17 @@ public class Level {
 private void setGameState(boolean isStarting) {
     synchronized (startStopLock) {
         if (isStarting && !isInProgress()) {
+            synchronized (counterLock) {
+                lostNotified = false;
+                wonNotified = false;
+            }
             startNPCs();
             inProgress = true;
+            events.publish(LevelEvents.Type.STARTED, null, null, -1, -1);
         } else if (!isStarting && isInProgress()) {
             stopNPCs();
             inProgress = false;
+            events.publish(LevelEvents.Type.STOPPED, null, null, -1, -1);
         }
         updateObservers();
     }
@@ -260,26 +454,57 @@ public void stop() {
      * Starts all NPC movement scheduling.
      */
     private void startNPCs() {
-        for (final Ghost npc : npcs.keySet()) {
-            ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
+        engine.start(npcs, clock.currentTimeMillis());
+        clock.start(engine);
+    }
 
-            service.schedule(new NpcMoveTask(service, npc),
-                npc.getInterval() / 2, TimeUnit.MILLISECONDS);
+    /**
+     * Stops all NPC movement scheduling.
+     */
+    private void stopNPCs() {
+        clock.stop();
+        engine.stop();
+    }
 
-            npcs.put(npc, service);
+    /**
+     * Lets an NPC decide on its next move and carries it out.
+     *
+     * @param npc
+     *            The NPC to move.
+     */
+    void moveNpc(Ghost npc) {
+        Direction nextMove = npc.nextMove();
+        if (nextMove != null) {
+            move(npc, nextMove);
         }
     }
 
     /**
-     * Stops all NPC movement scheduling and interrupts any movements being
-     * executed.
+     * Returns the stream of events on this level, which consumers can read
+     * at their own pace.
+     *
+     * @return The events of this level.
      */
-    private void stopNPCs() {
-        for (Entry<Ghost, ScheduledExecutorService> entry : npcs.entrySet()) {
-            ScheduledExecutorService schedule = entry.getValue();
-            assert schedule != null;
-            schedule.shutdownNow();
-        }
+    public LevelEvents getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the clock deciding when the NPCs of this level move.
+     *
+     * @return The clock of this level.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the engine scheduling the NPC moves of this level.
+     *
+     * @return The tick engine of this level.
+     */
+    public TickEngine getTickEngine() {
+        return engine;
     }
 
     /**
@@ -308,19 +533,24 @@ public void stop() {
     //     }
     // }
     /**
- * Updates the observers about the state of this level.
- */
+     * Updates the observers about the state of this level. Observers are only
+     * told once about the level being lost or won, until it is started again.
+     */
     private void updateObservers() {
-        boolean gameLost = !isAnyPlayerAlive();
-        boolean gameWon = remainingPellets() == 0;
+        boolean gameLost;
+        boolean gameWon;
+        synchronized (counterLock) {
+            gameLost = alivePlayerCount == 0 && !lostNotified;
+            gameWon = alivePlayerCount > 0 && pelletCount == 0 && !wonNotified;
+            lostNotified |= gameLost;
+            wonNotified |= gameWon;
+        }
 
         for (LevelObserver observer : observers) {
             if (gameLost) {
                 observer.levelLost();
-                return; // No need to check further if game is lost
             } else if (gameWon) {
                 observer.levelWon();
-                return; // No need to check further if game is won
             }
         }
     }
@@ -333,12 +563,94 @@ public void stop() {
      *         alive.
      */
     public boolean isAnyPlayerAlive() {
-        for (Player player : players) {
-            if (player.isAlive()) {
-                return true;
+        synchronized (counterLock) {
+            return alivePlayerCount > 0;
+        }
+    }
+
+    /**
+     * Keeps track of a registered player coming back to life or dying.
+     *
+     * @param player
+     *            The player that came back to life or died.
+     * @param alive
+     *            <code>true</code> iff the player came back to life.
+     */
+    void playerAliveChanged(Player player, boolean alive) {
+        synchronized (counterLock) {
+            if (alive) {
+                alivePlayerCount++;
+            } else {
+                alivePlayerCount--;
             }
+            assert alivePlayerCount >= 0 && alivePlayerCount <= players.size();
+        }
+        if (!alive) {
+            events.publish(LevelEvents.Type.PLAYER_DIED, player, null, -1, indexOf(player));
+        }
+        notifyChanged(player);
+    }
+
+    /**
+     * Tells the observers that a unit changed without moving, if it is on a
+     * square.
+     *
+     * @param unit
+     *            The unit that changed.
+     */
+    private void notifyChanged(Unit unit) {
+        if (!unit.hasSquare()) {
+            return;
+        }
+        Square square = unit.getSquare();
+        for (LevelObserver observer : observers) {
+            observer.unitChanged(unit, square);
+        }
+    }
+
+    /**
+     * Returns the board index of the square a unit occupies.
+     *
+     * @param unit
+     *            The unit to locate.
+     * @return The index of its square, or <code>-1</code> if it has none.
+     */
+    private static int indexOf(Unit unit) {
+        if (!unit.hasSquare()) {
+            return -1;
+        }
+        return unit.getSquare().getIndex();
+    }
+
+    /**
+     * Counts the pellets on the board. No units move while a level is
+     * created, so the occupants are read by position.
+     *
+     * @param board
+     *            The board to count the pellets on.
+     * @return The amount of pellets on the board.
+     */
+    private static int countPellets(Board board) {
+        int pellets = 0;
+        for (int index = 0; index < board.getSquareCount(); index++) {
+            Square square = board.squareAt(index);
+            for (int i = 0; i < square.getOccupantCount(); i++) {
+                if (square.getOccupant(i) instanceof Pellet) {
+                    pellets++;
+                }
+            }
+        }
+        return pellets;
+    }
+
+    /**
+     * Keeps track of a pellet being removed from the board.
+     */
+    private void pelletEaten() {
+        synchronized (counterLock) {
+            pelletCount--;
+            assert pelletCount >= 0;
         }
-        return false;
     }
 
     // /**
@@ -363,56 +675,13 @@ public void stop() {
     // }
 
     /**
-     * Compte le nombre de pellets restants sur le plateau.
+     * Returns the number of pellets remaining on the board.
      *
-     * @return Le nombre total de pellets restants.
+     * @return The amount of pellets remaining on the board.
      */
     public int remainingPellets() {
-        return (int) java.util.Arrays.stream(getBoard().getSquares()) // Convertit Square[][] en flux de Square[]
-            .flatMap(java.util.Arrays::stream) // Aplati les lignes pour obtenir un flux de Square
-            .flatMap(square -> square.getOccupants().stream()) // Récupère tous les occupants de chaque case
-            .filter(unit -> unit instanceof Pellet) // Filtre les pellets
-            .count(); // Compte le nombre total de pellets
-    }
-
-    /**
-     * A task that moves an NPC and reschedules itself after it finished.
-     *
-     * @author Jeroen Roosen
-     */
-    private final class NpcMoveTask implements Runnable {
-
-        /**
-         * The service executing the task.
-         */
-        private final ScheduledExecutorService service;
-
-        /**
-         * The NPC to move.
-         */
-        private final Ghost npc;
-
-        /**
-         * Creates a new task.
-         *
-         * @param service
-         *            The service that executes the task.
-         * @param npc
-         *            The NPC to move.
-         */
-        NpcMoveTask(ScheduledExecutorService service, Ghost npc) {
-            this.service = service;
-            this.npc = npc;
-        }
-
-        @Override
-        public void run() {
-            Direction nextMove = npc.nextMove();
-            if (nextMove != null) {
-                move(npc, nextMove);
-            }
-            long interval = npc.getInterval();
-            service.schedule(this, interval, TimeUnit.MILLISECONDS);
+        synchronized (counterLock) {
+            return pelletCount;
         }
     }
 
@@ -434,6 +703,37 @@ public void stop() {
          * this event is received.
          */
         void levelLost();
+
+        /**
+         * A unit has attempted to move. Collisions caused by the move have
+         * been handled, so the occupants of both squares may have changed.
+         * Called on the thread making the move.
+         *
+         * @param unit
+         *            The unit that moved.
+         * @param from
+         *            The square the unit was on before the move.
+         * @param to
+         *            The square the unit tried to move to, which it only
+         *            occupies if it was accessible.
+         */
+        default void unitMoved(Unit unit, Square from, Square to) {
+            // most observers only care about the outcome of the level
+        }
+
+        /**
+         * A unit looks different or was placed on a square without moving,
+         * e.g. a player that died, came back to life or joined the level.
+         * Called on the thread making the change.
+         *
+         * @param unit
+         *            The unit that changed.
+         * @param square
+         *            The square the unit occupies.
+         */
+        default void unitChanged(Unit unit, Square square) {
+            // most observers only care about the outcome of the level
+        }
     }
     
 }
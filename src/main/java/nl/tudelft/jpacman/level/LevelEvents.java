@@ -0,0 +1,332 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * The stream of events happening on a {@link Level}, kept in a ring buffer of
+ * fixed size. Publishing an event never blocks and never allocates: once the
+ * ring is full the oldest events are overwritten. Every consumer reads the
+ * stream at its own pace through a {@link Cursor}, and is told how many events
+ * it missed when it fell behind by more than the size of the ring.
+ *
+ * <p>
+ * Every slot carries the sequence number of the event it holds, which is
+ * invalidated while the slot is being written. A reader accepts an event only
+ * if the slot holds the expected sequence number both before and after
+ * reading it.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public final class LevelEvents {
+
+    /**
+     * The sequence number of a slot that is being written.
+     */
+    private static final long WRITING = -1L;
+
+    /**
+     * The number of bits used for a square index in a packed event.
+     */
+    private static final int SQUARE_BITS = 28;
+
+    /**
+     * The mask of a square index in a packed event.
+     */
+    private static final long SQUARE_MASK = (1L << SQUARE_BITS) - 1;
+
+    /**
+     * All event types, by ordinal.
+     */
+    private static final Type[] TYPES = Type.values();
+
+    /**
+     * The number of slots minus one, the size being a power of two.
+     */
+    private final int mask;
+
+    /**
+     * The sequence number of the event held by every slot.
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * The type and squares of the event in every slot, packed into one value.
+     */
+    private final AtomicLongArray packed;
+
+    /**
+     * The unit the event in every slot is about.
+     */
+    private final AtomicReferenceArray<Unit> subjects;
+
+    /**
+     * The other unit involved in the event in every slot, if any.
+     */
+    private final AtomicReferenceArray<Unit> objects;
+
+    /**
+     * The sequence number of the next event to publish.
+     */
+    private final AtomicLong claimed;
+
+    /**
+     * Creates a new, empty event stream.
+     *
+     * @param capacity
+     *            The minimum number of events kept, rounded up to a power of
+     *            two.
+     */
+    public LevelEvents(int capacity) {
+        assert capacity > 0 && capacity <= 1 << 30;
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        this.packed = new AtomicLongArray(size);
+        this.subjects = new AtomicReferenceArray<>(size);
+        this.objects = new AtomicReferenceArray<>(size);
+        this.claimed = new AtomicLong();
+        for (int i = 0; i < size; i++) {
+            published.set(i, i - (long) size);
+        }
+    }
+
+    /**
+     * Returns the number of events kept by this stream.
+     *
+     * @return The size of the ring buffer.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the number of events published so far.
+     *
+     * @return The sequence number of the next event.
+     */
+    public long getPublished() {
+        return claimed.get();
+    }
+
+    /**
+     * Publishes an event, overwriting the oldest one if the ring is full.
+     *
+     * @param type
+     *            The type of the event.
+     * @param subject
+     *            The unit the event is about, or <code>null</code>.
+     * @param object
+     *            The other unit involved, or <code>null</code>.
+     * @param from
+     *            The board index of the square the event starts on, or
+     *            <code>-1</code>.
+     * @param to
+     *            The board index of the square the event ends on, or
+     *            <code>-1</code>.
+     */
+    void publish(Type type, Unit subject, Unit object, int from, int to) {
+        long sequence = claimed.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        published.set(slot, WRITING);
+        packed.set(slot, pack(type, from, to));
+        subjects.set(slot, subject);
+        objects.set(slot, object);
+        published.set(slot, sequence);
+    }
+
+    /**
+     * Creates a cursor that reads the events published from now on.
+     *
+     * @return A new cursor.
+     */
+    public Cursor newCursor() {
+        return new Cursor(claimed.get());
+    }
+
+    /**
+     * Packs the type and squares of an event into a single value.
+     *
+     * @param type
+     *            The type of the event.
+     * @param from
+     *            The board index of the first square, or <code>-1</code>.
+     * @param to
+     *            The board index of the second square, or <code>-1</code>.
+     * @return The packed event.
+     */
+    private static long pack(Type type, int from, int to) {
+        assert from < SQUARE_MASK && to < SQUARE_MASK;
+        return ((long) type.ordinal() << (2 * SQUARE_BITS))
+            | ((from + 1L) << SQUARE_BITS)
+            | (to + 1L);
+    }
+
+    /**
+     * The types of events on a level.
+     *
+     * @author Jeroen Roosen
+     */
+    public enum Type {
+
+        /**
+         * A unit moved from one square to another.
+         */
+        MOVED,
+
+        /**
+         * A unit moved into another unit, which is the object of the event.
+         */
+        COLLIDED,
+
+        /**
+         * A pellet, the subject of the event, was eaten by the object of the
+         * event.
+         */
+        PELLET_EATEN,
+
+        /**
+         * A player died.
+         */
+        PLAYER_DIED,
+
+        /**
+         * The level was started.
+         */
+        STARTED,
+
+        /**
+         * The level was stopped.
+         */
+        STOPPED
+    }
+
+    /**
+     * Receives the events read by a {@link Cursor}.
+     *
+     * @author Jeroen Roosen
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * Handles an event.
+         *
+         * @param type
+         *            The type of the event.
+         * @param subject
+         *            The unit the event is about, or <code>null</code>.
+         * @param object
+         *            The other unit involved, or <code>null</code>.
+         * @param from
+         *            The board index of the square the event starts on, or
+         *            <code>-1</code>.
+         * @param to
+         *            The board index of the square the event ends on, or
+         *            <code>-1</code>.
+         */
+        void onEvent(Type type, Unit subject, Unit object, int from, int to);
+    }
+
+    /**
+     * The position of a single consumer in the stream. A cursor must only be
+     * used by one thread at a time.
+     *
+     * @author Jeroen Roosen
+     */
+    public final class Cursor {
+
+        /**
+         * The sequence number of the next event to read.
+         */
+        private long next;
+
+        /**
+         * The number of events overwritten before they could be read.
+         */
+        private long lost;
+
+        /**
+         * Creates a new cursor.
+         *
+         * @param start
+         *            The sequence number of the first event to read.
+         */
+        private Cursor(long start) {
+            this.next = start;
+        }
+
+        /**
+         * Returns the number of events this cursor missed because they were
+         * overwritten before they were read.
+         *
+         * @return The number of missed events.
+         */
+        public long getLost() {
+            return lost;
+        }
+
+        /**
+         * Hands the events published since the last poll to a handler, in the
+         * order in which they were published.
+         *
+         * @param handler
+         *            The handler to receive the events.
+         * @param max
+         *            The maximum number of events to hand over.
+         * @return The number of events handed over.
+         */
+        public int poll(Handler handler, int max) {
+            int delivered = 0;
+            while (delivered < max) {
+                long sequence = next;
+                int slot = (int) (sequence & mask);
+                long before = published.get(slot);
+                if (before < sequence) {
+                    if (!skipOverwritten(sequence)) {
+                        return delivered;
+                    }
+                    continue;
+                }
+                long event = packed.get(slot);
+                Unit subject = subjects.get(slot);
+                Unit object = objects.get(slot);
+                if (before != sequence || published.get(slot) != sequence) {
+                    skipOverwritten(sequence);
+                    continue;
+                }
+                next = sequence + 1;
+                delivered++;
+                handler.onEvent(TYPES[(int) (event >>> (2 * SQUARE_BITS))], subject, object,
+                    (int) ((event >>> SQUARE_BITS) & SQUARE_MASK) - 1,
+                    (int) (event & SQUARE_MASK) - 1);
+            }
+            return delivered;
+        }
+
+        /**
+         * Moves this cursor to the oldest event still in the ring if the
+         * event it points at has been overwritten.
+         *
+         * @param sequence
+         *            The sequence number of the event pointed at.
+         * @return <code>true</code> iff the cursor was moved.
+         */
+        private boolean skipOverwritten(long sequence) {
+            long oldest = claimed.get() - getCapacity();
+            if (sequence >= oldest) {
+                return false;
+            }
+            lost += oldest - sequence;
+            next = oldest;
+            return true;
+        }
+    }
+}
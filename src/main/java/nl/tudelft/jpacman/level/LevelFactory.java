@@ -14,7 +14,8 @@ import java.util.Optional;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
 
 /**
  * Factory that creates levels and units.
@@ -54,6 +55,16 @@ public class LevelFactory {
      */
     private final PointCalculator pointCalculator;
 
+    /**
+     * Provides the clocks driving the levels.
+     */
+    private final Supplier<? extends Clock> clocks;
+
+    /**
+     * The source from which the random source of every level is split.
+     */
+    private final SplittableRandom seeds;
+
     /**
      * Creates a new level factory.
      *
@@ -67,10 +78,60 @@ public class LevelFactory {
     public LevelFactory(PacManSprites spriteStore,
                         GhostFactory ghostFactory,
                         PointCalculator pointCalculator) {
+        this(spriteStore, ghostFactory, pointCalculator, RealTimeClock::new);
+    }
+
+    /**
+     * Creates a new level factory whose levels are driven by the given
+     * clocks.
+     *
+     * @param spriteStore
+     *            The sprite store providing the sprites for units.
+     * @param ghostFactory
+     *            The factory providing ghosts.
+     * @param pointCalculator
+     *            The algorithm to calculate the points.
+     * @param clockFactory
+     *            Provides a new clock for every level.
+     */
+    public LevelFactory(PacManSprites spriteStore,
+                        GhostFactory ghostFactory,
+                        PointCalculator pointCalculator,
+                        Supplier<? extends Clock> clockFactory) {
+        this(spriteStore, ghostFactory, pointCalculator, clockFactory, new SplittableRandom());
+    }
+
+    /**
+     * Creates a new level factory whose levels are driven by the given
+     * clocks and make random choices derived from the given source. Levels
+     * created in the same order from factories with equally seeded sources
+     * make the same choices.
+     *
+     * @param spriteStore
+     *            The sprite store providing the sprites for units.
+     * @param ghostFactory
+     *            The factory providing ghosts.
+     * @param pointCalculator
+     *            The algorithm to calculate the points.
+     * @param clockFactory
+     *            Provides a new clock for every level.
+     * @param random
+     *            The source from which the random source of every level is
+     *            split.
+     */
+    public LevelFactory(PacManSprites spriteStore,
+                        GhostFactory ghostFactory,
+                        PointCalculator pointCalculator,
+                        Supplier<? extends Clock> clockFactory,
+                        SplittableRandom random) {
+        assert clockFactory != null;
+        assert random != null;
         this.sprites = spriteStore;
         this.ghostIndex = -1;
         this.ghostFact = ghostFactory;
         this.pointCalculator = pointCalculator;
+        this.clocks = clockFactory;
+        this.seeds = random;
     }
 
     /**
@@ -89,7 +150,8 @@ public class LevelFactory {
         // We'll adopt the simple collision map for now.
         CollisionMap collisionMap = new PlayerCollisions(pointCalculator);
 
-        return new Level(board, ghosts, startPositions, collisionMap);
+        return new Level(board, ghosts, startPositions, collisionMap, clocks.get(),
+            seeds.split());
     }
 
     /**
@@ -168,7 +230,7 @@ public class LevelFactory {
             if (directions.isEmpty()) {
                 return null;
             }
-            int i = new Random().nextInt(directions.size());
+            int i = getRandom().nextInt(directions.size());
             return directions.get(i);
         }
     }
@@ -0,0 +1,238 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import nl.tudelft.jpacman.npc.ghost.NavigationOracle;
+
+/**
+ * Converts the text representation of maps into a compact binary format, which
+ * {@link MapParser#loadCompiledMap(Path)} maps into memory and turns into a
+ * level without any intermediate text.
+ *
+ * <p>
+ * All values are big endian. A compiled map consists of:
+ * </p>
+ * <ul>
+ * <li>the int {@link #MAGIC} and the short {@link #VERSION};
+ * <li>a short of flags, of which {@link #WITH_NAVIGATION} is the only one;
+ * <li>the width and height as ints;
+ * <li>the number of ghosts as an int, followed by the board index of every
+ * ghost as an int, in the order in which the text parser creates them;
+ * <li>the number of start squares as an int, followed by the board index of
+ * every start square as an int, in the order of the text parser;
+ * <li>one byte per square in board index order, <code>y * width + x</code>,
+ * holding one of the <code>CELL_</code> codes;
+ * <li>if flagged, the navigation tables written by
+ * {@link NavigationOracle#write(java.io.DataOutput)}.
+ * </ul>
+ *
+ * @author Jeroen Roosen
+ */
+public final class MapCompiler {
+
+    /**
+     * The first four bytes of a compiled map, "JPMC".
+     */
+    static final int MAGIC = 0x4A504D43;
+
+    /**
+     * The version of the format.
+     */
+    static final short VERSION = 1;
+
+    /**
+     * The flag marking a compiled map that contains navigation tables.
+     */
+    static final short WITH_NAVIGATION = 1;
+
+    /**
+     * The code of an empty square.
+     */
+    static final byte CELL_GROUND = 0;
+
+    /**
+     * The code of a wall.
+     */
+    static final byte CELL_WALL = 1;
+
+    /**
+     * The code of a square with a pellet.
+     */
+    static final byte CELL_PELLET = 2;
+
+    /**
+     * The code of a square with a ghost.
+     */
+    static final byte CELL_GHOST = 3;
+
+    /**
+     * The code of a starting square for players.
+     */
+    static final byte CELL_PLAYER = 4;
+
+    private MapCompiler() {
+    }
+
+    /**
+     * Compiles a map.
+     *
+     * @param text
+     *            The rows of the map, as accepted by
+     *            {@link MapParser#parseMap(List)}.
+     * @param out
+     *            The stream to write the compiled map to. It is not closed.
+     * @param withNavigation
+     *            Whether to include navigation tables, which is only done for
+     *            maps small enough for a {@link NavigationOracle}.
+     * @throws IOException
+     *             when the stream could not be written.
+     */
+    public static void compile(List<String> text, OutputStream out, boolean withNavigation)
+        throws IOException {
+        MapParser.checkMapFormat(text);
+        int height = text.size();
+        int width = text.get(0).length();
+
+        byte[] cells = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            String row = text.get(y);
+            for (int x = 0; x < width; x++) {
+                cells[y * width + x] = cellOf(row.charAt(x), x, y);
+            }
+        }
+
+        NavigationOracle oracle = null;
+        if (withNavigation) {
+            boolean[] open = new boolean[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                open[i] = cells[i] != CELL_WALL;
+            }
+            oracle = NavigationOracle.build(width, height, open);
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(oracle == null ? 0 : WITH_NAVIGATION);
+        data.writeInt(width);
+        data.writeInt(height);
+        writeSpawns(data, cells, width, height, CELL_GHOST);
+        writeSpawns(data, cells, width, height, CELL_PLAYER);
+        data.write(cells);
+        if (oracle != null) {
+            oracle.write(data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Compiles a map file.
+     *
+     * @param source
+     *            The text file holding the map, in UTF-8.
+     * @param target
+     *            The file to write the compiled map to.
+     * @param withNavigation
+     *            Whether to include navigation tables.
+     * @throws IOException
+     *             when a file could not be read or written.
+     */
+    public static void compile(Path source, Path target, boolean withNavigation)
+        throws IOException {
+        List<String> text = Files.readAllLines(source, StandardCharsets.UTF_8);
+        try (OutputStream out = Files.newOutputStream(target)) {
+            compile(text, out, withNavigation);
+        }
+    }
+
+    /**
+     * Compiles the map file given as first argument into the file given as
+     * second argument, with navigation tables if a third argument
+     * <code>--navigation</code> is given.
+     *
+     * @param args
+     *            The source, the target and optionally
+     *            <code>--navigation</code>.
+     * @throws IOException
+     *             when a file could not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: MapCompiler <map.txt> <map.jpm> [--navigation]");
+            return;
+        }
+        boolean withNavigation = args.length > 2 && "--navigation".equals(args[2]);
+        compile(Paths.get(args[0]), Paths.get(args[1]), withNavigation);
+    }
+
+    /**
+     * Writes the board indices of all squares of a type, in the order in
+     * which the text parser visits them: column by column.
+     *
+     * @param data
+     *            The output to write to.
+     * @param cells
+     *            The codes of all squares.
+     * @param width
+     *            The width of the map.
+     * @param height
+     *            The height of the map.
+     * @param cell
+     *            The code of the squares to write.
+     * @throws IOException
+     *             when the output could not be written.
+     */
+    private static void writeSpawns(DataOutputStream data, byte[] cells, int width, int height,
+                                    byte cell) throws IOException {
+        int count = 0;
+        for (byte code : cells) {
+            if (code == cell) {
+                count++;
+            }
+        }
+        data.writeInt(count);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (cells[y * width + x] == cell) {
+                    data.writeInt(y * width + x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the code of a character of the text representation.
+     *
+     * @param c
+     *            The character.
+     * @param x
+     *            x coordinate of the character.
+     * @param y
+     *            y coordinate of the character.
+     * @return The code of the square.
+     */
+    static byte cellOf(char c, int x, int y) {
+        switch (c) {
+            case ' ':
+                return CELL_GROUND;
+            case '#':
+                return CELL_WALL;
+            case '.':
+                return CELL_PELLET;
+            case 'G':
+                return CELL_GHOST;
+            case 'P':
+                return CELL_PLAYER;
+            default:
+                throw MapParser.invalidCharacter(x, y, c);
+        }
+    }
+}
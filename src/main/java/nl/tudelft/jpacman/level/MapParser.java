@@ -4,8 +4,18 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import nl.tudelft.jpacman.PacmanConfigurationException;
@@ -13,6 +23,8 @@ import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+import nl.tudelft.jpacman.npc.ghost.NavigationOracle;
 
 /**
  * Creates new {@link Level}s from text representations.
@@ -21,6 +33,22 @@ import nl.tudelft.jpacman.npc.Ghost;
  */
 public class MapParser {
 
+    /**
+     * The number of characters read from a stream at once.
+     */
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * The number of rows a streamed grid starts out with.
+     */
+    private static final int INITIAL_ROWS = 64;
+
+    /**
+     * The topologies of the maps most recently loaded by
+     * {@link #parseSharedMap(String)}, shared by all parsers.
+     */
+    private static final TopologyCache SHARED_TOPOLOGIES = new TopologyCache(16);
+
     /**
      * The factory that creates the levels.
      */
@@ -32,7 +60,14 @@ public class MapParser {
     private final BoardFactory boardCreator;
 
     /**
-     * Creates a new map parser.
+     * <code>true</code> iff the plain squares of maps given as characters are
+     * created from several threads at once.
+     */
+    private final boolean parallelSquares;
+
+    /**
+     * Creates a new map parser, which creates all squares on the calling
+     * thread.
      *
      * @param levelFactory
      *            The factory providing the NPC objects and the level.
@@ -40,8 +75,29 @@ public class MapParser {
      *            The factory providing the Square objects and the board.
      */
     public MapParser(LevelFactory levelFactory, BoardFactory boardFactory) {
+        this(levelFactory, boardFactory, false);
+    }
+
+    /**
+     * Creates a new map parser.
+     *
+     * @param levelFactory
+     *            The factory providing the NPC objects and the level.
+     * @param boardFactory
+     *            The factory providing the Square objects and the board.
+     * @param parallel
+     *            Whether to create the ground, wall and pellet squares of
+     *            maps given as characters on the common fork/join pool. Those
+     *            squares then do not go through
+     *            {@link #addSquare(Square[][], List, List, SquareInfo)}, and
+     *            the factories are used from several threads at once, so only
+     *            pass <code>true</code> if they allow that. The ghosts and
+     *            start squares are the same either way.
+     */
+    public MapParser(LevelFactory levelFactory, BoardFactory boardFactory, boolean parallel) {
         this.levelCreator = levelFactory;
         this.boardCreator = boardFactory;
+        this.parallelSquares = parallel;
     }
 
     /**
@@ -101,12 +157,98 @@ public static class MapData {
     }
 }
 
+/**
+ * Fills the grid column by column, top to bottom. Parsers created to parse in
+ * parallel first get their plain squares from bands of columns on the common
+ * fork/join pool, after which the ghosts and start squares are added in the
+ * usual order.
+ *
+ * @param mapData The map to fill the grid of.
+ */
 private void makeGrid(MapData mapData) {
-    for (int x = 0; x < mapData.map.length; x++) {
-        for (int y = 0; y < mapData.map[0].length; y++) {
+    int width = mapData.map.length;
+    int height = mapData.map[0].length;
+    if (parallelSquares) {
+        ForkJoinPool.commonPool().invoke(new GridBand(mapData, 0, width));
+    }
+    for (int x = 0; x < width; x++) {
+        for (int y = 0; y < height; y++) {
             char c = mapData.map[x][y];
-            SquareInfo squareInfo = new SquareInfo(x, y, c);
-            addSquare(mapData.grid, mapData.ghosts, mapData.startPositions, squareInfo);
+            if (!parallelSquares || !isIndependent(c)) {
+                SquareInfo squareInfo = new SquareInfo(x, y, c);
+                addSquare(mapData.grid, mapData.ghosts, mapData.startPositions, squareInfo);
+            }
+        }
+    }
+}
+
+/**
+ * Tests whether a square can be added in any order, from any thread, because
+ * it creates no ghosts or start squares.
+ *
+ * @param c The character describing the square type.
+ * @return <code>true</code> iff the square is ground, a wall or a pellet.
+ */
+private static boolean isIndependent(char c) {
+    return c == ' ' || c == '#' || c == '.';
+}
+
+/**
+ * Adds the independent squares of a band of columns, splitting it in halves
+ * until the bands are small enough.
+ */
+private final class GridBand extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of squares below which a band is not split further.
+     */
+    private static final int BAND_SQUARES = 1 << 13;
+
+    /**
+     * The map to fill the grid of.
+     */
+    private final transient MapData mapData;
+
+    /**
+     * The first column of the band.
+     */
+    private final int fromX;
+
+    /**
+     * The column after the band.
+     */
+    private final int toX;
+
+    /**
+     * Creates a task adding the squares of a band of columns.
+     *
+     * @param mapData The map to fill the grid of.
+     * @param fromX The first column of the band.
+     * @param toX The column after the band.
+     */
+    GridBand(MapData mapData, int fromX, int toX) {
+        this.mapData = mapData;
+        this.fromX = fromX;
+        this.toX = toX;
+    }
+
+    @Override
+    protected void compute() {
+        int height = mapData.map[0].length;
+        if (toX - fromX > 1 && (long) (toX - fromX) * height > BAND_SQUARES) {
+            int middle = (fromX + toX) >>> 1;
+            invokeAll(new GridBand(mapData, fromX, middle), new GridBand(mapData, middle, toX));
+            return;
+        }
+        for (int x = fromX; x < toX; x++) {
+            for (int y = 0; y < height; y++) {
+                char c = mapData.map[x][y];
+                if (isIndependent(c)) {
+                    mapData.grid[x][y] = createIndependentSquare(c);
+                }
+            }
         }
     }
 }
@@ -156,6 +298,26 @@ private void makeGrid(MapData mapData) {
         return makeGhostSquare(ghosts, ghost);
     }
     
+    /**
+     * Creates a square that creates no ghosts or start squares, without
+     * going through {@link #addSquare(Square[][], List, List, SquareInfo)}.
+     *
+     * @param c
+     *            The character describing the square type, see
+     *            {@link #isIndependent(char)}.
+     * @return The new square.
+     */
+    private Square createIndependentSquare(char c) {
+        switch (c) {
+            case '#':
+                return createWallSquare();
+            case '.':
+                return createPelletSquare();
+            default:
+                return createGroundSquare();
+        }
+    }
+
     private Square createPlayerSquare(List<Square> startPositions) {
         Square playerSquare = boardCreator.createGround();
         startPositions.add(playerSquare);
@@ -164,6 +326,8 @@ private void makeGrid(MapData mapData) {
     
     /**
  * Ajoute une case au plateau en fonction du caractère du fichier de carte.
+ * Toujours appelée depuis le thread qui analyse la carte. Un analyseur créé
+ * pour analyser en parallèle n'y fait pas passer les cases ' ', '#' et '.'.
  *
  * @param grid            La grille du plateau.
  * @param ghosts          Liste des fantômes présents sur la carte.
@@ -189,11 +353,26 @@ protected void addSquare(Square[][] grid, List<Ghost> ghosts,
             grid[squareInfo.x][squareInfo.y] = createPlayerSquare(startPositions);
             break;
         default:
-            throw new PacmanConfigurationException("Caractère invalide à la position "
-                + squareInfo.x + "," + squareInfo.y + ": " + squareInfo.type);
+            throw invalidCharacter(squareInfo.x, squareInfo.y, squareInfo.type);
     }
 }
 
+    /**
+     * Creates the error for a character that does not describe a square.
+     *
+     * @param x
+     *            x coordinate of the character.
+     * @param y
+     *            y coordinate of the character.
+     * @param c
+     *            The character.
+     * @return The error to throw.
+     */
+    static PacmanConfigurationException invalidCharacter(int x, int y, char c) {
+        return new PacmanConfigurationException("Caractère invalide à la position "
+            + x + "," + y + ": " + c);
+    }
+
 
     // /**
     //  * Adds a square to the grid based on a given character. These
@@ -292,7 +471,7 @@ protected void addSquare(Square[][] grid, List<Ghost> ghosts,
  * @param text Liste des lignes de la carte.
  * @throws PacmanConfigurationException si le format est invalide.
  */
-private void checkMapFormat(List<String> text) {
+static void checkMapFormat(List<String> text) {
     validateNotNull(text);
     validateNotEmpty(text);
     int width = validateLineWidth(text);
@@ -302,7 +481,7 @@ private void checkMapFormat(List<String> text) {
 /**
  * Vérifie que la carte n'est pas null.
  */
-private void validateNotNull(List<String> text) {
+private static void validateNotNull(List<String> text) {
     if (text == null) {
         throw new PacmanConfigurationException("Input text cannot be null.");
     }
@@ -311,7 +490,7 @@ private void validateNotNull(List<String> text) {
 /**
  * Vérifie que la carte contient au moins une ligne.
  */
-private void validateNotEmpty(List<String> text) {
+private static void validateNotEmpty(List<String> text) {
     if (text.isEmpty()) {
         throw new PacmanConfigurationException("Input text must consist of at least 1 row.");
     }
@@ -320,7 +499,7 @@ private void validateNotEmpty(List<String> text) {
 /**
  * Vérifie que la première ligne n'est pas vide et retourne sa largeur.
  */
-private int validateLineWidth(List<String> text) {
+private static int validateLineWidth(List<String> text) {
     int width = text.get(0).length();
     if (width == 0) {
         throw new PacmanConfigurationException("Input text lines cannot be empty.");
@@ -331,7 +510,7 @@ private int validateLineWidth(List<String> text) {
 /**
  * Vérifie que toutes les lignes ont la même largeur.
  */
-private void validateConsistentWidth(List<String> text, int width) {
+private static void validateConsistentWidth(List<String> text, int width) {
     for (String line : text) {
         if (line.length() != width) {
             throw new PacmanConfigurationException("Input text lines are not of equal width.");
@@ -345,7 +524,7 @@ private void validateConsistentWidth(List<String> text, int width) {
     //  * @param text Map to be checked
     //  * @throws PacmanConfigurationException if map is not OK.
     //  */
-    // private void checkMapFormat(List<String> text) {
+    // static void checkMapFormat(List<String> text) {
     //     if (text == null) {
     //         throw new PacmanConfigurationException(
     //             "Input text cannot be null.");
@@ -372,23 +551,35 @@ private void validateConsistentWidth(List<String> text, int width) {
     // }
 
     /**
-     * Parses the provided input stream as a character stream and passes it
-     * result to {@link #parseMap(List)}.
+     * Parses the provided input stream as UTF-8 text in a single pass, with
+     * the same result and the same errors as {@link #parseMap(List)}. Apart
+     * from the squares themselves, only the first row and the squares that
+     * hold units are kept while reading, so maps of any size are parsed
+     * without holding their text in memory.
      *
      * @param source
-     *            The input stream that will be read.
+     *            The input stream that will be read. It is closed afterwards.
      * @return The parsed level as represented by the text on the input stream.
      * @throws IOException
      *             when the source could not be read.
+     * @throws PacmanConfigurationException
+     *             If text lines are not properly formatted.
      */
     public Level parseMap(InputStream source) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-            source, "UTF-8"))) {
-            List<String> lines = new ArrayList<>();
-            while (reader.ready()) {
-                lines.add(reader.readLine());
+        if (source == null) {
+            throw new PacmanConfigurationException("Input text cannot be null.");
+        }
+        try (Reader reader = new InputStreamReader(source, StandardCharsets.UTF_8)) {
+            StreamedMap map = new StreamedMap();
+            char[] buffer = new char[STREAM_BUFFER_SIZE];
+            int read = reader.read(buffer);
+            while (read >= 0) {
+                for (int i = 0; i < read; i++) {
+                    map.accept(buffer[i]);
+                }
+                read = reader.read(buffer);
             }
-            return parseMap(lines);
+            return map.finish();
         }
     }
 
@@ -415,6 +606,369 @@ private void validateConsistentWidth(List<String> text, int width) {
         }
     }
 
+    /**
+     * Creates a level from a map resource, sharing its walls, start squares
+     * and navigation tables with all other levels created from the same map
+     * text. Only the pellets and units are created anew, on a
+     * {@link nl.tudelft.jpacman.board.CompactBoard}. Unlike the other parse
+     * methods, the standard map characters are always used, whatever
+     * {@link #addSquare(Square[][], List, List, SquareInfo)} does.
+     *
+     * @param mapName
+     *            Name of a resource that will be read.
+     * @return A new level on the map.
+     * @throws IOException
+     *             when the resource could not be read.
+     */
+    @SuppressFBWarnings(
+        value = {"OBL_UNSATISFIED_OBLIGATION", "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE"},
+        justification = "try with resources always cleans up / false positive in java 11"
+    )
+    public Level parseSharedMap(String mapName) throws IOException {
+        try (InputStream boardStream = MapParser.class.getResourceAsStream(mapName)) {
+            if (boardStream == null) {
+                throw new PacmanConfigurationException("Could not get resource for: " + mapName);
+            }
+            MapTopology topology = SHARED_TOPOLOGIES.get(boardStream.readAllBytes());
+            return topology.createLevel(levelCreator, boardCreator);
+        }
+    }
+
+    /**
+     * Loads a map compiled by the {@link MapCompiler}. The file is mapped into
+     * memory and the squares are created straight from it, without going
+     * through the text representation. Navigation tables stored in the file
+     * are handed to {@link Navigation}.
+     *
+     * @param file
+     *            The compiled map.
+     * @return The level stored in the file.
+     * @throws IOException
+     *             when the file could not be read.
+     * @throws PacmanConfigurationException
+     *             when the file is not a valid compiled map.
+     */
+    public Level loadCompiledMap(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return loadCompiledMap(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new PacmanConfigurationException("Compiled map is truncated: " + file, e);
+        }
+    }
+
+    /**
+     * Creates the level stored in a compiled map.
+     *
+     * @param buffer
+     *            The compiled map, positioned at its start.
+     * @return The level stored in the buffer.
+     */
+    private Level loadCompiledMap(ByteBuffer buffer) {
+        if (buffer.getInt() != MapCompiler.MAGIC || buffer.getShort() != MapCompiler.VERSION) {
+            throw new PacmanConfigurationException("Not a compiled map.");
+        }
+        short flags = buffer.getShort();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new PacmanConfigurationException(
+                "Invalid compiled map size: " + width + "x" + height);
+        }
+        int[] ghostSpawns = readSpawns(buffer, width * height);
+        int[] playerSpawns = readSpawns(buffer, width * height);
+
+        Square[][] grid = new Square[width][height];
+        boolean[] open = new boolean[width * height];
+        int cells = buffer.position();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int index = y * width + x;
+                byte cell = buffer.get(cells + index);
+                grid[x][y] = createCompiledSquare(cell, x, y);
+                open[index] = cell != MapCompiler.CELL_WALL;
+            }
+        }
+        buffer.position(cells + open.length);
+
+        List<Ghost> ghosts = new ArrayList<>(ghostSpawns.length);
+        for (int index : ghostSpawns) {
+            Ghost ghost = levelCreator.createGhost();
+            ghost.occupy(grid[index % width][index / width]);
+            ghosts.add(ghost);
+        }
+        List<Square> startPositions = new ArrayList<>(playerSpawns.length);
+        for (int index : playerSpawns) {
+            startPositions.add(grid[index % width][index / width]);
+        }
+
+        Board board = boardCreator.createBoard(grid);
+        if ((flags & MapCompiler.WITH_NAVIGATION) != 0) {
+            Navigation.install(board, NavigationOracle.read(buffer, open));
+        }
+        return levelCreator.createLevel(board, ghosts, startPositions);
+    }
+
+    /**
+     * Creates the square for a code of a compiled map.
+     *
+     * @param cell
+     *            The code of the square.
+     * @param x
+     *            x coordinate of the square.
+     * @param y
+     *            y coordinate of the square.
+     * @return The new square, with its pellet if it has one.
+     */
+    private Square createCompiledSquare(byte cell, int x, int y) {
+        switch (cell) {
+            case MapCompiler.CELL_WALL:
+                return createWallSquare();
+            case MapCompiler.CELL_PELLET:
+                return createPelletSquare();
+            case MapCompiler.CELL_GROUND:
+            case MapCompiler.CELL_GHOST:
+            case MapCompiler.CELL_PLAYER:
+                return createGroundSquare();
+            default:
+                throw new PacmanConfigurationException(
+                    "Invalid compiled square at " + x + "," + y + ": " + cell);
+        }
+    }
+
+    /**
+     * Reads a list of board indices from a compiled map.
+     *
+     * @param buffer
+     *            The compiled map, positioned at the list.
+     * @param squareCount
+     *            The number of squares on the board.
+     * @return The board indices.
+     */
+    private static int[] readSpawns(ByteBuffer buffer, int squareCount) {
+        int count = buffer.getInt();
+        if (count < 0 || count > squareCount) {
+            throw new PacmanConfigurationException("Invalid compiled spawn count: " + count);
+        }
+        int[] spawns = new int[count];
+        for (int i = 0; i < count; i++) {
+            spawns[i] = buffer.getInt();
+            if (spawns[i] < 0 || spawns[i] >= squareCount) {
+                throw new PacmanConfigurationException(
+                    "Invalid compiled spawn square: " + spawns[i]);
+            }
+        }
+        return spawns;
+    }
+
+    /**
+     * A map being parsed from a stream, one character at a time. Empty
+     * squares, walls and pellets are added as soon as they are read. All other
+     * squares are added once the whole map is read, column by column, so that
+     * ghosts and start squares are created in the same order as by
+     * {@link #parseMap(char[][])} and invalid characters are only reported
+     * once the format of the map is known to be valid.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class StreamedMap {
+
+        /**
+         * The squares read so far, with room for more rows.
+         */
+        private Square[][] grid;
+
+        /**
+         * The ghosts added so far.
+         */
+        private final List<Ghost> ghosts = new ArrayList<>();
+
+        /**
+         * The start squares added so far.
+         */
+        private final List<Square> startPositions = new ArrayList<>();
+
+        /**
+         * The first row, until its end is read.
+         */
+        private StringBuilder firstRow = new StringBuilder();
+
+        /**
+         * The width of the map, or <code>-1</code> while reading the first
+         * row.
+         */
+        private int width = -1;
+
+        /**
+         * The column of the next character.
+         */
+        private int x;
+
+        /**
+         * The row of the next character.
+         */
+        private int y;
+
+        /**
+         * Whether characters of the current row have been read.
+         */
+        private boolean inRow;
+
+        /**
+         * Whether the last character was a carriage return, which may be
+         * followed by a line feed ending the same line.
+         */
+        private boolean afterReturn;
+
+        /**
+         * The board index of every square added at the end.
+         */
+        private int[] deferredSquares = new int[INITIAL_ROWS];
+
+        /**
+         * The character of every square added at the end.
+         */
+        private char[] deferredTypes = new char[INITIAL_ROWS];
+
+        /**
+         * The number of squares added at the end.
+         */
+        private int deferredCount;
+
+        /**
+         * Reads the next character. Lines end with a line feed, a carriage
+         * return or both, like {@link BufferedReader#readLine()}.
+         *
+         * @param c
+         *            The character.
+         */
+        void accept(char c) {
+            if (afterReturn) {
+                afterReturn = false;
+                if (c == '\n') {
+                    return;
+                }
+            }
+            if (c == '\r' || c == '\n') {
+                afterReturn = c == '\r';
+                endRow();
+                return;
+            }
+            inRow = true;
+            if (width < 0) {
+                firstRow.append(c);
+            } else if (x == width) {
+                throw unequalWidths();
+            } else {
+                addSquare(x++, y, c);
+            }
+        }
+
+        /**
+         * Finishes the current row.
+         */
+        private void endRow() {
+            if (width < 0) {
+                width = firstRow.length();
+                if (width == 0) {
+                    throw new PacmanConfigurationException("Input text lines cannot be empty.");
+                }
+                grid = new Square[width][INITIAL_ROWS];
+                for (int column = 0; column < width; column++) {
+                    addSquare(column, 0, firstRow.charAt(column));
+                }
+                firstRow = null;
+            } else if (x != width) {
+                throw unequalWidths();
+            }
+            x = 0;
+            y++;
+            inRow = false;
+            if (y == grid[0].length) {
+                for (int column = 0; column < width; column++) {
+                    grid[column] = Arrays.copyOf(grid[column], 2 * y);
+                }
+            }
+        }
+
+        /**
+         * Adds a square, or defers it until the whole map is read.
+         *
+         * @param column
+         *            x coordinate of the square.
+         * @param row
+         *            y coordinate of the square.
+         * @param c
+         *            Character describing the square type.
+         */
+        private void addSquare(int column, int row, char c) {
+            if (isIndependent(c)) {
+                MapParser.this.addSquare(grid, ghosts, startPositions,
+                    new SquareInfo(column, row, c));
+                return;
+            }
+            if (deferredCount == deferredSquares.length) {
+                deferredSquares = Arrays.copyOf(deferredSquares, 2 * deferredCount);
+                deferredTypes = Arrays.copyOf(deferredTypes, 2 * deferredCount);
+            }
+            deferredSquares[deferredCount] = row * width + column;
+            deferredTypes[deferredCount] = c;
+            deferredCount++;
+        }
+
+        /**
+         * Adds the deferred squares and creates the level.
+         *
+         * @return The level read.
+         */
+        Level finish() {
+            if (inRow) {
+                endRow();
+            }
+            if (width < 0) {
+                throw new PacmanConfigurationException(
+                    "Input text must consist of at least 1 row.");
+            }
+            int height = y;
+            for (int column = 0; column < width; column++) {
+                grid[column] = Arrays.copyOf(grid[column], height);
+            }
+            addDeferredSquares();
+            Board board = boardCreator.createBoard(grid);
+            return levelCreator.createLevel(board, ghosts, startPositions);
+        }
+
+        /**
+         * Adds the deferred squares column by column, top to bottom, which is
+         * the order in which {@link #parseMap(char[][])} adds squares.
+         */
+        private void addDeferredSquares() {
+            int[] starts = new int[width + 1];
+            for (int i = 0; i < deferredCount; i++) {
+                starts[deferredSquares[i] % width + 1]++;
+            }
+            for (int column = 0; column < width; column++) {
+                starts[column + 1] += starts[column];
+            }
+            int[] order = new int[deferredCount];
+            for (int i = 0; i < deferredCount; i++) {
+                order[starts[deferredSquares[i] % width]++] = i;
+            }
+            for (int i : order) {
+                int index = deferredSquares[i];
+                MapParser.this.addSquare(grid, ghosts, startPositions,
+                    new SquareInfo(index % width, index / width, deferredTypes[i]));
+            }
+        }
+
+        /**
+         * @return The error for rows of different widths.
+         */
+        private PacmanConfigurationException unequalWidths() {
+            return new PacmanConfigurationException("Input text lines are not of equal width.");
+        }
+    }
+
     /**
      * @return the BoardCreator
      */
@@ -0,0 +1,169 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.BoardTopology;
+import nl.tudelft.jpacman.board.CompactBoard;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.Navigation;
+import nl.tudelft.jpacman.npc.ghost.NavigationOracle;
+
+/**
+ * The parts of a parsed map that never change during a game: the walls, the
+ * squares holding pellets, ghosts and players at the start, and the
+ * navigation tables. A topology is immutable, so any number of levels can be
+ * created from it, each on its own {@link CompactBoard} that only adds the
+ * units.
+ *
+ * @author Jeroen Roosen
+ */
+public final class MapTopology {
+
+    /**
+     * The size and walls of the board.
+     */
+    private final BoardTopology board;
+
+    /**
+     * The board index of every square holding a pellet.
+     */
+    private final int[] pellets;
+
+    /**
+     * The board index of every ghost, in the order in which the text parser
+     * creates them.
+     */
+    private final int[] ghosts;
+
+    /**
+     * The board index of every start square, in the order of the text parser.
+     */
+    private final int[] startPositions;
+
+    /**
+     * The navigation tables of the board, or <code>null</code> if it is too
+     * large to have them.
+     */
+    private final NavigationOracle oracle;
+
+    /**
+     * Creates a new topology.
+     *
+     * @param board
+     *            The size and walls of the board.
+     * @param pellets
+     *            The board index of every square holding a pellet.
+     * @param ghosts
+     *            The board index of every ghost.
+     * @param startPositions
+     *            The board index of every start square.
+     * @param oracle
+     *            The navigation tables, or <code>null</code>.
+     */
+    private MapTopology(BoardTopology board, int[] pellets, int[] ghosts, int[] startPositions,
+                        NavigationOracle oracle) {
+        this.board = board;
+        this.pellets = pellets;
+        this.ghosts = ghosts;
+        this.startPositions = startPositions;
+        this.oracle = oracle;
+    }
+
+    /**
+     * Parses the text representation of a map, as accepted by
+     * {@link MapParser#parseMap(List)}.
+     *
+     * @param text
+     *            The rows of the map.
+     * @return The topology of the map.
+     */
+    public static MapTopology parse(List<String> text) {
+        MapParser.checkMapFormat(text);
+        int height = text.size();
+        int width = text.get(0).length();
+
+        byte[] codes = new byte[width * height];
+        byte[] cells = new byte[codes.length];
+        boolean[] open = new boolean[codes.length];
+        int[] counts = new int[MapCompiler.CELL_PLAYER + 1];
+        for (int y = 0; y < height; y++) {
+            String row = text.get(y);
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                codes[index] = MapCompiler.cellOf(row.charAt(x), x, y);
+                counts[codes[index]]++;
+                open[index] = codes[index] != MapCompiler.CELL_WALL;
+                cells[index] = open[index] ? CompactBoard.GROUND : CompactBoard.WALL;
+            }
+        }
+
+        int[] pellets = new int[counts[MapCompiler.CELL_PELLET]];
+        int[] ghosts = new int[counts[MapCompiler.CELL_GHOST]];
+        int[] startPositions = new int[counts[MapCompiler.CELL_PLAYER]];
+        int pellet = 0;
+        int ghost = 0;
+        int start = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int index = y * width + x;
+                switch (codes[index]) {
+                    case MapCompiler.CELL_PELLET:
+                        pellets[pellet++] = index;
+                        break;
+                    case MapCompiler.CELL_GHOST:
+                        ghosts[ghost++] = index;
+                        break;
+                    case MapCompiler.CELL_PLAYER:
+                        startPositions[start++] = index;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return new MapTopology(new BoardTopology(width, height, cells), pellets, ghosts,
+            startPositions, NavigationOracle.build(width, height, open));
+    }
+
+    /**
+     * @return The size and walls of the board.
+     */
+    public BoardTopology getBoard() {
+        return board;
+    }
+
+    /**
+     * Creates a new level at its start. The level gets its own board, pellets
+     * and ghosts, but shares the walls and navigation tables with all other
+     * levels of this topology.
+     *
+     * @param levelFactory
+     *            The factory creating the level, its pellets and its ghosts.
+     * @param boardFactory
+     *            The factory creating the board.
+     * @return A new level.
+     */
+    public Level createLevel(LevelFactory levelFactory, BoardFactory boardFactory) {
+        CompactBoard levelBoard = boardFactory.createCompactBoard(board);
+        if (oracle != null) {
+            Navigation.install(levelBoard, oracle);
+        }
+        for (int index : pellets) {
+            levelFactory.createPellet().occupy(levelBoard.squareAt(index));
+        }
+        List<Ghost> ghostList = new ArrayList<>(ghosts.length);
+        for (int index : ghosts) {
+            Ghost ghost = levelFactory.createGhost();
+            ghost.occupy(levelBoard.squareAt(index));
+            ghostList.add(ghost);
+        }
+        List<Square> startList = new ArrayList<>(startPositions.length);
+        for (int index : startPositions) {
+            startList.add(levelBoard.squareAt(index));
+        }
+        return levelFactory.createLevel(levelBoard, ghostList, startList);
+    }
+}
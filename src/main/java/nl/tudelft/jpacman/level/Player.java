@@ -133,13 +133,14 @@
 
 package nl.tudelft.jpacman.level;
 
+import java.awt.GraphicsEnvironment;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.JOptionPane;
 
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Unit;
-import nl.tudelft.jpacman.game.Game;
 import nl.tudelft.jpacman.sprite.AnimatedSprite;
 import nl.tudelft.jpacman.sprite.Sprite;
 
@@ -170,16 +171,32 @@ public class Player extends Unit {
      */
     private boolean alive;
 
+    /**
+     * The number of lives a player starts with.
+     */
+    private static final int INITIAL_LIVES = 3;
+
     /**
      * The number of lives the player has.
      */
-    public static int lives;
+    private int lives;
 
     /**
      * {@link Unit} iff this player died by collision, <code>null</code> otherwise.
      */
     private Unit killer;
 
+    /**
+     * The level this player is registered on, <code>null</code> if none.
+     */
+    private volatile Level level;
+
+    /**
+     * The number of times the score, lives or alive state of this player
+     * changed.
+     */
+    private final AtomicInteger revision = new AtomicInteger();
+
     /**
      * Creates a new player with a score of 0 points.
      *
@@ -188,17 +205,12 @@ public class Player extends Unit {
      * @param deathAnimation
      *            The sprite to be shown when this player dies.
      */
-
-
-    private Game game;
-
-
     protected Player(Map<Direction, Sprite> spriteMap, AnimatedSprite deathAnimation) {
         this.score = 0;
         this.alive = true;
         this.sprites = spriteMap;
         this.deathSprite = deathAnimation;
-        Player.lives = 3;
+        this.lives = INITIAL_LIVES;
         deathSprite.setAnimating(false);
 
     }
@@ -228,7 +240,43 @@ public class Player extends Unit {
         if (!isAlive) {
             deathSprite.restart();
         }
+        updateAlive(isAlive);
+    }
+
+    /**
+     * Changes whether this player is alive, keeping the level up to date.
+     *
+     * @param isAlive
+     *            <code>true</code> iff this player is alive.
+     */
+    private void updateAlive(boolean isAlive) {
+        boolean changed = alive != isAlive;
         this.alive = isAlive;
+        if (changed) {
+            revision.incrementAndGet();
+        }
+        if (changed && level != null) {
+            level.playerAliveChanged(this, isAlive);
+        }
+    }
+
+    /**
+     * Registers the level this player is playing on, so it can keep track of
+     * whether this player is alive.
+     *
+     * @param owner
+     *            The level this player was registered on.
+     */
+    void attachTo(Level owner) {
+        this.level = owner;
+    }
+
+    /**
+     * @return The level this player is registered on, or <code>null</code>
+     *         if it is not registered on any.
+     */
+    public Level getLevel() {
+        return level;
     }
 
     /**
@@ -275,6 +323,20 @@ public class Player extends Unit {
      */
     public void addPoints(int points) {
         score += points;
+        if (points != 0) {
+            revision.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns a number that changes whenever the score, the lives or the
+     * alive state of this player change, so that displays can tell whether
+     * they are out of date without comparing all of them.
+     *
+     * @return The number of changes to this player so far.
+     */
+    public int getRevision() {
+        return revision.get();
     }
 
 
@@ -286,6 +348,7 @@ public class Player extends Unit {
      */
     public void gainLife() {
         lives++;
+        revision.incrementAndGet();
     }
 
 
@@ -294,7 +357,7 @@ public class Player extends Unit {
      * Resets the player for the next round, keeping the score and lives intact.
      */
     public void resetForNextRound() {
-        this.alive = true; // Le joueur est vivant au début du nouveau round
+        updateAlive(true); // Le joueur est vivant au début du nouveau round
         this.killer = null; // Réinitialise le tueur
         this.deathSprite.setAnimating(false); // Arrête l'animation de mort
     }
@@ -307,10 +370,14 @@ public class Player extends Unit {
         return lives;
     }
 
+    /**
+     * Takes a life from the player. The game is expected to have been stopped
+     * already, as it is when its level is lost.
+     */
     public void loseLife() {
         if (lives > 0) {
             lives--;
-            game.stop();
+            revision.incrementAndGet();
             this.killer = null; // Réinitialise le tueur
             this.deathSprite.setAnimating(false); // Arrête l'animation de mort
 
@@ -318,7 +385,10 @@ public class Player extends Unit {
         if (lives == 0) {
             //setAlive(false); // Le joueur est mort si les vies atteignent zéro
             System.out.println("Game Over!");
-            JOptionPane.showMessageDialog(null, "Game Over!", "Game Over", JOptionPane.INFORMATION_MESSAGE);
+            if (!GraphicsEnvironment.isHeadless()) {
+                JOptionPane.showMessageDialog(null, "Game Over!", "Game Over",
+                    JOptionPane.INFORMATION_MESSAGE);
+            }
 
         }
     }
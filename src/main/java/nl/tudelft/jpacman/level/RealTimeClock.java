@@ -0,0 +1,62 @@
+package nl.tudelft.jpacman.level;
+
+/**
+ * A clock following the system time. While started, a single thread sleeps
+ * until the next NPC move is due and then carries it out, so the moves of all
+ * NPCs of a level share one thread.
+ *
+ * @author Jeroen Roosen
+ */
+public class RealTimeClock implements Clock {
+
+    /**
+     * The thread driving the engine, or <code>null</code> if this clock is
+     * not started.
+     */
+    private Thread driver;
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void start(TickEngine engine) {
+        assert engine != null;
+        if (driver != null) {
+            return;
+        }
+        driver = new Thread(() -> drive(engine), "jpacman-npc-clock");
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (driver != null) {
+            driver.interrupt();
+            driver = null;
+        }
+    }
+
+    /**
+     * Sleeps until the next move is due and runs it, until interrupted.
+     *
+     * @param engine
+     *            The engine to drive.
+     */
+    private void drive(TickEngine engine) {
+        while (!Thread.currentThread().isInterrupted()) {
+            long delay = engine.nextDeadline() - currentTimeMillis();
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            } else {
+                engine.runDue(currentTimeMillis());
+            }
+        }
+    }
+}
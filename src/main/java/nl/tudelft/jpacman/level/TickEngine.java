@@ -0,0 +1,209 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.Collection;
+import java.util.PriorityQueue;
+
+import nl.tudelft.jpacman.npc.Ghost;
+
+/**
+ * Schedules the moves of all NPCs of a {@link Level} on a single queue,
+ * ordered by the time their next move is due. The engine has no notion of
+ * time by itself; a {@link Clock} tells it which moves are due.
+ *
+ * @author Jeroen Roosen
+ */
+public final class TickEngine {
+
+    /**
+     * The level whose NPCs are moved.
+     */
+    private final Level level;
+
+    /**
+     * The pending moves, earliest first.
+     */
+    private final PriorityQueue<ScheduledMove> queue;
+
+    /**
+     * The number of moves scheduled so far, used to order moves that are due
+     * at the same time in the order in which they were scheduled.
+     */
+    private long sequence;
+
+    /**
+     * Incremented every time the engine is started or stopped, so moves in
+     * flight from a previous run are not rescheduled.
+     */
+    private long generation;
+
+    /**
+     * The number of NPC moves carried out by this engine.
+     */
+    private long ticks;
+
+    /**
+     * Creates a new, idle engine.
+     *
+     * @param level
+     *            The level whose NPCs will be moved.
+     */
+    TickEngine(Level level) {
+        assert level != null;
+        this.level = level;
+        this.queue = new PriorityQueue<>();
+    }
+
+    /**
+     * Schedules the first move of every NPC at half its interval from now.
+     *
+     * @param npcs
+     *            The NPCs to schedule.
+     * @param now
+     *            The current time in milliseconds.
+     */
+    synchronized void start(Collection<Ghost> npcs, long now) {
+        generation++;
+        queue.clear();
+        for (Ghost npc : npcs) {
+            schedule(npc, now + npc.getInterval() / 2);
+        }
+    }
+
+    /**
+     * Removes all pending moves.
+     */
+    synchronized void stop() {
+        generation++;
+        queue.clear();
+    }
+
+    /**
+     * Returns the time at which the next move is due.
+     *
+     * @return The time of the next move in milliseconds, or
+     *         {@link Long#MAX_VALUE} if no moves are scheduled.
+     */
+    public synchronized long nextDeadline() {
+        ScheduledMove next = queue.peek();
+        if (next == null) {
+            return Long.MAX_VALUE;
+        }
+        return next.due;
+    }
+
+    /**
+     * Returns the number of NPC moves this engine has carried out.
+     *
+     * @return The number of moves so far.
+     */
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Carries out every move that is due at the given time, in order, and
+     * schedules the next move of each NPC that moved. Moves are executed
+     * without holding the engine lock, so a move may stop the level.
+     *
+     * @param now
+     *            The current time in milliseconds.
+     * @return The number of moves carried out.
+     */
+    public int runDue(long now) {
+        int executed = 0;
+        while (true) {
+            ScheduledMove move;
+            long runGeneration;
+            synchronized (this) {
+                move = queue.peek();
+                if (move == null || move.due > now) {
+                    return executed;
+                }
+                queue.poll();
+                runGeneration = generation;
+            }
+
+            level.moveNpc(move.npc);
+            executed++;
+
+            synchronized (this) {
+                ticks++;
+                if (runGeneration != generation) {
+                    return executed;
+                }
+                schedule(move.npc, now + Math.max(1L, move.npc.getInterval()));
+            }
+        }
+    }
+
+    /**
+     * Adds a move to the queue.
+     *
+     * @param npc
+     *            The NPC to move.
+     * @param due
+     *            The time at which the move is due.
+     */
+    private void schedule(Ghost npc, long due) {
+        queue.add(new ScheduledMove(npc, due, sequence++));
+    }
+
+    /**
+     * A single pending NPC move.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class ScheduledMove implements Comparable<ScheduledMove> {
+
+        /**
+         * The NPC to move.
+         */
+        private final Ghost npc;
+
+        /**
+         * The time at which the move is due.
+         */
+        private final long due;
+
+        /**
+         * The order in which this move was scheduled.
+         */
+        private final long order;
+
+        /**
+         * Creates a new pending move.
+         *
+         * @param npc
+         *            The NPC to move.
+         * @param due
+         *            The time at which the move is due.
+         * @param order
+         *            The order in which this move was scheduled.
+         */
+        ScheduledMove(Ghost npc, long due, long order) {
+            this.npc = npc;
+            this.due = due;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(ScheduledMove other) {
+            int result = Long.compare(due, other.due);
+            if (result == 0) {
+                result = Long.compare(order, other.order);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ScheduledMove
+                && compareTo((ScheduledMove) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(order);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link MapTopology} of the most recently used maps, so that games
+ * on the same map share its walls and navigation tables instead of parsing
+ * it again. Maps are recognised by the SHA-256 hash of their text, so a map
+ * that changes on disk is parsed anew.
+ *
+ * @author Jeroen Roosen
+ */
+public class TopologyCache {
+
+    /**
+     * The topologies, by hash of their text, least recently used first.
+     */
+    private final Map<ByteBuffer, MapTopology> topologies;
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param capacity
+     *            The number of topologies kept before the least recently used
+     *            one is dropped.
+     */
+    public TopologyCache(int capacity) {
+        assert capacity > 0;
+        this.topologies = new LinkedHashMap<ByteBuffer, MapTopology>(capacity * 2, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, MapTopology> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the topology of a map, parsing it if it is not in the cache.
+     *
+     * @param content
+     *            The text of the map in UTF-8, as accepted by
+     *            {@link MapParser#parseMap(java.io.InputStream)}.
+     * @return The topology of the map.
+     */
+    public MapTopology get(byte[] content) {
+        ByteBuffer key = ByteBuffer.wrap(hash(content));
+        synchronized (topologies) {
+            MapTopology known = topologies.get(key);
+            if (known != null) {
+                return known;
+            }
+        }
+        MapTopology parsed = MapTopology.parse(lines(content));
+        synchronized (topologies) {
+            MapTopology known = topologies.putIfAbsent(key, parsed);
+            return known == null ? parsed : known;
+        }
+    }
+
+    /**
+     * @return The number of topologies in the cache.
+     */
+    public int size() {
+        synchronized (topologies) {
+            return topologies.size();
+        }
+    }
+
+    /**
+     * Computes the hash identifying a map.
+     *
+     * @param content
+     *            The text of the map.
+     * @return The SHA-256 hash of the text.
+     */
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be available.", e);
+        }
+    }
+
+    /**
+     * Splits the text of a map into rows.
+     *
+     * @param content
+     *            The text of the map in UTF-8.
+     * @return The rows of the map.
+     */
+    private static List<String> lines(byte[] content) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
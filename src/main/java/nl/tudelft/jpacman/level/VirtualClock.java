@@ -0,0 +1,79 @@
+package nl.tudelft.jpacman.level;
+
+/**
+ * A clock that only advances when told to. Advancing the clock runs all NPC
+ * moves that become due on the calling thread, in order, each at its exact
+ * scheduled time. This makes headless runs reproducible and lets them go as
+ * fast as the moves can be computed.
+ *
+ * @author Jeroen Roosen
+ */
+public class VirtualClock implements Clock {
+
+    /**
+     * The current virtual time.
+     */
+    private long now;
+
+    /**
+     * The engine being driven, or <code>null</code> if this clock is not
+     * started.
+     */
+    private TickEngine engine;
+
+    /**
+     * Creates a new virtual clock starting at time 0.
+     */
+    public VirtualClock() {
+        this.now = 0L;
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public synchronized void start(TickEngine tickEngine) {
+        assert tickEngine != null;
+        this.engine = tickEngine;
+    }
+
+    @Override
+    public synchronized void stop() {
+        this.engine = null;
+    }
+
+    /**
+     * Moves the clock forward, carrying out every NPC move that becomes due on
+     * the way. Stops early with moving NPCs if the level is stopped by one of
+     * the moves, but the clock still ends up at the requested time.
+     *
+     * @param millis
+     *            The amount of milliseconds to move forward.
+     * @return The number of NPC moves carried out.
+     */
+    public int advance(long millis) {
+        assert millis >= 0;
+        int executed = 0;
+        long target;
+        synchronized (this) {
+            target = now + millis;
+        }
+        while (true) {
+            TickEngine current;
+            long time;
+            synchronized (this) {
+                current = engine;
+                long due = current == null ? Long.MAX_VALUE : current.nextDeadline();
+                if (due > target) {
+                    now = target;
+                    return executed;
+                }
+                now = Math.max(now, due);
+                time = now;
+            }
+            executed += current.runDue(time);
+        }
+    }
+}
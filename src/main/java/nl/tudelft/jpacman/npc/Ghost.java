@@ -6,7 +6,7 @@ import nl.tudelft.jpacman.sprite.Sprite;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * A non-player unit.
@@ -29,6 +29,12 @@ public abstract class Ghost extends Unit {
      */
     private final int intervalVariation;
 
+    /**
+     * The source of the random choices of this ghost. It is only used by the
+     * thread moving the ghost.
+     */
+    private SplittableRandom random;
+
     /**
      * Calculates the next move for this unit and returns the direction to move
      * in.
@@ -61,6 +67,7 @@ public abstract class Ghost extends Unit {
         this.sprites = spriteMap;
         this.intervalVariation = intervalVariation;
         this.moveInterval = moveInterval;
+        this.random = new SplittableRandom();
     }
 
     @Override
@@ -74,7 +81,45 @@ public abstract class Ghost extends Unit {
      * @return The suggested delay between moves in milliseconds.
      */
     public long getInterval() {
-        return this.moveInterval + new Random().nextInt(this.intervalVariation);
+        if (intervalVariation == 0) {
+            return moveInterval;
+        }
+        return this.moveInterval + random.nextInt(this.intervalVariation);
+    }
+
+    /**
+     * Makes this ghost draw its intervals and random moves from the given
+     * source, so that its choices can be replayed by seeding the source.
+     *
+     * @param source
+     *            The source of the random choices of this ghost, which is not
+     *            to be shared with other ghosts.
+     */
+    public void setRandom(SplittableRandom source) {
+        assert source != null;
+        this.random = source;
+    }
+
+    /**
+     * @return The source of the random choices of this ghost.
+     */
+    protected SplittableRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * @return The base interval between moves in milliseconds.
+     */
+    public int getMoveInterval() {
+        return moveInterval;
+    }
+
+    /**
+     * @return The upper bound, exclusive, of the random variation added to
+     *         the base interval between moves, in milliseconds.
+     */
+    public int getIntervalVariation() {
+        return intervalVariation;
     }
 
 
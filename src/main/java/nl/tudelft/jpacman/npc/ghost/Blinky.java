@@ -2,7 +2,6 @@ package nl.tudelft.jpacman.npc.ghost;
 
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
-import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.sprite.Sprite;
@@ -12,7 +11,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
-import java.util.Random;
 /**
  * <p>
  * An implementation of the classic Pac-Man ghost Shadow.
@@ -86,18 +84,13 @@ public class Blinky extends Ghost {
 
         // TODO Blinky should patrol his corner every once in a while
         // TODO Implement his actual behaviour instead of simply chasing.
-        Unit nearest = Navigation.findNearest(Player.class, getSquare());
+        Player nearest = Navigation.nearestPlayer(getSquare(), this);
         if (nearest == null) {
             return Optional.empty();
         }
         assert nearest.hasSquare();
-        Square target = nearest.getSquare();
-
-        List<Direction> path = Navigation.shortestPath(getSquare(), target, this);
-        if (path != null && !path.isEmpty()) {
-            return Optional.ofNullable(path.get(0));
-        }
-        return Optional.empty();
+        return Optional.ofNullable(GhostKind.BLINKY.chase(getSquare(), nearest.getSquare(),
+            nearest.getDirection(), null, Navigation.distanceField(nearest, this), this));
     }
 
     /**
@@ -118,7 +111,7 @@ public class Blinky extends Ghost {
         if (directions.isEmpty()) {
             return null;
         }
-        int i = new Random().nextInt(directions.size());
+        int i = getRandom().nextInt(directions.size());
         return directions.get(i);
     }
 }
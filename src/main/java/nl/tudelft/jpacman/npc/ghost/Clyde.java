@@ -2,7 +2,6 @@ package nl.tudelft.jpacman.npc.ghost;
 
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
-import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.sprite.Sprite;
@@ -12,7 +11,6 @@ import java.util.Optional;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.EnumMap;
 /**
  * <p>
@@ -46,7 +44,7 @@ public class Clyde extends Ghost {
     /**
      * The amount of cells Clyde wants to stay away from Pac Man.
      */
-    private static final int SHYNESS = 8;
+    static final int SHYNESS = 8;
 
     /**
      * The variation in intervals, this makes the ghosts look more dynamic and
@@ -62,7 +60,7 @@ public class Clyde extends Ghost {
     /**
      * A map of opposite directions.
      */
-    private static final Map<Direction, Direction> OPPOSITES = new EnumMap<>(Direction.class);
+    static final Map<Direction, Direction> OPPOSITES = new EnumMap<>(Direction.class);
 
     static {
         OPPOSITES.put(Direction.NORTH, Direction.SOUTH);
@@ -96,22 +94,13 @@ public class Clyde extends Ghost {
     public Optional<Direction> nextAiMove() {
         assert hasSquare();
 
-        Unit nearest = Navigation.findNearest(Player.class, getSquare());
+        Player nearest = Navigation.nearestPlayer(getSquare(), this);
         if (nearest == null) {
             return Optional.empty();
         }
         assert nearest.hasSquare();
-        Square target = nearest.getSquare();
-
-        List<Direction> path = Navigation.shortestPath(getSquare(), target, this);
-        if (path != null && !path.isEmpty()) {
-            Direction direction = path.get(0);
-            if (path.size() <= SHYNESS) {
-                return Optional.ofNullable(OPPOSITES.get(direction));
-            }
-            return Optional.of(direction);
-        }
-        return Optional.empty();
+        return Optional.ofNullable(GhostKind.CLYDE.chase(getSquare(), nearest.getSquare(),
+            nearest.getDirection(), null, Navigation.distanceField(nearest, this), this));
     }
 
     /**
@@ -132,7 +121,7 @@ public class Clyde extends Ghost {
         if (directions.isEmpty()) {
             return null;
         }
-        int i = new Random().nextInt(directions.size());
+        int i = getRandom().nextInt(directions.size());
         return directions.get(i);
     }
 }
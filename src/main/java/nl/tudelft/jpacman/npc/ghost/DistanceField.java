@@ -0,0 +1,225 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * The shortest distance from every square of a {@link Board} to a single
+ * target square, typically the square of a player. A field is computed with
+ * one breadth first search backwards from the target, after which every ghost
+ * chasing that target finds its way by stepping to a neighbour one step
+ * closer, in constant time.
+ *
+ * <p>
+ * Like the {@link NavigationOracle}, the first step towards the target is the
+ * first direction, in the order of {@link Direction#values()}, that starts a
+ * shortest path. This assumes the links between squares are symmetric, as
+ * they are on boards made by the board factory. A field is immutable, so it
+ * can be read by any number of ghosts while a newer one is built.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public final class DistanceField {
+
+    /**
+     * The distance stored for squares that cannot reach the target.
+     */
+    private static final int UNREACHABLE = -1;
+
+    /**
+     * All directions, in the order in which steps are tried.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The board index of the target.
+     */
+    private final int target;
+
+    /**
+     * The distance to the target from every board index.
+     */
+    private final int[] distances;
+
+    /**
+     * Creates a new field from its table. The field keeps no reference to
+     * its board, so that holding on to it does not keep the board alive.
+     *
+     * @param target
+     *            The board index of the target.
+     * @param distances
+     *            The distance to the target from every board index.
+     */
+    private DistanceField(int target, int[] distances) {
+        this.target = target;
+        this.distances = distances;
+    }
+
+    /**
+     * Computes the field towards a target for a traveller.
+     *
+     * @param target
+     *            The square to reach, which must be on a board.
+     * @param traveller
+     *            The unit whose access to squares determines the paths.
+     * @return The field towards the target.
+     */
+    public static DistanceField build(Square target, Unit traveller) {
+        Board board = target.getBoard();
+        assert board != null;
+        assert traveller != null;
+
+        int[] distances = new int[board.getSquareCount()];
+        Arrays.fill(distances, UNREACHABLE);
+        SearchBuffers buffers = SearchBuffers.get(distances.length);
+
+        distances[target.getIndex()] = 0;
+        buffers.visit(target.getIndex());
+        while (buffers.hasNext()) {
+            int square = buffers.next();
+            if (!board.isAccessibleTo(square, traveller)) {
+                continue;
+            }
+            int next = distances[square] + 1;
+            for (Direction direction : DIRECTIONS) {
+                int neighbour = board.neighbourOf(square, direction);
+                if (!buffers.isVisited(neighbour)) {
+                    distances[neighbour] = next;
+                    buffers.visit(neighbour);
+                }
+            }
+        }
+        return new DistanceField(target.getIndex(), distances);
+    }
+
+    /**
+     * @return The board index of the square this field leads to.
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns whether this field can answer queries from the given square,
+     * i.e. whether the square is on a board of the size of this field.
+     *
+     * @param from
+     *            The starting square.
+     * @return <code>true</code> iff the square is on a board of this size.
+     */
+    public boolean covers(Square from) {
+        Board board = from.getBoard();
+        return board != null && board.getSquareCount() == distances.length;
+    }
+
+    /**
+     * Returns the length of the shortest path from a square to the target.
+     *
+     * @param from
+     *            The starting square.
+     * @return The number of steps to the target, or <code>-1</code> if it
+     *         cannot be reached.
+     */
+    public int distance(Square from) {
+        assert covers(from);
+        return distances[from.getIndex()];
+    }
+
+    /**
+     * Returns the first step on the shortest path from a square to the target.
+     *
+     * @param from
+     *            The starting square.
+     * @param traveller
+     *            The unit the field was computed for.
+     * @return The direction to move in, or <code>null</code> if the square is
+     *         the target or cannot reach it.
+     */
+    public Direction firstStep(Square from, Unit traveller) {
+        int distance = distance(from);
+        if (distance <= 0) {
+            return null;
+        }
+        Board board = from.getBoard();
+        for (Direction direction : DIRECTIONS) {
+            int neighbour = board.neighbourOf(from.getIndex(), direction);
+            if (distances[neighbour] == distance - 1
+                && board.isAccessibleTo(neighbour, traveller)) {
+                return direction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks a step towards another destination near the target of this
+     * field, such as a square a ghost aims for ahead of a player, without
+     * searching. The distance between a square and the destination is at
+     * least the difference of their distances to the target, and at least
+     * the number of rows and columns between them. The step taken is to the
+     * neighbour for which the larger of these two estimates is the smallest,
+     * preferring neighbours closer to the target when they are equal. Far
+     * from the target this follows the field like {@link #firstStep}; close
+     * to it, it circles the target towards the destination.
+     *
+     * @param from
+     *            The starting square.
+     * @param destination
+     *            The square to approach, on the same board.
+     * @param traveller
+     *            The unit the field was computed for.
+     * @return The direction to move in, or <code>null</code> if the square is
+     *         the destination, or either square cannot reach the target.
+     */
+    public Direction approach(Square from, Square destination, Unit traveller) {
+        int remaining = distance(destination);
+        if (from.equals(destination) || remaining < 0 || distance(from) < 0) {
+            return null;
+        }
+        Board board = from.getBoard();
+        Direction best = null;
+        int bestEstimate = Integer.MAX_VALUE;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Direction direction : DIRECTIONS) {
+            int neighbour = board.neighbourOf(from.getIndex(), direction);
+            int distance = distances[neighbour];
+            if (distance < 0 || !board.isAccessibleTo(neighbour, traveller)) {
+                continue;
+            }
+            int estimate = Math.max(Math.abs(distance - remaining),
+                gridDistance(board, neighbour, destination.getIndex()));
+            if (estimate < bestEstimate
+                || estimate == bestEstimate && distance < bestDistance) {
+                best = direction;
+                bestEstimate = estimate;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts the rows and columns between two squares, the shortest way
+     * around the edges of the board.
+     *
+     * @param board
+     *            The board of the squares.
+     * @param first
+     *            The index of one square.
+     * @param second
+     *            The index of the other square.
+     * @return The number of steps between the squares regardless of terrain.
+     */
+    private static int gridDistance(Board board, int first, int second) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int dx = Math.abs(first % width - second % width);
+        int dy = Math.abs(first / width - second / width);
+        return Math.min(dx, width - dx) + Math.min(dy, height - dy);
+    }
+}
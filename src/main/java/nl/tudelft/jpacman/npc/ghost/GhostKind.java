@@ -0,0 +1,172 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.Ghost;
+
+/**
+ * The AIs of the four ghosts, expressed in terms of the squares involved
+ * rather than the units on them. The ghosts themselves look up the squares on
+ * their board and delegate to their kind, while simulations that keep the
+ * positions of the units elsewhere can ask for the same decisions directly.
+ *
+ * @author Jeroen Roosen
+ */
+public enum GhostKind {
+
+    /**
+     * Chases Pac-Man, see {@link Blinky}.
+     */
+    BLINKY {
+        @Override
+        public Direction chase(Square from, Square player, Direction facing,
+                               Square blinky, DistanceField field, Unit traveller) {
+            if (field != null) {
+                return field.firstStep(from, traveller);
+            }
+            return Navigation.firstStep(from, player, traveller);
+        }
+    },
+
+    /**
+     * Aims a few squares ahead of Pac-Man, see {@link Pinky}.
+     */
+    PINKY {
+        @Override
+        public Direction chase(Square from, Square player, Direction facing,
+                               Square blinky, DistanceField field, Unit traveller) {
+            Square destination = ahead(player, facing, Pinky.SQUARES_AHEAD);
+            return approach(from, destination, field, traveller);
+        }
+    },
+
+    /**
+     * Cuts Pac-Man off together with Blinky, see {@link Inky}.
+     */
+    INKY {
+        @Override
+        public Direction chase(Square from, Square player, Direction facing,
+                               Square blinky, DistanceField field, Unit traveller) {
+            if (blinky == null) {
+                return null;
+            }
+            Square playerDestination = ahead(player, facing, Inky.SQUARES_AHEAD);
+            Square destination = Navigation.projectBeyond(blinky, playerDestination);
+            return approach(from, destination, field, traveller);
+        }
+    },
+
+    /**
+     * Chases Pac-Man from afar and flees up close, see {@link Clyde}.
+     */
+    CLYDE {
+        @Override
+        public Direction chase(Square from, Square player, Direction facing,
+                               Square blinky, DistanceField field, Unit traveller) {
+            int distance = field == null ? Navigation.distance(from, player, traveller)
+                : field.distance(from);
+            if (distance <= 0) {
+                return null;
+            }
+            Direction direction = field == null ? Navigation.firstStep(from, player, traveller)
+                : field.firstStep(from, traveller);
+            if (distance <= Clyde.SHYNESS) {
+                return Clyde.OPPOSITES.get(direction);
+            }
+            return direction;
+        }
+    };
+
+    /**
+     * Decides on the next move of a ghost of this kind.
+     *
+     * @param from
+     *            The square the ghost is on.
+     * @param player
+     *            The square of the nearest player.
+     * @param facing
+     *            The direction the nearest player is facing.
+     * @param blinky
+     *            The square of the nearest Blinky, or <code>null</code> if
+     *            there is none.
+     * @param field
+     *            The distance field towards the square of the player, or
+     *            <code>null</code> to search the board instead.
+     * @param traveller
+     *            The ghost, whose access to squares determines the paths.
+     * @return The direction to move in, or <code>null</code> if this kind has
+     *         no move in mind.
+     */
+    public abstract Direction chase(Square from, Square player, Direction facing,
+                                    Square blinky, DistanceField field, Unit traveller);
+
+    /**
+     * Returns the kind of a ghost.
+     *
+     * @param ghost
+     *            The ghost.
+     * @return The kind of the ghost, or <code>null</code> if it is none of
+     *         the four ghosts of this package.
+     */
+    public static GhostKind of(Ghost ghost) {
+        if (ghost instanceof Blinky) {
+            return BLINKY;
+        }
+        if (ghost instanceof Pinky) {
+            return PINKY;
+        }
+        if (ghost instanceof Inky) {
+            return INKY;
+        }
+        if (ghost instanceof Clyde) {
+            return CLYDE;
+        }
+        return null;
+    }
+
+    /**
+     * Picks the first step towards a square a ghost aims for near the player,
+     * estimated from the distance field towards the player, see
+     * {@link DistanceField#approach(Square, Square, Unit)}.
+     *
+     * @param from
+     *            The square the ghost is on.
+     * @param destination
+     *            The square the ghost aims for.
+     * @param field
+     *            The distance field towards the square of the player, or
+     *            <code>null</code> to search the board instead.
+     * @param traveller
+     *            The ghost, whose access to squares determines the paths.
+     * @return The direction to move in, or <code>null</code> if there is
+     *         none.
+     */
+    private static Direction approach(Square from, Square destination,
+                                      DistanceField field, Unit traveller) {
+        if (field == null) {
+            return Navigation.firstStep(from, destination, traveller);
+        }
+        return field.approach(from, destination, traveller);
+    }
+
+    /**
+     * Walks a number of squares in a straight line, like
+     * {@link Unit#squaresAheadOf(int)}.
+     *
+     * @param from
+     *            The square to start from.
+     * @param direction
+     *            The direction to walk in.
+     * @param amount
+     *            The number of squares to walk.
+     * @return The square at the end of the walk.
+     */
+    private static Square ahead(Square from, Direction direction, int amount) {
+        Square destination = from;
+        for (int i = 0; i < amount; i++) {
+            destination = destination.getSquareAt(direction);
+        }
+        return destination;
+    }
+}
@@ -12,7 +12,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
  * <p>
@@ -36,7 +35,7 @@ import java.util.Random;
  */
 public class Inky extends Ghost {
 
-    private static final int SQUARES_AHEAD = 2;
+    static final int SQUARES_AHEAD = 2;
 
     /**
      * The variation in intervals, this makes the ghosts look more dynamic and
@@ -88,41 +87,16 @@ public class Inky extends Ghost {
     public Optional<Direction> nextAiMove() {
         assert hasSquare();
         Unit blinky = Navigation.findNearest(Blinky.class, getSquare());
-        Unit player = Navigation.findNearest(Player.class, getSquare());
+        Player player = Navigation.nearestPlayer(getSquare(), this);
 
         if (blinky == null || player == null) {
             return Optional.empty();
         }
 
         assert player.hasSquare();
-        Square playerDestination = player.squaresAheadOf(SQUARES_AHEAD);
-
-        List<Direction> firstHalf = Navigation.shortestPath(blinky.getSquare(),
-            playerDestination, null);
-
-        if (firstHalf == null) {
-            return Optional.empty();
-        }
-
-        Square destination = followPath(firstHalf, playerDestination);
-        List<Direction> path = Navigation.shortestPath(getSquare(),
-            destination, this);
-
-        if (path != null && !path.isEmpty()) {
-            return Optional.ofNullable(path.get(0));
-        }
-        return Optional.empty();
-    }
-
-
-    private Square followPath(List<Direction> directions, Square start) {
-        Square destination = start;
-
-        for (Direction d : directions) {
-            destination = destination.getSquareAt(d);
-        }
-
-        return destination;
+        return Optional.ofNullable(GhostKind.INKY.chase(getSquare(), player.getSquare(),
+            player.getDirection(), blinky.getSquare(),
+            Navigation.distanceField(player, this), this));
     }
 
     /**
@@ -143,7 +117,7 @@ public class Inky extends Ghost {
         if (directions.isEmpty()) {
             return null;
         }
-        int i = new Random().nextInt(directions.size());
+        int i = getRandom().nextInt(directions.size());
         return directions.get(i);
     }
 }
@@ -1,14 +1,23 @@
 package nl.tudelft.jpacman.npc.ghost;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.board.UnitIndex;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Player;
+
+import com.google.common.collect.MapMaker;
 
 /**
  * Navigation provides utility to navigate on {@link Square}s.
@@ -17,9 +26,249 @@ import nl.tudelft.jpacman.board.Unit;
  */
 public final class Navigation {
 
+    /**
+     * The navigation oracle of every board navigated so far, empty if the
+     * board is too large to have one. Lookups take no lock, so ghosts on
+     * different boards and threads never wait for each other.
+     */
+    private static final ConcurrentMap<Board, Optional<NavigationOracle>> ORACLES =
+        new MapMaker().weakKeys().makeMap();
+
+    /**
+     * All directions, in the order in which they are searched.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The largest number of units of a type for which the nearest one is
+     * picked from the {@link UnitIndex} of the board instead of searched for.
+     */
+    private static final int INDEXED_CANDIDATES = 64;
+
     private Navigation() {
     }
 
+    /**
+     * Returns the first step on the shortest path from one square to another.
+     * Uses the precomputed {@link NavigationOracle} of the board when
+     * possible, and a breadth first search that stops at the destination
+     * otherwise. Ghosts chasing a player read the {@link DistanceField} of
+     * the player instead, see {@link #distanceField(Player, Unit)}.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @param traveller
+     *            The traveller attempting to reach the destination, see
+     *            {@link #shortestPath(Square, Square, Unit)}.
+     * @return The direction to move in, or <code>null</code> if the
+     *         destination is the starting square or cannot be reached.
+     */
+    public static Direction firstStep(Square from, Square to, Unit traveller) {
+        NavigationOracle oracle = oracleFor(from, to, traveller);
+        if (oracle != null) {
+            return oracle.firstStep(from, to);
+        }
+        List<Direction> path = shortestPath(from, to, traveller);
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        return path.get(0);
+    }
+
+    /**
+     * Returns the length of the shortest path from one square to another.
+     * Uses the precomputed {@link NavigationOracle} of the board when
+     * possible, and a breadth first search that stops at the destination
+     * otherwise.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @param traveller
+     *            The traveller attempting to reach the destination, see
+     *            {@link #shortestPath(Square, Square, Unit)}.
+     * @return The number of steps to the destination, or <code>-1</code> if
+     *         it cannot be reached.
+     */
+    public static int distance(Square from, Square to, Unit traveller) {
+        NavigationOracle oracle = oracleFor(from, to, traveller);
+        if (oracle != null) {
+            return oracle.distance(from, to);
+        }
+        List<Direction> path = shortestPath(from, to, traveller);
+        if (path == null) {
+            return -1;
+        }
+        return path.size();
+    }
+
+    /**
+     * Makes navigation on a board use tables that were built in advance, for
+     * instance when the board was compiled, instead of building them on first
+     * use.
+     *
+     * @param board
+     *            The board the tables were built for.
+     * @param oracle
+     *            The tables for the walls and grounds of the board.
+     */
+    public static void install(Board board, NavigationOracle oracle) {
+        assert board != null;
+        assert oracle != null;
+        ORACLES.put(board, Optional.of(oracle));
+    }
+
+    /**
+     * Returns the oracle that can answer a query between two squares, building
+     * it for the board on first use. The oracle is built without holding a
+     * lock; should two threads build one for the same board at once, the
+     * first one published is kept.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @param traveller
+     *            The traveller, or <code>null</code> to ignore terrain.
+     * @return The oracle, or <code>null</code> if the query has to be answered
+     *         by searching.
+     */
+    private static NavigationOracle oracleFor(Square from, Square to, Unit traveller) {
+        Board board = from.getBoard();
+        if (traveller == null || board == null || to.getBoard() != board) {
+            return null;
+        }
+        Optional<NavigationOracle> known = ORACLES.get(board);
+        if (known == null) {
+            Optional<NavigationOracle> built =
+                Optional.ofNullable(NavigationOracle.build(board, traveller));
+            known = ORACLES.putIfAbsent(board, built);
+            if (known == null) {
+                known = built;
+            }
+        }
+        NavigationOracle oracle = known.orElse(null);
+        if (oracle == null || !oracle.covers(from)) {
+            return null;
+        }
+        return oracle;
+    }
+
+    /**
+     * Finds the player nearest to a square for a ghost. The distance to every
+     * player is read from the {@link DistanceField} its level keeps towards
+     * it, so all ghosts share one search per move of each player instead of
+     * each searching the board. Players that are not on a level are searched
+     * for instead.
+     *
+     * @param square
+     *            The square of the ghost.
+     * @param traveller
+     *            The ghost, whose access to squares determines the paths.
+     * @return The nearest player the ghost can reach, or <code>null</code>
+     *         if there is none.
+     */
+    public static Player nearestPlayer(Square square, Unit traveller) {
+        Board board = square.getBoard();
+        UnitIndex index = board == null ? null : board.getUnitIndex();
+        if (index == null || !index.covers(Player.class)) {
+            return (Player) findNearest(Player.class, square);
+        }
+        Player[] nearest = {null};
+        int[] best = {Integer.MAX_VALUE, Integer.MAX_VALUE};
+        boolean[] unknown = {false};
+        index.forEach(Player.class, (unit, at) -> {
+            DistanceField field = distanceField((Player) unit, traveller);
+            if (field == null || !field.covers(square)) {
+                unknown[0] = true;
+                return;
+            }
+            int distance = field.distance(square);
+            if (distance >= 0 && (distance < best[0]
+                || distance == best[0] && at.getIndex() < best[1])) {
+                nearest[0] = (Player) unit;
+                best[0] = distance;
+                best[1] = at.getIndex();
+            }
+        });
+        if (unknown[0]) {
+            return (Player) findNearest(Player.class, square);
+        }
+        return nearest[0];
+    }
+
+    /**
+     * Returns the distance field towards a player that the level of the
+     * player keeps for the ghosts chasing it.
+     *
+     * @param player
+     *            The player.
+     * @param traveller
+     *            The ghost, whose access to squares determines the paths.
+     * @return The field, or <code>null</code> if the player is not on a
+     *         level or not on a square.
+     */
+    public static DistanceField distanceField(Player player, Unit traveller) {
+        Level level = player.getLevel();
+        if (level == null) {
+            return null;
+        }
+        return level.distanceField(player, traveller);
+    }
+
+    /**
+     * Walks the shortest path from one square to another regardless of
+     * terrain, and then walks that same path once more. On the toroidal boards
+     * created by the {@link nl.tudelft.jpacman.board.BoardFactory} this is a
+     * matter of coordinate arithmetic rather than a search.
+     *
+     * @param from
+     *            The square to start the path from.
+     * @param through
+     *            The square where the path is walked a second time.
+     * @return The square at the end of the second walk, which is
+     *         <code>through</code> itself if the squares are not on the same
+     *         board, as there is no path between them then.
+     */
+    public static Square projectBeyond(Square from, Square through) {
+        Board board = from.getBoard();
+        if (board == null || through.getBoard() != board) {
+            return through;
+        }
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int fromX = from.getIndex() % width;
+        int fromY = from.getIndex() / width;
+        int throughX = through.getIndex() % width;
+        int throughY = through.getIndex() / width;
+        int x = Math.floorMod(throughX + wrappedDelta(fromX, throughX, width), width);
+        int y = Math.floorMod(throughY + wrappedDelta(fromY, throughY, height), height);
+        return board.squareAt(x, y);
+    }
+
+    /**
+     * Returns the shortest signed distance between two coordinates on an axis
+     * that wraps around.
+     *
+     * @param from
+     *            The starting coordinate.
+     * @param to
+     *            The destination coordinate.
+     * @param length
+     *            The length of the axis.
+     * @return The number of steps, negative for steps towards 0.
+     */
+    private static int wrappedDelta(int from, int to, int length) {
+        int delta = Math.floorMod(to - from, length);
+        if (delta > length / 2) {
+            delta -= length;
+        }
+        return delta;
+    }
+
     /**
      * Calculates the shortest path. This is done by BFS. This search ensures
      * the traveller is allowed to occupy the squares on the way, or returns the
@@ -44,37 +293,126 @@ public final class Navigation {
         if (from.equals(to)) {
             return new ArrayList<>();
         }
+        Board board = from.getBoard();
+        if (board == null || to.getBoard() != board) {
+            return shortestPathByLinks(from, to, traveller);
+        }
 
-        List<Node> targets = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
-        targets.add(new Node(null, from, null));
-        while (!targets.isEmpty()) {
-            Node node = targets.remove(0);
-            Square square = node.getSquare();
-            if (square.equals(to)) {
-                return node.getPath();
+        SearchBuffers buffers = SearchBuffers.get(board.getSquareCount());
+        int target = to.getIndex();
+        buffers.enqueue(from.getIndex(), -1, -1);
+        while (buffers.hasNext()) {
+            int index = buffers.next();
+            if (index == target) {
+                return buffers.pathTo(index);
+            }
+            for (Direction direction : DIRECTIONS) {
+                int next = board.neighbourOf(index, direction);
+                if (!buffers.isVisited(next)
+                    && (traveller == null || board.isAccessibleTo(next, traveller))) {
+                    buffers.enqueue(next, index, direction.ordinal());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the nearest unit of the given type and returns its location. When
+     * the board keeps a {@link UnitIndex} covering the type and there are few
+     * such units, the nearest one is picked from the index. Otherwise, or
+     * when several units are equally near, this method will perform a breadth
+     * first search starting from the given square.
+     *
+     * @param type
+     *            The type of unit to search for.
+     * @param currentLocation
+     *            The starting location for the search.
+     * @return The nearest unit of the given type, or <code>null</code> if no
+     *         such unit could be found.
+     */
+    public static Unit findNearest(Class<? extends Unit> type,
+                                             Square currentLocation) {
+        Board board = currentLocation.getBoard();
+        if (board == null) {
+            return findNearestByLinks(type, currentLocation);
+        }
+        UnitIndex index = board.getUnitIndex();
+        if (index != null && index.covers(type) && index.count(type) <= INDEXED_CANDIDATES) {
+            NearestSquare nearest = new NearestSquare(board, currentLocation.getIndex());
+            index.forEach(type, (unit, square) -> nearest.offer(square.getIndex()));
+            if (nearest.isEmpty()) {
+                return null;
+            }
+            Unit unit = nearest.isUnique() ? board.firstOccupantOf(nearest.getBest(), type)
+                : null;
+            if (unit != null) {
+                return unit;
+            }
+        }
+
+        SearchBuffers buffers = SearchBuffers.get(board.getSquareCount());
+        buffers.visit(currentLocation.getIndex());
+        while (buffers.hasNext()) {
+            int square = buffers.next();
+            Unit unit = board.firstOccupantOf(square, type);
+            if (unit != null) {
+                assert unit.hasSquare();
+                return unit;
+            }
+            for (Direction direction : DIRECTIONS) {
+                int next = board.neighbourOf(square, direction);
+                if (!buffers.isVisited(next)) {
+                    buffers.visit(next);
+                }
             }
-            visited.add(square);
-            addNewTargets(traveller, targets, visited, node, square);
         }
         return null;
     }
 
-    private static void addNewTargets(Unit traveller, List<Node> targets,
-                                      Set<Square> visited, Node node, Square square) {
-        for (Direction direction : Direction.values()) {
-            Square target = square.getSquareAt(direction);
-            if (!visited.contains(target)
-                && (traveller == null || target.isAccessibleTo(traveller))) {
-                targets.add(new Node(direction, target, node));
+    /**
+     * Calculates the shortest path like
+     * {@link #shortestPath(Square, Square, Unit)}, by following the links
+     * between the squares. This is used for squares that are not on a common
+     * board, so they have no indices to search over.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @param traveller
+     *            The traveller attempting to reach the destination, or
+     *            <code>null</code> to ignore terrain.
+     * @return The shortest path to the destination or <code>null</code> if no
+     *         such path could be found.
+     */
+    private static List<Direction> shortestPathByLinks(Square from, Square to,
+                                                       Unit traveller) {
+        Deque<Node> targets = new ArrayDeque<>();
+        Set<Square> visited = new HashSet<>();
+        targets.add(new Node(null, from, null));
+        visited.add(from);
+        while (!targets.isEmpty()) {
+            Node node = targets.remove();
+            if (node.square.equals(to)) {
+                return node.getPath();
+            }
+            for (Direction direction : DIRECTIONS) {
+                Square target = node.square.getSquareAt(direction);
+                if (!visited.contains(target)
+                    && (traveller == null || target.isAccessibleTo(traveller))) {
+                    visited.add(target);
+                    targets.add(new Node(direction, target, node));
+                }
             }
         }
+        return null;
     }
 
     /**
-     * Finds the nearest unit of the given type and returns its location. This
-     * method will perform a breadth first search starting from the given
-     * square.
+     * Finds the nearest unit of the given type like
+     * {@link #findNearest(Class, Square)}, by following the links between the
+     * squares. This is used for squares that are not on a board.
      *
      * @param type
      *            The type of unit to search for.
@@ -83,25 +421,22 @@ public final class Navigation {
      * @return The nearest unit of the given type, or <code>null</code> if no
      *         such unit could be found.
      */
-    public static Unit findNearest(Class<? extends Unit> type,
-                                             Square currentLocation) {
-        List<Square> toDo = new ArrayList<>();
+    private static Unit findNearestByLinks(Class<? extends Unit> type,
+                                           Square currentLocation) {
+        Deque<Square> toDo = new ArrayDeque<>();
         Set<Square> visited = new HashSet<>();
-
         toDo.add(currentLocation);
-
+        visited.add(currentLocation);
         while (!toDo.isEmpty()) {
-            Square square = toDo.remove(0);
+            Square square = toDo.remove();
             Unit unit = findUnit(type, square);
             if (unit != null) {
-                assert unit.hasSquare();
                 return unit;
             }
-            visited.add(square);
-            for (Direction direction : Direction.values()) {
-                Square newTarget = square.getSquareAt(direction);
-                if (!visited.contains(newTarget) && !toDo.contains(newTarget)) {
-                    toDo.add(newTarget);
+            for (Direction direction : DIRECTIONS) {
+                Square next = square.getSquareAt(direction);
+                if (visited.add(next)) {
+                    toDo.add(next);
                 }
             }
         }
@@ -119,12 +454,23 @@ public final class Navigation {
      * @return the first unit found of type clazz, or null.
      */
     public static <T extends Unit> T findUnitInBoard(Class<T> clazz, Board board) {
-        for (int y = 0; y < board.getHeight(); y++) {
-            for (int x = 0; x < board.getWidth(); x++) {
-                final T ghost = Navigation.findUnit(clazz, board.squareAt(x, y));
-                if (ghost != null) {
-                    return ghost;
-                }
+        UnitIndex index = board.getUnitIndex();
+        if (index != null && index.covers(clazz)) {
+            int[] first = {Integer.MAX_VALUE};
+            index.forEach(clazz,
+                (unit, square) -> first[0] = Math.min(first[0], square.getIndex()));
+            if (first[0] == Integer.MAX_VALUE) {
+                return null;
+            }
+            T unit = board.firstOccupantOf(first[0], clazz);
+            if (unit != null) {
+                return unit;
+            }
+        }
+        for (int square = 0; square < board.getSquareCount(); square++) {
+            final T ghost = board.firstOccupantOf(square, clazz);
+            if (ghost != null) {
+                return ghost;
             }
         }
 
@@ -144,37 +490,34 @@ public final class Navigation {
      * @return A unit of type T, iff such a unit occupies this square, or
      *         <code>null</code> of none does.
      */
-    @SuppressWarnings("unchecked")
     public static <T extends Unit> T findUnit(Class<T> type, Square square) {
-        for (Unit unit : square.getOccupants()) {
-            if (type.isInstance(unit)) {
-                assert unit.hasSquare();
-                return (T) unit;
-            }
-        }
-        return null;
+        T unit = square.firstOccupantOf(type);
+        assert unit == null || unit.hasSquare();
+        return unit;
     }
 
     /**
-     * Helper class to keep track of the path.
+     * A square reached by a search following the links between squares,
+     * together with the way it was reached.
      *
      * @author Jeroen Roosen
      */
     private static final class Node {
 
         /**
-         * The direction for this node, which is <code>null</code> for the root
-         * node.
+         * The direction this square was reached by, which is
+         * <code>null</code> for the starting square.
          */
         private final Direction direction;
 
         /**
-         * The parent node, which is <code>null</code> for the root node.
+         * The square this square was reached from, which is <code>null</code>
+         * for the starting square.
          */
         private final Node parent;
 
         /**
-         * The square associated with this node.
+         * The square reached.
          */
         private final Square square;
 
@@ -197,40 +540,112 @@ public final class Navigation {
         }
 
         /**
-         * @return The direction for this node, or <code>null</code> if this
-         *         node is a root node.
+         * @return The directions leading from the starting square to this
+         *         square.
          */
-        private Direction getDirection() {
-            return direction;
+        List<Direction> getPath() {
+            List<Direction> path = new ArrayList<>();
+            for (Node node = this; node.parent != null; node = node.parent) {
+                path.add(0, node.direction);
+            }
+            return path;
         }
+    }
+
+    /**
+     * The nearest of a number of squares to a starting square, counting steps
+     * on the wrapping board regardless of terrain, like the breadth first
+     * search of {@link #findNearest(Class, Square)} does.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class NearestSquare {
 
         /**
-         * @return The square for this node.
+         * The board the squares are on.
          */
-        private Square getSquare() {
-            return square;
-        }
+        private final Board board;
+
+        /**
+         * The column of the starting square.
+         */
+        private final int fromX;
+
+        /**
+         * The row of the starting square.
+         */
+        private final int fromY;
 
         /**
-         * @return The parent node, or <code>null</code> if this node is a root
-         *         node.
+         * The index of the nearest square so far, or <code>-1</code> if none
+         * was offered.
          */
-        protected  Node getParent() {
-            return parent;
+        private int best = -1;
+
+        /**
+         * The number of steps to the nearest square so far.
+         */
+        private int bestDistance = Integer.MAX_VALUE;
+
+        /**
+         * Whether another square is as near as the nearest square so far.
+         */
+        private boolean tied;
+
+        /**
+         * Creates a search for the square nearest to a starting square.
+         *
+         * @param board
+         *            The board the squares are on.
+         * @param from
+         *            The index of the starting square.
+         */
+        NearestSquare(Board board, int from) {
+            this.board = board;
+            this.fromX = from % board.getWidth();
+            this.fromY = from / board.getWidth();
         }
 
         /**
-         * Returns the list of values from the root of the tree to this node.
+         * Considers a square.
          *
-         * @return The list of values from the root of the tree to this node.
+         * @param index
+         *            The index of the square.
          */
-        private List<Direction> getPath() {
-            if (parent == null) {
-                return new ArrayList<>();
+        void offer(int index) {
+            int width = board.getWidth();
+            int height = board.getHeight();
+            int distance = Math.abs(wrappedDelta(fromX, index % width, width))
+                + Math.abs(wrappedDelta(fromY, index / width, height));
+            if (distance < bestDistance) {
+                best = index;
+                bestDistance = distance;
+                tied = false;
+            } else if (distance == bestDistance && index != best) {
+                tied = true;
             }
-            List<Direction> path = parent.getPath();
-            path.add(getDirection());
-            return path;
+        }
+
+        /**
+         * @return <code>true</code> iff no square was offered.
+         */
+        boolean isEmpty() {
+            return best < 0;
+        }
+
+        /**
+         * @return <code>true</code> iff no other square is as near as the
+         *         nearest one.
+         */
+        boolean isUnique() {
+            return !tied;
+        }
+
+        /**
+         * @return The index of the nearest square.
+         */
+        int getBest() {
+            return best;
         }
     }
 }
@@ -0,0 +1,401 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * Precomputed shortest distances and first steps between every pair of
+ * accessible squares of a {@link Board}. The walls of a board never change, so
+ * the tables are built once per board and answer every query in constant time,
+ * following the toroidal links made by the board factory.
+ *
+ * <p>
+ * The first step towards a target is the first direction, in the order of
+ * {@link Direction#values()}, that starts a shortest path. This is the same
+ * step the breadth first search in {@link Navigation#shortestPath} yields.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public final class NavigationOracle {
+
+    /**
+     * The largest number of accessible squares for which the tables are
+     * built. The tables grow quadratically, at this size they take 12 MB.
+     */
+    static final int MAX_SQUARES = 2048;
+
+    /**
+     * The distance stored for unreachable pairs.
+     */
+    private static final short UNREACHABLE = -1;
+
+    /**
+     * The first step stored when there is no step to take.
+     */
+    private static final byte NO_STEP = -1;
+
+    /**
+     * All directions, in the order in which steps are tried.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The board index of every square, mapped to its slot in the tables or
+     * <code>-1</code> for inaccessible squares.
+     */
+    private final int[] slots;
+
+    /**
+     * The number of accessible squares.
+     */
+    private final int size;
+
+    /**
+     * The distance from slot <code>a</code> to slot <code>b</code> at
+     * <code>a * size + b</code>.
+     */
+    private final short[] distances;
+
+    /**
+     * The ordinal of the first direction on a shortest path from slot
+     * <code>a</code> to slot <code>b</code> at <code>a * size + b</code>.
+     */
+    private final byte[] firstSteps;
+
+    /**
+     * Creates a new oracle from its tables.
+     *
+     * @param slots
+     *            The slot of every board index.
+     * @param size
+     *            The number of accessible squares.
+     * @param distances
+     *            The distance table.
+     * @param firstSteps
+     *            The first step table.
+     */
+    private NavigationOracle(int[] slots, int size, short[] distances, byte[] firstSteps) {
+        this.slots = slots;
+        this.size = size;
+        this.distances = distances;
+        this.firstSteps = firstSteps;
+    }
+
+    /**
+     * Builds the tables for a board. Squares are considered accessible if the
+     * given traveller may occupy them; the tables therefore apply to every
+     * traveller with the same access rights, which holds for all units on the
+     * walls and grounds of the {@link nl.tudelft.jpacman.board.BoardFactory}.
+     *
+     * @param board
+     *            The board to build the tables for.
+     * @param traveller
+     *            The unit whose access rights decide which squares are
+     *            accessible.
+     * @return The oracle for the board, or <code>null</code> if the board has
+     *         more than {@link #MAX_SQUARES} accessible squares.
+     */
+    static NavigationOracle build(Board board, Unit traveller) {
+        int count = board.getSquareCount();
+        int[] slots = new int[count];
+        int[] indices = new int[count];
+        int size = 0;
+        for (int index = 0; index < count; index++) {
+            if (board.squareAt(index).isAccessibleTo(traveller)) {
+                if (size == MAX_SQUARES) {
+                    return null;
+                }
+                slots[index] = size;
+                indices[size] = index;
+                size++;
+            } else {
+                slots[index] = -1;
+            }
+        }
+
+        int[] neighbours = new int[size * DIRECTIONS.length];
+        for (int slot = 0; slot < size; slot++) {
+            Square square = board.squareAt(indices[slot]);
+            for (Direction direction : DIRECTIONS) {
+                Square neighbour = square.getSquareAt(direction);
+                neighbours[slot * DIRECTIONS.length + direction.ordinal()] =
+                    neighbour == null ? -1 : slots[neighbour.getIndex()];
+            }
+        }
+
+        return build(slots, size, neighbours);
+    }
+
+    /**
+     * Builds the tables for a toroidal grid laid out like the boards of the
+     * {@link nl.tudelft.jpacman.board.BoardFactory}, without creating the
+     * board first.
+     *
+     * @param width
+     *            The width of the grid.
+     * @param height
+     *            The height of the grid.
+     * @param open
+     *            Whether every square is accessible, by board index.
+     * @return The oracle for the grid, or <code>null</code> if it has more
+     *         than {@link #MAX_SQUARES} accessible squares.
+     */
+    public static NavigationOracle build(int width, int height, boolean[] open) {
+        assert open.length == width * height;
+        int[] slots = slotsOf(open);
+        if (slots == null) {
+            return null;
+        }
+        int size = 0;
+        int[] indices = new int[open.length];
+        for (int index = 0; index < open.length; index++) {
+            if (slots[index] >= 0) {
+                indices[size++] = index;
+            }
+        }
+
+        int[] neighbours = new int[size * DIRECTIONS.length];
+        for (int slot = 0; slot < size; slot++) {
+            int x = indices[slot] % width;
+            int y = indices[slot] / width;
+            for (Direction direction : DIRECTIONS) {
+                int neighbourX = (width + x + direction.getDeltaX()) % width;
+                int neighbourY = (height + y + direction.getDeltaY()) % height;
+                neighbours[slot * DIRECTIONS.length + direction.ordinal()] =
+                    slots[neighbourY * width + neighbourX];
+            }
+        }
+        return build(slots, size, neighbours);
+    }
+
+    /**
+     * Assigns a slot in the tables to every accessible square.
+     *
+     * @param open
+     *            Whether every square is accessible, by board index.
+     * @return The slot of every board index, <code>-1</code> for inaccessible
+     *         squares, or <code>null</code> if there are more than
+     *         {@link #MAX_SQUARES} accessible squares.
+     */
+    private static int[] slotsOf(boolean[] open) {
+        int[] slots = new int[open.length];
+        int size = 0;
+        for (int index = 0; index < open.length; index++) {
+            if (open[index]) {
+                if (size == MAX_SQUARES) {
+                    return null;
+                }
+                slots[index] = size++;
+            } else {
+                slots[index] = -1;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Fills the tables from the links between accessible squares.
+     *
+     * @param slots
+     *            The slot of every board index.
+     * @param size
+     *            The number of accessible squares.
+     * @param neighbours
+     *            The slot of the neighbour of every slot in every direction,
+     *            or <code>-1</code> if it is inaccessible.
+     * @return The oracle.
+     */
+    private static NavigationOracle build(int[] slots, int size, int[] neighbours) {
+        short[] distances = new short[size * size];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[size];
+        for (int target = 0; target < size; target++) {
+            fillDistancesTo(target, size, neighbours, distances, queue);
+        }
+
+        byte[] firstSteps = new byte[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                firstSteps[from * size + to] =
+                    firstStep(from, to, size, neighbours, distances);
+            }
+        }
+        return new NavigationOracle(slots, size, distances, firstSteps);
+    }
+
+    /**
+     * Writes the tables of this oracle. Which squares are accessible is not
+     * written, it must be passed to {@link #read(ByteBuffer, boolean[])}.
+     *
+     * @param out
+     *            The output to write to.
+     * @throws IOException
+     *             when the output could not be written.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (short distance : distances) {
+            out.writeShort(distance);
+        }
+        out.write(firstSteps);
+    }
+
+    /**
+     * Reads tables written by {@link #write(DataOutput)}.
+     *
+     * @param in
+     *            The buffer to read from, positioned at the tables.
+     * @param open
+     *            Whether every square is accessible, by board index, as when
+     *            the tables were built.
+     * @return The oracle.
+     * @throws PacmanConfigurationException
+     *             when the tables do not match the accessible squares.
+     */
+    public static NavigationOracle read(ByteBuffer in, boolean[] open) {
+        int[] slots = slotsOf(open);
+        int size = in.getInt();
+        if (slots == null || size != count(open)) {
+            throw new PacmanConfigurationException(
+                "Navigation tables do not match the board.");
+        }
+        short[] distances = new short[size * size];
+        in.asShortBuffer().get(distances);
+        in.position(in.position() + distances.length * Short.BYTES);
+        byte[] firstSteps = new byte[size * size];
+        in.get(firstSteps);
+        return new NavigationOracle(slots, size, distances, firstSteps);
+    }
+
+    /**
+     * @param open
+     *            Whether every square is accessible, by board index.
+     * @return The number of accessible squares.
+     */
+    private static int count(boolean[] open) {
+        int count = 0;
+        for (boolean accessible : open) {
+            if (accessible) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs a breadth first search from the target, recording the distance of
+     * every slot to it.
+     *
+     * @param target
+     *            The slot to search from.
+     * @param size
+     *            The number of slots.
+     * @param neighbours
+     *            The neighbour table.
+     * @param distances
+     *            The distance table to fill in.
+     * @param queue
+     *            A scratch queue of at least <code>size</code> entries.
+     */
+    private static void fillDistancesTo(int target, int size, int[] neighbours,
+                                        short[] distances, int[] queue) {
+        int head = 0;
+        int tail = 0;
+        distances[target * size + target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int slot = queue[head++];
+            short next = (short) (distances[slot * size + target] + 1);
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int neighbour = neighbours[slot * DIRECTIONS.length + d];
+                if (neighbour >= 0 && distances[neighbour * size + target] == UNREACHABLE) {
+                    distances[neighbour * size + target] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the first step on a shortest path between two slots.
+     *
+     * @return The ordinal of the direction, or {@link #NO_STEP}.
+     */
+    private static byte firstStep(int from, int to, int size, int[] neighbours,
+                                  short[] distances) {
+        short distance = distances[from * size + to];
+        if (distance <= 0) {
+            return NO_STEP;
+        }
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int neighbour = neighbours[from * DIRECTIONS.length + d];
+            if (neighbour >= 0 && distances[neighbour * size + to] == distance - 1) {
+                return (byte) d;
+            }
+        }
+        return NO_STEP;
+    }
+
+    /**
+     * Determines whether the square is one of the accessible squares covered
+     * by this oracle.
+     *
+     * @param square
+     *            The square to test.
+     * @return <code>true</code> iff this oracle knows the distances from and
+     *         to the square.
+     */
+    boolean covers(Square square) {
+        int index = square.getIndex();
+        return index >= 0 && index < slots.length && slots[index] >= 0;
+    }
+
+    /**
+     * Returns the length of the shortest path between two squares.
+     *
+     * @param from
+     *            The starting square, which must be covered by this oracle.
+     * @param to
+     *            The destination.
+     * @return The number of steps on the shortest path, or <code>-1</code> if
+     *         the destination cannot be reached.
+     */
+    public int distance(Square from, Square to) {
+        assert covers(from);
+        if (!covers(to)) {
+            return -1;
+        }
+        return distances[slots[from.getIndex()] * size + slots[to.getIndex()]];
+    }
+
+    /**
+     * Returns the first step on the shortest path between two squares.
+     *
+     * @param from
+     *            The starting square, which must be covered by this oracle.
+     * @param to
+     *            The destination.
+     * @return The direction to move in, or <code>null</code> if the
+     *         destination is the starting square or cannot be reached.
+     */
+    public Direction firstStep(Square from, Square to) {
+        assert covers(from);
+        if (!covers(to)) {
+            return null;
+        }
+        byte step = firstSteps[slots[from.getIndex()] * size + slots[to.getIndex()]];
+        if (step == NO_STEP) {
+            return null;
+        }
+        return DIRECTIONS[step];
+    }
+}
@@ -2,7 +2,6 @@ package nl.tudelft.jpacman.npc.ghost;
 
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
-import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.sprite.Sprite;
@@ -12,7 +11,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
-import java.util.Random;
 /**
  * <p>
  * An implementation of the classic Pac-Man ghost Speedy.
@@ -52,7 +50,7 @@ import java.util.Random;
  */
 public class Pinky extends Ghost {
 
-    private static final int SQUARES_AHEAD = 4;
+    static final int SQUARES_AHEAD = 4;
 
     /**
      * The variation in intervals, this makes the ghosts look more dynamic and
@@ -93,18 +91,13 @@ public class Pinky extends Ghost {
     public Optional<Direction> nextAiMove() {
         assert hasSquare();
 
-        Unit player = Navigation.findNearest(Player.class, getSquare());
+        Player player = Navigation.nearestPlayer(getSquare(), this);
         if (player == null) {
             return Optional.empty();
         }
         assert player.hasSquare();
-        Square destination = player.squaresAheadOf(SQUARES_AHEAD);
-
-        List<Direction> path = Navigation.shortestPath(getSquare(), destination, this);
-        if (path != null && !path.isEmpty()) {
-            return Optional.ofNullable(path.get(0));
-        }
-        return Optional.empty();
+        return Optional.ofNullable(GhostKind.PINKY.chase(getSquare(), player.getSquare(),
+            player.getDirection(), null, Navigation.distanceField(player, this), this));
     }
 
     /**
@@ -125,7 +118,7 @@ public class Pinky extends Ghost {
         if (directions.isEmpty()) {
             return null;
         }
-        int i = new Random().nextInt(directions.size());
+        int i = getRandom().nextInt(directions.size());
         return directions.get(i);
     }
 }
@@ -0,0 +1,215 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Direction;
+
+/**
+ * Reusable state of a breadth first search over the square indices of a
+ * board. Every thread keeps its own buffers, so a search allocates nothing
+ * but its result. Visited squares are marked with the number of the current
+ * search, so the marks never need clearing.
+ *
+ * <p>
+ * Buffers for boards of up to {@link #RETAINED_SQUARES} squares are kept for
+ * the lifetime of the thread. Buffers for larger boards are only softly
+ * referenced, so the few hundred megabytes that the largest boards take are
+ * given back when memory runs low, instead of staying pinned to every thread
+ * that once searched such a board.
+ * </p>
+ *
+ * <p>
+ * The buffers are shared by the searches of {@link Navigation} and by those
+ * of simulations that keep their own square links, so a thread must finish a
+ * search before starting the next one.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public final class SearchBuffers {
+
+    /**
+     * All directions, by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The number of squares up to which the buffers of a thread are kept
+     * for as long as the thread lives, about 850 kilobytes.
+     */
+    private static final int RETAINED_SQUARES = 1 << 16;
+
+    /**
+     * The buffers of every thread, for boards of up to
+     * {@link #RETAINED_SQUARES} squares.
+     */
+    private static final ThreadLocal<SearchBuffers> BUFFERS =
+        ThreadLocal.withInitial(SearchBuffers::new);
+
+    /**
+     * The buffers of every thread for larger boards, if they were not
+     * reclaimed since.
+     */
+    private static final ThreadLocal<SoftReference<SearchBuffers>> LARGE_BUFFERS =
+        new ThreadLocal<>();
+
+    /**
+     * The squares to visit, between {@link #head} and {@link #tail}.
+     */
+    private int[] queue = new int[0];
+
+    /**
+     * The search that last visited each square.
+     */
+    private int[] marks = new int[0];
+
+    /**
+     * The square each square was reached from, for the current search.
+     */
+    private int[] parents = new int[0];
+
+    /**
+     * The ordinal of the direction each square was reached by, for the
+     * current search.
+     */
+    private byte[] steps = new byte[0];
+
+    /**
+     * The number of the current search.
+     */
+    private int epoch;
+
+    /**
+     * The position of the next square to visit in the queue.
+     */
+    private int head;
+
+    /**
+     * The position after the last square in the queue.
+     */
+    private int tail;
+
+    /**
+     * Returns the buffers of the current thread, prepared for a new
+     * search.
+     *
+     * @param size
+     *            The number of squares on the board to search.
+     * @return The prepared buffers.
+     */
+    public static SearchBuffers get(int size) {
+        SearchBuffers buffers;
+        if (size <= RETAINED_SQUARES) {
+            buffers = BUFFERS.get();
+        } else {
+            SoftReference<SearchBuffers> reference = LARGE_BUFFERS.get();
+            buffers = reference == null ? null : reference.get();
+            if (buffers == null) {
+                buffers = new SearchBuffers();
+                LARGE_BUFFERS.set(new SoftReference<>(buffers));
+            }
+        }
+        buffers.prepare(size);
+        return buffers;
+    }
+
+    /**
+     * Prepares the buffers for a new search.
+     *
+     * @param size
+     *            The number of squares on the board to search.
+     */
+    private void prepare(int size) {
+        if (marks.length < size) {
+            queue = new int[size];
+            marks = new int[size];
+            parents = new int[size];
+            steps = new byte[size];
+            epoch = 0;
+        }
+        epoch++;
+        if (epoch == 0) {
+            Arrays.fill(marks, 0);
+            epoch = 1;
+        }
+        head = 0;
+        tail = 0;
+    }
+
+    /**
+     * @param index
+     *            The square to test.
+     * @return <code>true</code> iff the square was queued in this search.
+     */
+    public boolean isVisited(int index) {
+        return marks[index] == epoch;
+    }
+
+    /**
+     * Marks a square as visited and queues it.
+     *
+     * @param index
+     *            The square to queue.
+     * @param parent
+     *            The square it was reached from, or <code>-1</code>.
+     * @param step
+     *            The ordinal of the direction it was reached by, or
+     *            <code>-1</code>.
+     */
+    public void enqueue(int index, int parent, int step) {
+        marks[index] = epoch;
+        parents[index] = parent;
+        steps[index] = (byte) step;
+        queue[tail++] = index;
+    }
+
+    /**
+     * Marks a square as visited and queues it, without keeping track of the
+     * way it was reached.
+     *
+     * @param index
+     *            The square to queue.
+     */
+    public void visit(int index) {
+        enqueue(index, -1, -1);
+    }
+
+    /**
+     * @return <code>true</code> iff there are squares left to visit.
+     */
+    public boolean hasNext() {
+        return head < tail;
+    }
+
+    /**
+     * @return The next square to visit.
+     */
+    public int next() {
+        return queue[head++];
+    }
+
+    /**
+     * Returns the directions leading from the start of the search to the
+     * given square.
+     *
+     * @param index
+     *            The square that was reached.
+     * @return The list of directions from the start to the square.
+     */
+    List<Direction> pathTo(int index) {
+        int length = 0;
+        for (int current = index; parents[current] >= 0; current = parents[current]) {
+            length++;
+        }
+        Direction[] path = new Direction[length];
+        int current = index;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = DIRECTIONS[steps[current]];
+            current = parents[current];
+        }
+        return new ArrayList<>(Arrays.asList(path));
+    }
+}
@@ -107,6 +107,20 @@ public class AnimatedSprite implements Sprite {
         this.animating = isAnimating;
     }
 
+    /**
+     * @return <code>true</code> iff this sprite is currently animating.
+     */
+    public boolean isAnimating() {
+        return animating;
+    }
+
+    /**
+     * @return <code>true</code> iff this animation starts over once it ends.
+     */
+    public boolean isLooping() {
+        return looping;
+    }
+
     /**
      * (Re)starts the current animation.
      */
@@ -1,11 +1,15 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.Transparency;
 import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Basic implementation of a Sprite, it merely consists of a static image.
@@ -14,11 +18,26 @@ import java.awt.image.BufferedImage;
  */
 public class ImageSprite implements Sprite {
 
+    /**
+     * The number of scaled images kept per sprite. All squares of a board
+     * are drawn at the same size, so this only needs to cover the few
+     * devices and sizes in use at once, e.g. the window and an offscreen
+     * renderer.
+     */
+    private static final int SCALED_SIZES = 4;
+
     /**
      * Internal image.
      */
     private final Image image;
 
+    /**
+     * The image scaled to the most recently drawn sizes, by size and device.
+     * The least recently used size is dropped first, e.g. after the window
+     * was resized.
+     */
+    private final Map<ScaleKey, BufferedImage> scaled;
+
     /**
      * Creates a new sprite from an image.
      *
@@ -27,12 +46,61 @@ public class ImageSprite implements Sprite {
      */
     public ImageSprite(Image img) {
         this.image = img;
+        this.scaled = new LinkedHashMap<ScaleKey, BufferedImage>(SCALED_SIZES * 2, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ScaleKey, BufferedImage> eldest) {
+                return size() > SCALED_SIZES;
+            }
+        };
     }
 
     @Override
     public void draw(Graphics graphics, int x, int y, int width, int height) {
-        graphics.drawImage(image, x, y, x + width, y + height, 0, 0,
+        if (!(graphics instanceof Graphics2D) || width <= 0 || height <= 0) {
+            graphics.drawImage(image, x, y, x + width, y + height, 0, 0,
+                image.getWidth(null), image.getHeight(null), null);
+            return;
+        }
+        GraphicsConfiguration gc = ((Graphics2D) graphics).getDeviceConfiguration();
+        ScaleKey key = new ScaleKey(width, height, gc);
+        BufferedImage current;
+        synchronized (scaled) {
+            current = scaled.get(key);
+        }
+        if (current == null) {
+            current = scale(width, height, gc);
+            synchronized (scaled) {
+                scaled.put(key, current);
+            }
+        }
+        graphics.drawImage(current, x, y, null);
+    }
+
+    /**
+     * Scales the image to the given size, as an image compatible with the
+     * device that is drawn on.
+     *
+     * @param width
+     *            The width to scale to.
+     * @param height
+     *            The height to scale to.
+     * @param gc
+     *            The configuration of the device that is drawn on.
+     * @return The scaled image.
+     */
+    private BufferedImage scale(int width, int height, GraphicsConfiguration gc) {
+        int transparency = Transparency.TRANSLUCENT;
+        if (image instanceof BufferedImage) {
+            transparency = ((BufferedImage) image).getTransparency();
+        }
+        BufferedImage result = gc.createCompatibleImage(width, height, transparency);
+        Graphics graphics = result.createGraphics();
+        graphics.drawImage(image, 0, 0, width, height, 0, 0,
             image.getWidth(null), image.getHeight(null), null);
+        graphics.dispose();
+        return result;
     }
 
     @Override
@@ -53,7 +121,8 @@ public class ImageSprite implements Sprite {
 
     /**
      * Creates a new, empty image of the given width and height. Its
-     * transparency will be a bitmask, so no try ARGB image.
+     * transparency will be a bitmask, so no try ARGB image. Without a screen,
+     * e.g. when running headless, a plain ARGB image is used instead.
      *
      * @param width
      *            The width of the new image.
@@ -62,6 +131,9 @@ public class ImageSprite implements Sprite {
      * @return The new, empty image.
      */
     private BufferedImage newImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
         GraphicsConfiguration gc = GraphicsEnvironment
             .getLocalGraphicsEnvironment().getDefaultScreenDevice()
             .getDefaultConfiguration();
@@ -78,4 +150,57 @@ public class ImageSprite implements Sprite {
         return image.getHeight(null);
     }
 
+    /**
+     * The size and the device an image was scaled for.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class ScaleKey {
+
+        /**
+         * The width of the scaled image.
+         */
+        private final int width;
+
+        /**
+         * The height of the scaled image.
+         */
+        private final int height;
+
+        /**
+         * The configuration of the device the image was made for.
+         */
+        private final GraphicsConfiguration configuration;
+
+        /**
+         * Creates a new key.
+         *
+         * @param width
+         *            The width of the scaled image.
+         * @param height
+         *            The height of the scaled image.
+         * @param configuration
+         *            The configuration of the device the image was made for.
+         */
+        ScaleKey(int width, int height, GraphicsConfiguration configuration) {
+            this.width = width;
+            this.height = height;
+            this.configuration = configuration;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ScaleKey)) {
+                return false;
+            }
+            ScaleKey key = (ScaleKey) other;
+            return width == key.width && height == key.height
+                && configuration.equals(key.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(width, height, configuration);
+        }
+    }
 }
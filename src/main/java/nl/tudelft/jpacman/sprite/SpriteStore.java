@@ -5,8 +5,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.imageio.ImageIO;
 
@@ -19,7 +19,7 @@ public class SpriteStore {
 
     /**
      * We only need to load images once, so we keep track
-     * of them in a hash map.
+     * of them in a hash map, which may be shared by concurrent games.
      */
     private final Map<String, Sprite> spriteMap;
 
@@ -27,7 +27,7 @@ public class SpriteStore {
      * Create a new sprite store.
      */
     public SpriteStore() {
-        spriteMap = new HashMap<>();
+        spriteMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -44,8 +44,11 @@ public class SpriteStore {
     public Sprite loadSprite(String resource) throws IOException {
         Sprite result = spriteMap.get(resource);
         if (result == null) {
-            result = loadSpriteFromResource(resource);
-            spriteMap.put(resource, result);
+            Sprite loaded = loadSpriteFromResource(resource);
+            result = spriteMap.putIfAbsent(resource, loaded);
+            if (result == null) {
+                result = loaded;
+            }
         }
         return result;
     }
@@ -3,6 +3,9 @@ package nl.tudelft.jpacman.ui;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+import java.util.function.Consumer;
 
 import javax.swing.JPanel;
 
@@ -10,10 +13,20 @@ import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.Level.LevelObserver;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.Sprite;
 
 /**
  * Panel displaying a game.
  *
+ * <p>
+ * The walls and floors of a board never change, so they are drawn once into a
+ * background image for the current size of the panel. Every frame only
+ * redraws the squares whose occupants changed since the previous frame, as
+ * reported by the level, together with the squares showing an animation.
+ * </p>
+ *
  * @author Jeroen Roosen 
  *
  */
@@ -40,6 +53,51 @@ class BoardPanel extends JPanel {
      */
     private final Game game;
 
+    /**
+     * The squares, by board index, that need to be redrawn in the next frame.
+     */
+    private final BitSet dirty;
+
+    /**
+     * The squares, by board index, that showed an animation in the last frame.
+     */
+    private final BitSet animated;
+
+    /**
+     * The walls and floors of the board, drawn at the size of {@link #frame}.
+     */
+    private transient BufferedImage background;
+
+    /**
+     * The last frame drawn, or <code>null</code> if none was drawn at the
+     * current size of this panel.
+     */
+    private transient BufferedImage frame;
+
+    /**
+     * Whether the last frame showed an animation, which keeps changing while
+     * the game is in progress.
+     */
+    private volatile boolean animating;
+
+    /**
+     * Whether the last frame showed an animation that has not come to its
+     * end yet, e.g. a dying Pac-Man, which keeps changing even when the game
+     * is stopped.
+     */
+    private volatile boolean finishing;
+
+    /**
+     * Whether a square drawn so far in the current frame shows an animation
+     * that has not come to its end yet.
+     */
+    private boolean playing;
+
+    /**
+     * Draws the occupants of a square, reused for every square drawn.
+     */
+    private final transient OccupantPainter painter = new OccupantPainter();
+
     /**
      * Creates a new board panel that will display the provided game.
      *
@@ -52,6 +110,9 @@ class BoardPanel extends JPanel {
         this.game = game;
 
         Board board = game.getLevel().getBoard();
+        this.dirty = new BitSet(board.getSquareCount());
+        this.animated = new BitSet(board.getSquareCount());
+        game.getLevel().addObserver(new MoveListener());
 
         int w = board.getWidth() * SQUARE_SIZE;
         int h = board.getHeight() * SQUARE_SIZE;
@@ -64,23 +125,112 @@ class BoardPanel extends JPanel {
     @Override
     public void paint(Graphics g) {
         assert g != null;
-        render(game.getLevel().getBoard(), g, getSize());
+        Dimension window = getSize();
+        if (window.width <= 0 || window.height <= 0) {
+            return;
+        }
+        render(game.getLevel().getBoard(), window);
+        g.drawImage(frame, 0, 0, null);
+    }
+
+    /**
+     * Tells whether the next frame would differ from the last one, i.e.
+     * whether a unit moved or changed since, or an animation is playing.
+     * Looping animations only play while the game is in progress, others
+     * play until they end. This may be asked on any thread.
+     *
+     * @return <code>true</code> iff the panel needs to be painted again.
+     */
+    boolean needsFrame() {
+        synchronized (dirty) {
+            if (!dirty.isEmpty()) {
+                return true;
+            }
+        }
+        return animating && (finishing || game.isInProgress());
     }
 
     /**
-     * Renders the board on the given graphics context to the given dimensions.
+     * Marks a square to be redrawn in the next frame.
+     *
+     * @param square
+     *            The square whose occupants changed.
+     */
+    private void invalidate(Square square) {
+        int index = square.getIndex();
+        if (index >= 0) {
+            synchronized (dirty) {
+                dirty.set(index);
+            }
+        }
+    }
+
+    /**
+     * Brings the frame up to date with the board, redrawing everything if
+     * the size of the panel changed and only the changed squares otherwise.
      *
      * @param board
      *            The board to render.
-     * @param graphics
-     *            The graphics context to draw on.
      * @param window
      *            The dimensions to scale the rendered board to.
      */
-    private void render(Board board, Graphics graphics, Dimension window) {
+    private void render(Board board, Dimension window) {
         int cellW = window.width / board.getWidth();
         int cellH = window.height / board.getHeight();
 
+        BitSet todo;
+        if (frame == null || frame.getWidth() != window.width
+            || frame.getHeight() != window.height) {
+            background = renderBackground(board, window, cellW, cellH);
+            frame = new BufferedImage(window.width, window.height, BufferedImage.TYPE_INT_RGB);
+            synchronized (dirty) {
+                dirty.clear();
+            }
+            todo = new BitSet(board.getSquareCount());
+            todo.set(0, board.getSquareCount());
+        } else {
+            synchronized (dirty) {
+                todo = (BitSet) dirty.clone();
+                dirty.clear();
+            }
+            todo.or(animated);
+        }
+
+        Graphics graphics = frame.createGraphics();
+        animated.clear();
+        playing = false;
+        for (int i = todo.nextSetBit(0); i >= 0; i = todo.nextSetBit(i + 1)) {
+            Square square = board.squareAt(i);
+            int cellX = (i % board.getWidth()) * cellW;
+            int cellY = (i / board.getWidth()) * cellH;
+            graphics.drawImage(background, cellX, cellY, cellX + cellW, cellY + cellH,
+                cellX, cellY, cellX + cellW, cellY + cellH, null);
+            if (renderOccupants(square, graphics, cellX, cellY, cellW, cellH)) {
+                animated.set(i);
+            }
+        }
+        graphics.dispose();
+        animating = !animated.isEmpty();
+        finishing = playing;
+    }
+
+    /**
+     * Renders the squares of the board without their occupants.
+     *
+     * @param board
+     *            The board to render.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     * @param cellW
+     *            The width of a square (in pixels.)
+     * @param cellH
+     *            The height of a square (in pixels.)
+     * @return The image of the squares.
+     */
+    private BufferedImage renderBackground(Board board, Dimension window, int cellW, int cellH) {
+        BufferedImage image = new BufferedImage(window.width, window.height,
+            BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.createGraphics();
         graphics.setColor(BACKGROUND_COLOR);
         graphics.fillRect(0, 0, window.width, window.height);
 
@@ -88,15 +238,16 @@ class BoardPanel extends JPanel {
             for (int x = 0; x < board.getWidth(); x++) {
                 int cellX = x * cellW;
                 int cellY = y * cellH;
-                Square square = board.squareAt(x, y);
-                render(square, graphics, cellX, cellY, cellW, cellH);
+                board.squareAt(x, y).getSprite().draw(graphics, cellX, cellY, cellW, cellH);
             }
         }
+        graphics.dispose();
+        return image;
     }
 
     /**
-     * Renders a single square on the given graphics context on the specified
-     * rectangle.
+     * Renders the occupants of a single square on the given graphics context
+     * on the specified rectangle.
      *
      * @param square
      *            The square to render.
@@ -110,11 +261,131 @@ class BoardPanel extends JPanel {
      *            The width of this square (in pixels.)
      * @param height
      *            The height of this square (in pixels.)
+     * @return <code>true</code> iff the square shows an animation, and needs
+     *         to be drawn again in the next frame.
+     */
+    private boolean renderOccupants(Square square, Graphics graphics, int x, int y,
+                                    int width, int height) {
+        boolean animation = square.getSprite() instanceof AnimatedSprite;
+        if (animation) {
+            square.getSprite().draw(graphics, x, y, width, height);
+            playing |= isPlaying(square.getSprite());
+        }
+        painter.moveTo(graphics, x, y, width, height);
+        square.forEachOccupant(painter);
+        return animation || painter.animation;
+    }
+
+    /**
+     * @param sprite
+     *            The sprite that was drawn.
+     * @return <code>true</code> iff the sprite is an animation that has not
+     *         come to its end yet.
+     */
+    private static boolean isPlaying(Sprite sprite) {
+        if (!(sprite instanceof AnimatedSprite)) {
+            return false;
+        }
+        AnimatedSprite animation = (AnimatedSprite) sprite;
+        return animation.isAnimating() && !animation.isLooping();
+    }
+
+    /**
+     * Draws occupants on the rectangle of the square being drawn, keeping
+     * track of the animations among them.
+     *
+     * @author Jeroen Roosen
      */
-    private void render(Square square, Graphics graphics, int x, int y, int width, int height) {
-        square.getSprite().draw(graphics, x, y, width, height);
-        for (Unit unit : square.getOccupants()) {
-            unit.getSprite().draw(graphics, x, y, width, height);
+    private final class OccupantPainter implements Consumer<Unit> {
+
+        /**
+         * The graphics context to draw on.
+         */
+        private Graphics graphics;
+
+        /**
+         * The x position to start drawing.
+         */
+        private int x;
+
+        /**
+         * The y position to start drawing.
+         */
+        private int y;
+
+        /**
+         * The width of the square (in pixels.)
+         */
+        private int width;
+
+        /**
+         * The height of the square (in pixels.)
+         */
+        private int height;
+
+        /**
+         * Whether an occupant of the square shows an animation.
+         */
+        private boolean animation;
+
+        /**
+         * Starts drawing the occupants of another square.
+         *
+         * @param graphics
+         *            The graphics context to draw on.
+         * @param x
+         *            The x position to start drawing.
+         * @param y
+         *            The y position to start drawing.
+         * @param width
+         *            The width of the square (in pixels.)
+         * @param height
+         *            The height of the square (in pixels.)
+         */
+        void moveTo(Graphics graphics, int x, int y, int width, int height) {
+            this.graphics = graphics;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.animation = false;
+        }
+
+        @Override
+        public void accept(Unit occupant) {
+            Sprite sprite = occupant.getSprite();
+            sprite.draw(graphics, x, y, width, height);
+            animation |= sprite instanceof AnimatedSprite;
+            playing |= isPlaying(sprite);
+        }
+    }
+
+    /**
+     * Marks the squares involved in every move or change to be redrawn.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class MoveListener implements LevelObserver {
+
+        @Override
+        public void levelWon() {
+            // the frame shows the board as it is
+        }
+
+        @Override
+        public void levelLost() {
+            // the frame shows the board as it is
+        }
+
+        @Override
+        public void unitMoved(Unit unit, Square from, Square to) {
+            invalidate(from);
+            invalidate(to);
+        }
+
+        @Override
+        public void unitChanged(Unit unit, Square square) {
+            invalidate(square);
         }
     }
 }
@@ -0,0 +1,222 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * Draws boards and their units off screen, for thumbnails and video frames of
+ * games that are not displayed. Nothing here needs a screen, so it also works
+ * on headless machines.
+ *
+ * <p>
+ * The board is split into square tiles of squares. Every tile is drawn into
+ * an image of its own and then copied into the ARGB raster of the frame, so
+ * tiles can be drawn on several threads without sharing a graphics context.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public class BoardRenderer {
+
+    /**
+     * The background colour of the board.
+     */
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+
+    /**
+     * The size (in pixels) of a square.
+     */
+    private final int squareSize;
+
+    /**
+     * The number of squares along the side of a tile.
+     */
+    private final int tileSquares;
+
+    /**
+     * Whether tiles are drawn on the threads of the common pool.
+     */
+    private final boolean parallel;
+
+    /**
+     * The image every thread draws its tiles into.
+     */
+    private final ThreadLocal<BufferedImage> tiles;
+
+    /**
+     * Creates a new renderer.
+     *
+     * @param squareSize
+     *            The size (in pixels) of a square.
+     * @param tileSquares
+     *            The number of squares along the side of a tile.
+     * @param parallel
+     *            Whether to draw tiles on the threads of the common pool.
+     */
+    public BoardRenderer(int squareSize, int tileSquares, boolean parallel) {
+        assert squareSize > 0;
+        assert tileSquares > 0;
+
+        this.squareSize = squareSize;
+        this.tileSquares = tileSquares;
+        this.parallel = parallel;
+        int tilePixels = squareSize * tileSquares;
+        this.tiles = ThreadLocal.withInitial(
+            () -> new BufferedImage(tilePixels, tilePixels, BufferedImage.TYPE_INT_ARGB));
+    }
+
+    /**
+     * @param board
+     *            The board to draw.
+     * @return The width (in pixels) of the frames of the board.
+     */
+    public int getFrameWidth(Board board) {
+        return board.getWidth() * squareSize;
+    }
+
+    /**
+     * @param board
+     *            The board to draw.
+     * @return The height (in pixels) of the frames of the board.
+     */
+    public int getFrameHeight(Board board) {
+        return board.getHeight() * squareSize;
+    }
+
+    /**
+     * Draws a board and its units into a new image.
+     *
+     * @param board
+     *            The board to draw.
+     * @return A new ARGB image of the board.
+     */
+    public BufferedImage render(Board board) {
+        BufferedImage image = new BufferedImage(getFrameWidth(board), getFrameHeight(board),
+            BufferedImage.TYPE_INT_ARGB);
+        render(board, ((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+        return image;
+    }
+
+    /**
+     * Draws a board and its units into an ARGB raster, one int per pixel, row
+     * by row.
+     *
+     * @param board
+     *            The board to draw.
+     * @param raster
+     *            The raster to draw into, holding at least
+     *            {@link #getFrameWidth(Board)} times
+     *            {@link #getFrameHeight(Board)} pixels.
+     */
+    public void render(Board board, int[] raster) {
+        assert raster.length >= getFrameWidth(board) * getFrameHeight(board);
+
+        int columns = (board.getWidth() + tileSquares - 1) / tileSquares;
+        int rows = (board.getHeight() + tileSquares - 1) / tileSquares;
+        IntStream tileIndices = IntStream.range(0, columns * rows);
+        if (parallel) {
+            tileIndices = tileIndices.parallel();
+        }
+        tileIndices.forEach(tile -> renderTile(board, raster,
+            tile % columns * tileSquares, tile / columns * tileSquares));
+    }
+
+    /**
+     * Draws a tile of a board and copies it into the raster of the frame.
+     *
+     * @param board
+     *            The board to draw.
+     * @param raster
+     *            The raster of the frame.
+     * @param fromX
+     *            The column of the top-left square of the tile.
+     * @param fromY
+     *            The row of the top-left square of the tile.
+     */
+    private void renderTile(Board board, int[] raster, int fromX, int fromY) {
+        int width = Math.min(tileSquares, board.getWidth() - fromX);
+        int height = Math.min(tileSquares, board.getHeight() - fromY);
+        BufferedImage tile = tiles.get();
+        Graphics graphics = tile.createGraphics();
+        graphics.setColor(BACKGROUND_COLOR);
+        graphics.fillRect(0, 0, width * squareSize, height * squareSize);
+        OccupantPainter painter = new OccupantPainter(graphics);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                renderSquare(board.squareAt(fromX + x, fromY + y), painter,
+                    x * squareSize, y * squareSize);
+            }
+        }
+        graphics.dispose();
+
+        int scanSize = getFrameWidth(board);
+        tile.getRGB(0, 0, width * squareSize, height * squareSize, raster,
+            fromY * squareSize * scanSize + fromX * squareSize, scanSize);
+    }
+
+    /**
+     * Draws a square and its occupants, oldest first.
+     *
+     * @param square
+     *            The square to draw.
+     * @param painter
+     *            The painter of the tile the square is on.
+     * @param x
+     *            The x position to start drawing.
+     * @param y
+     *            The y position to start drawing.
+     */
+    private void renderSquare(Square square, OccupantPainter painter, int x, int y) {
+        square.getSprite().draw(painter.graphics, x, y, squareSize, squareSize);
+        painter.x = x;
+        painter.y = y;
+        square.forEachOccupant(painter);
+    }
+
+    /**
+     * Draws occupants at the position of the square being drawn, reused for
+     * all squares of a tile.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class OccupantPainter implements Consumer<Unit> {
+
+        /**
+         * The graphics context of the tile.
+         */
+        private final Graphics graphics;
+
+        /**
+         * The x position to start drawing.
+         */
+        private int x;
+
+        /**
+         * The y position to start drawing.
+         */
+        private int y;
+
+        /**
+         * Creates a painter for a tile.
+         *
+         * @param graphics
+         *            The graphics context of the tile.
+         */
+        OccupantPainter(Graphics graphics) {
+            this.graphics = graphics;
+        }
+
+        @Override
+        public void accept(Unit occupant) {
+            occupant.getSprite().draw(graphics, x, y, squareSize, squareSize);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Writes frames to a numbered sequence of PNG files on a thread of its own.
+ * Frames wait in a queue of fixed capacity; when it is full, new frames are
+ * dropped rather than making the caller wait, so a simulation never slows
+ * down because of image I/O.
+ *
+ * @author Jeroen Roosen
+ */
+public class FrameExporter implements Closeable {
+
+    /**
+     * The time (in milliseconds) the writer waits for a frame before checking
+     * whether it was closed.
+     */
+    private static final long POLL_MILLIS = 100L;
+
+    /**
+     * The directory the files are written to.
+     */
+    private final Path directory;
+
+    /**
+     * The start of the name of every file.
+     */
+    private final String prefix;
+
+    /**
+     * The frames waiting to be written.
+     */
+    private final BlockingQueue<Frame> queue;
+
+    /**
+     * The number of frames accepted so far, which numbers the next frame.
+     */
+    private final AtomicLong accepted;
+
+    /**
+     * The number of frames dropped because the queue was full.
+     */
+    private final AtomicLong dropped;
+
+    /**
+     * The thread writing the files.
+     */
+    private final Thread writer;
+
+    /**
+     * Whether no more frames are accepted.
+     */
+    private volatile boolean closed;
+
+    /**
+     * The first error writing a file, or <code>null</code> if there was none.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Creates a new exporter and starts its writer.
+     *
+     * @param directory
+     *            The directory to write the files to, which must exist.
+     * @param prefix
+     *            The start of the name of every file, which is followed by
+     *            the number of the frame.
+     * @param capacity
+     *            The number of frames that may wait to be written.
+     */
+    public FrameExporter(Path directory, String prefix, int capacity) {
+        assert directory != null;
+        assert prefix != null;
+        assert capacity > 0;
+
+        this.directory = directory;
+        this.prefix = prefix;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.accepted = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.writer = new Thread(this::write, "jpacman-frame-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Hands a frame to the writer, unless too many frames are waiting. The
+     * frame must not be changed afterwards.
+     *
+     * @param image
+     *            The frame, e.g. as drawn by a {@link BoardRenderer}.
+     * @return <code>true</code> iff the frame will be written,
+     *         <code>false</code> if it was dropped.
+     */
+    public synchronized boolean offer(BufferedImage image) {
+        assert image != null;
+        if (closed) {
+            throw new IllegalStateException("The exporter is closed.");
+        }
+        if (!queue.offer(new Frame(accepted.get(), image))) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * @return The number of frames accepted so far.
+     */
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    /**
+     * @return The number of frames dropped because too many were waiting.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops accepting frames and waits until all accepted frames are written.
+     * When interrupted while waiting, the interrupt status of the thread is
+     * restored and the remaining frames are written in the background.
+     *
+     * @throws IOException
+     *             when a frame could not be written, or an
+     *             {@link InterruptedIOException} when interrupted while
+     *             waiting for the writer.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing the last frames.");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes frames until the exporter is closed and no frames are waiting.
+     * Once a frame could not be written, the remaining ones are discarded.
+     */
+    private void write() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Frame frame = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (frame != null && failure == null) {
+                    writeFrame(frame);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a single frame.
+     *
+     * @param frame
+     *            The frame to write.
+     */
+    private void writeFrame(Frame frame) {
+        Path file = directory.resolve(String.format("%s%06d.png", prefix, frame.number));
+        try {
+            if (!ImageIO.write(frame.image, "png", file.toFile())) {
+                failure = new IOException("No PNG writer available for " + file);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * A frame waiting to be written.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Frame {
+
+        /**
+         * The number of the frame.
+         */
+        private final long number;
+
+        /**
+         * The image of the frame.
+         */
+        private final BufferedImage image;
+
+        /**
+         * Creates a new frame.
+         *
+         * @param number
+         *            The number of the frame.
+         * @param image
+         *            The image of the frame.
+         */
+        Frame(long number, BufferedImage image) {
+            this.number = number;
+            this.image = image;
+        }
+    }
+}
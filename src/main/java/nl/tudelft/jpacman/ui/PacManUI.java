@@ -3,9 +3,6 @@ package nl.tudelft.jpacman.ui;
 import java.awt.BorderLayout;
 import java.awt.Container;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
@@ -37,7 +34,8 @@ public class PacManUI extends JFrame {
 
     /**
      * The desired frame rate interval for the graphics in milliseconds, 40
-     * being 25 fps.
+     * being 25 fps. Frames are only drawn when the game changed, and at most
+     * one per interval.
      */
     private static final int FRAME_INTERVAL = 40;
 
@@ -51,6 +49,11 @@ public class PacManUI extends JFrame {
      */
     private final BoardPanel boardPanel;
 
+    /**
+     * The loop drawing the frames.
+     */
+    private final transient RenderLoop renderLoop;
+
     /**
      * Creates a new UI for a JPacman game.
      *
@@ -94,23 +97,44 @@ public class PacManUI extends JFrame {
         contentPanel.add(boardPanel, BorderLayout.CENTER);
 
         pack();
+
+        renderLoop = new RenderLoop(FRAME_INTERVAL,
+            () -> boardPanel.needsFrame() || scorePanel.needsRefresh(), this::nextFrame);
     }
 
     /**
-     * Starts the "engine", the thread that redraws the interface at set
-     * intervals.
+     * Starts the "engine", the thread that redraws the interface whenever
+     * the game changed.
      */
     public void start() {
         setVisible(true);
-        ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
-        service.scheduleAtFixedRate(this::nextFrame, 0, FRAME_INTERVAL, TimeUnit.MILLISECONDS);
+        renderLoop.start();
+    }
+
+    /**
+     * @return The loop drawing the frames, e.g. for its frame times.
+     */
+    public RenderLoop getRenderLoop() {
+        return renderLoop;
+    }
+
+    /**
+     * Stops drawing frames before releasing the window.
+     */
+    @Override
+    public void dispose() {
+        renderLoop.stop();
+        super.dispose();
     }
 
     /**
-     * Draws the next frame, i.e. refreshes the scores and game.
+     * Draws the next frame, i.e. refreshes the scores and game. Runs on the
+     * event dispatch thread and paints right away, so that the time taken is
+     * the time of the frame. All scores that changed since the previous
+     * frame are refreshed in one go.
      */
     private void nextFrame() {
-        boardPanel.repaint();
+        boardPanel.paintImmediately(0, 0, boardPanel.getWidth(), boardPanel.getHeight());
         scorePanel.refresh();
     }
 }
@@ -0,0 +1,202 @@
+package nl.tudelft.jpacman.ui;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Paces the frames of a user interface. Once per frame budget, the loop asks
+ * whether anything changed since the last frame and only then draws a frame
+ * on the event dispatch thread. A frame that falls due while the previous one
+ * is still waiting to be drawn is dropped rather than queued, so bursts of
+ * changes are coalesced into a single frame.
+ *
+ * <p>
+ * The time taken to draw the most recent frames is kept, so that frame time
+ * percentiles can be reported.
+ * </p>
+ *
+ * @author Jeroen Roosen
+ */
+public final class RenderLoop {
+
+    /**
+     * The number of frame times kept for percentiles.
+     */
+    private static final int SAMPLES = 1024;
+
+    /**
+     * The time (in milliseconds) between two frames at most.
+     */
+    private final long budgetMillis;
+
+    /**
+     * Tells whether anything changed since the last frame.
+     */
+    private final BooleanSupplier changed;
+
+    /**
+     * Draws a frame, on the event dispatch thread.
+     */
+    private final Runnable frame;
+
+    /**
+     * The thread checking for changes once per frame budget.
+     */
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * Whether a frame is waiting to be drawn.
+     */
+    private final AtomicBoolean pending;
+
+    /**
+     * The number of frames dropped because the previous one was not drawn
+     * yet.
+     */
+    private final AtomicLong dropped;
+
+    /**
+     * The time (in nanoseconds) taken by the most recent frames, as a ring.
+     */
+    private final long[] frameNanos;
+
+    /**
+     * The number of frames drawn so far.
+     */
+    private long frames;
+
+    /**
+     * Creates a new render loop, which does not run until it is started.
+     *
+     * @param budgetMillis
+     *            The time (in milliseconds) between two frames at most.
+     * @param changed
+     *            Tells whether anything changed since the last frame. It is
+     *            asked on the thread of the loop.
+     * @param frame
+     *            Draws a frame. It is run on the event dispatch thread.
+     */
+    public RenderLoop(long budgetMillis, BooleanSupplier changed, Runnable frame) {
+        assert budgetMillis > 0;
+        assert changed != null;
+        assert frame != null;
+
+        this.budgetMillis = budgetMillis;
+        this.changed = changed;
+        this.frame = frame;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "jpacman-render-loop");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pending = new AtomicBoolean();
+        this.dropped = new AtomicLong();
+        this.frameNanos = new long[SAMPLES];
+    }
+
+    /**
+     * Starts checking for changes once per frame budget.
+     */
+    public void start() {
+        ticker.scheduleAtFixedRate(this::tick, 0, budgetMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the loop and waits until its thread has finished. A frame that is
+     * already waiting on the event dispatch thread may still be drawn.
+     */
+    public void stop() {
+        ticker.shutdownNow();
+        try {
+            ticker.awaitTermination(budgetMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return <code>true</code> iff the loop was stopped.
+     */
+    public boolean isStopped() {
+        return ticker.isShutdown();
+    }
+
+    /**
+     * @return The number of frames drawn so far.
+     */
+    public long getFrameCount() {
+        synchronized (frameNanos) {
+            return frames;
+        }
+    }
+
+    /**
+     * @return The number of frames dropped because the previous frame was
+     *         not drawn yet.
+     */
+    public long getDroppedFrames() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns a percentile of the time taken to draw the most recent frames.
+     *
+     * @param percentile
+     *            The percentile, between <code>0</code> (exclusive) and
+     *            <code>100</code> (inclusive).
+     * @return The time (in nanoseconds) within which the given percentage of
+     *         the frames was drawn, or <code>0</code> if none was drawn yet.
+     */
+    public long getFrameTimePercentile(double percentile) {
+        assert percentile > 0 && percentile <= 100;
+        long[] sorted;
+        synchronized (frameNanos) {
+            sorted = Arrays.copyOf(frameNanos, (int) Math.min(frames, SAMPLES));
+        }
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, rank)];
+    }
+
+    /**
+     * Hands a frame to the event dispatch thread if anything changed and no
+     * frame is waiting to be drawn.
+     */
+    private void tick() {
+        if (!changed.getAsBoolean()) {
+            return;
+        }
+        if (!pending.compareAndSet(false, true)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        SwingUtilities.invokeLater(this::draw);
+    }
+
+    /**
+     * Draws a frame and records the time it took.
+     */
+    private void draw() {
+        long start = System.nanoTime();
+        try {
+            frame.run();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            synchronized (frameNanos) {
+                frameNanos[(int) (frames % SAMPLES)] = elapsed;
+                frames++;
+            }
+            pending.set(false);
+        }
+    }
+}
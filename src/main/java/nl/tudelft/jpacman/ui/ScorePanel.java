@@ -106,9 +106,8 @@
 package nl.tudelft.jpacman.ui;
 
 import java.awt.GridLayout;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import javax.swing.*;
 
@@ -118,6 +117,12 @@ import nl.tudelft.jpacman.level.Player;
  * A panel consisting of a column for each player, with the numbered players on
  * top and their respective scores underneath.
  *
+ * <p>
+ * A score is only formatted again when the {@link Player#getRevision()
+ * revision} of its player changed, and a label only gets a new text when that
+ * text differs, so refreshing stays cheap with many players on screen.
+ * </p>
+ *
  * @author Jeroen Roosen 
  *
  */
@@ -129,9 +134,9 @@ public class ScorePanel extends JPanel {
     private static final long serialVersionUID = 1L;
 
     /**
-     * The map of players and the labels their scores are on.
+     * The players and the labels their scores are on, in column order.
      */
-    private final Map<Player, JLabel> scoreLabels;
+    private final transient List<ScoreLabel> scoreLabels;
 
     /**
      * The default way in which the score is shown.
@@ -157,11 +162,11 @@ public class ScorePanel extends JPanel {
         for (int i = 1; i <= players.size(); i++) {
             add(new JLabel("Player " + i, JLabel.CENTER));
         }
-        scoreLabels = new LinkedHashMap<>();
+        scoreLabels = new ArrayList<>(players.size());
         for (Player player : players) {
-            JLabel scoreLabel = new JLabel("0", JLabel.CENTER);
-            scoreLabels.put(player, scoreLabel);
-            add(scoreLabel);
+            ScoreLabel scoreLabel = new ScoreLabel(player);
+            scoreLabels.add(scoreLabel);
+            add(scoreLabel.label);
         }
 
         // Ligne 3 : Boutons pour ajouter des vies
@@ -176,17 +181,29 @@ public class ScorePanel extends JPanel {
     }
 
     /**
-     * Refreshes the scores of the players.
+     * Tells whether the score of any player changed since the last refresh.
+     * This may be asked on any thread.
+     *
+     * @return <code>true</code> iff the panel needs to be refreshed.
+     */
+    boolean needsRefresh() {
+        for (ScoreLabel scoreLabel : scoreLabels) {
+            if (scoreLabel.isOutdated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Refreshes the scores of the players that changed since the last
+     * refresh. Must be called on the event dispatch thread.
      */
     protected void refresh() {
-        for (Map.Entry<Player, JLabel> entry : scoreLabels.entrySet()) {
-            Player player = entry.getKey();
-            String score = "";
-            if (!player.isAlive()) {
-                score = "You died. ";
+        for (ScoreLabel scoreLabel : scoreLabels) {
+            if (scoreLabel.isOutdated()) {
+                scoreLabel.update(scoreFormatter);
             }
-            score += scoreFormatter.format(player);
-            entry.getValue().setText(score);
         }
     }
 
@@ -210,5 +227,85 @@ public class ScorePanel extends JPanel {
     public void setScoreFormatter(ScoreFormatter scoreFormatter) {
         assert scoreFormatter != null;
         this.scoreFormatter = scoreFormatter;
+        for (ScoreLabel scoreLabel : scoreLabels) {
+            scoreLabel.invalidate();
+        }
+    }
+
+    /**
+     * The label showing the score of a player, together with the revision
+     * of the player it shows.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class ScoreLabel {
+
+        /**
+         * The player whose score is shown.
+         */
+        private final Player player;
+
+        /**
+         * The label the score is on.
+         */
+        private final JLabel label;
+
+        /**
+         * The revision of the player the label shows, or <code>-1</code> if
+         * it shows none yet.
+         */
+        private volatile int shown = -1;
+
+        /**
+         * The text on the label.
+         */
+        private String text;
+
+        /**
+         * Creates a new label that does not show the score yet.
+         *
+         * @param player
+         *            The player whose score is shown.
+         */
+        ScoreLabel(Player player) {
+            this.player = player;
+            this.text = "0";
+            this.label = new JLabel(text, JLabel.CENTER);
+        }
+
+        /**
+         * @return <code>true</code> iff the player changed since the label
+         *         was last updated.
+         */
+        boolean isOutdated() {
+            return shown != player.getRevision();
+        }
+
+        /**
+         * Makes the label outdated, e.g. because the format changed.
+         */
+        void invalidate() {
+            shown = -1;
+        }
+
+        /**
+         * Formats the score again and puts it on the label if it differs.
+         *
+         * @param formatter
+         *            The way to format the score.
+         */
+        void update(ScoreFormatter formatter) {
+            int revision = player.getRevision();
+            String score = "";
+            if (!player.isAlive()) {
+                score = "You died. ";
+            }
+            score += formatter.format(player);
+            if (!score.equals(text)) {
+                text = score;
+                label.setText(score);
+            }
+            shown = revision;
+        }
     }
 }